@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.benchmarks;
+
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.persistence.jooq.I18nRegionRepositoryJooq;
+import com.coyotesong.examples.repository.async.AsyncI18nRegionRepository;
+import com.coyotesong.examples.repository.async.BoundedVirtualThreadExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the virtual-thread facade with a conventional platform thread pool when
+ * `requests` lookups arrive at the same time
+ *
+ * The platform pool has the same number of threads as a default Tomcat connector. The
+ * reported time is for the whole burst.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AsyncRepositoryBenchmark {
+    static final int ROWS = 10_000;
+    static final int PLATFORM_THREADS = 200;
+
+    /**
+     * Repositories, executors, and test data
+     */
+    @State(Scope.Benchmark)
+    public static class Repositories {
+        @Param({"1000", "10000"})
+        public int requests;
+
+        I18nRegionRepositoryJooq regionRepository;
+        BoundedVirtualThreadExecutor virtualExecutor;
+        AsyncI18nRegionRepository asyncRepository;
+        ExecutorService platformExecutor;
+
+        List<I18nRegion> regions;
+
+        @Setup(Level.Trial)
+        public void setup(PostgreSQLDatabase database) {
+            regionRepository = new I18nRegionRepositoryJooq(database.getConfiguration());
+            regionRepository.delete();
+            regions = SyntheticData.regions(ROWS);
+            regionRepository.load(regions);
+
+            virtualExecutor = BoundedVirtualThreadExecutor.forDataSource(database.getDataSource());
+            asyncRepository = new AsyncI18nRegionRepository(regionRepository, virtualExecutor);
+            platformExecutor = Executors.newFixedThreadPool(PLATFORM_THREADS);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            virtualExecutor.close();
+            platformExecutor.close();
+        }
+
+        I18nRegion region(int idx) {
+            return regions.get(idx % regions.size());
+        }
+    }
+
+    @Benchmark
+    public void virtualThreads(Repositories state) {
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[state.requests];
+        for (int i = 0; i < state.requests; i++) {
+            final I18nRegion region = state.region(i);
+            futures[i] = state.asyncRepository.findByCodeAndLocaleAsync(region.getCode(), region.getHl());
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    @Benchmark
+    public void platformThreads(Repositories state) {
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[state.requests];
+        for (int i = 0; i < state.requests; i++) {
+            final I18nRegion region = state.region(i);
+            futures[i] = CompletableFuture.supplyAsync(
+                    () -> state.regionRepository.findByCodeAndLocale(region.getCode(), region.getHl()),
+                    state.platformExecutor);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+}
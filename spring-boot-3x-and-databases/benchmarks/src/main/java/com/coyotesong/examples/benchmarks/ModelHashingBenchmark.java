@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.benchmarks;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.model.ImmutableI18nLanguage;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the commons-lang builders with the allocation-free `equals()` and `hashCode()`
+ *
+ * The `builder` benchmarks reproduce the previous implementation. The `distinct`
+ * benchmarks de-duplicate a list where every language appears twice, as in a bulk import
+ * of overlapping files. Run with `-prof gc` to see the allocation rate. The reported
+ * throughput is languages/second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ModelHashingBenchmark {
+    static final int ROWS = 100_000;
+
+    /**
+     * Languages, each present twice, as mutable and immutable objects
+     */
+    @State(Scope.Benchmark)
+    public static class Languages {
+        List<I18nLanguage> languages;
+        List<I18nLanguage> copies;
+        List<ImmutableI18nLanguage> values;
+
+        @Setup
+        public void setup() {
+            final List<I18nLanguage> unique = SyntheticData.languages(ROWS / 2);
+            languages = new ArrayList<>(ROWS);
+            languages.addAll(unique);
+            languages.addAll(SyntheticData.languages(ROWS / 2));
+
+            copies = SyntheticData.languages(ROWS);
+            values = languages.stream().map(ImmutableI18nLanguage::of).toList();
+        }
+    }
+
+    private static int builderHashCode(I18nLanguage language) {
+        return new HashCodeBuilder(17, 37)
+                .append(language.getCode())
+                .append(language.getName())
+                .append(language.getHl())
+                .toHashCode();
+    }
+
+    private static boolean builderEquals(I18nLanguage a, I18nLanguage b) {
+        return new EqualsBuilder()
+                .append(a.getCode(), b.getCode())
+                .append(a.getName(), b.getName())
+                .append(a.getHl(), b.getHl())
+                .isEquals();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int hashCodeBuilder(Languages state) {
+        int h = 0;
+        for (I18nLanguage language : state.languages) {
+            h += builderHashCode(language);
+        }
+        return h;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int hashCodeDirect(Languages state) {
+        int h = 0;
+        for (I18nLanguage language : state.languages) {
+            h += language.hashCode();
+        }
+        return h;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int hashCodeCached(Languages state) {
+        int h = 0;
+        for (ImmutableI18nLanguage value : state.values) {
+            h += value.hashCode();
+        }
+        return h;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int equalsBuilder(Languages state) {
+        int matches = 0;
+        for (int i = 0; i < ROWS; i++) {
+            if (builderEquals(state.languages.get(i), state.copies.get(i))) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int equalsDirect(Languages state) {
+        int matches = 0;
+        for (int i = 0; i < ROWS; i++) {
+            if (state.languages.get(i).equals(state.copies.get(i))) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Set<I18nLanguage> distinctMutable(Languages state) {
+        return new HashSet<>(state.languages);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Set<ImmutableI18nLanguage> distinctImmutable(Languages state) {
+        return new HashSet<>(state.values);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.benchmarks;
+
+import com.coyotesong.examples.containers.EnhancedPostgreSQLContainer;
+import com.coyotesong.examples.containers.actions.FlywayMigrationAction;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.jooq.Configuration;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DataSourceConnectionProvider;
+import org.jooq.impl.DefaultConfiguration;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Benchmark state - a migrated PostgreSQL test container plus a jOOQ configuration
+ *
+ * We create our own HikariDataSource instead of using `container.getDataSource()`
+ * since the flyway migration closes the pool returned by that method.
+ */
+@State(Scope.Benchmark)
+@SuppressWarnings("JavadocBlankLines")
+public class PostgreSQLDatabase {
+    public static final DockerImageName DOCKER_IMAGE_NAME = DockerImageName.parse("postgres:16.3");
+
+    private EnhancedPostgreSQLContainer<?> container;
+    private HikariDataSource dataSource;
+    private Configuration configuration;
+
+    /**
+     * Start the container and run the flyway migrations
+     */
+    @Setup(Level.Trial)
+    public void start() {
+        container = new EnhancedPostgreSQLContainer<>(DOCKER_IMAGE_NAME);
+        container.addPostConstructAction(new FlywayMigrationAction());
+        container.start();
+
+        final HikariConfig config = new HikariConfig();
+        config.setDriverClassName(container.getDriverClassName());
+        config.setJdbcUrl(container.getJdbcUrl());
+        config.setUsername(container.getUsername());
+        config.setPassword(container.getPassword());
+        config.setPoolName("benchmark");
+        dataSource = new HikariDataSource(config);
+
+        final DefaultConfiguration jooqConfiguration = new DefaultConfiguration();
+        jooqConfiguration.set(SQLDialect.POSTGRES);
+        jooqConfiguration.set(new DataSourceConnectionProvider(dataSource));
+        configuration = jooqConfiguration;
+    }
+
+    /**
+     * Close the pool and stop the container
+     */
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    public EnhancedPostgreSQLContainer<?> getContainer() {
+        return container;
+    }
+
+    public HikariDataSource getDataSource() {
+        return dataSource;
+    }
+
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.benchmarks;
+
+import com.coyotesong.examples.persistence.jooq.QueryTemplate;
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.coyotesong.examples.persistence.jooq.generated.tables.I18nLanguage.I18N_LANGUAGE;
+
+/**
+ * Compare the cost of producing the SQL for `findByCodeAndLocale()`
+ *
+ * The baseline builds the query tree and renders it on every call. The template renders
+ * the tree once and then only wraps the cached SQL and bind values. Both produce the
+ * SQL string that is sent to the driver. No database is needed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class QueryRenderBenchmark {
+
+    /**
+     * DSLContext and template
+     */
+    @State(Scope.Benchmark)
+    public static class Queries {
+        DSLContext ctx;
+        QueryTemplate template;
+
+        @Setup
+        public void setup() {
+            ctx = DSL.using(SQLDialect.POSTGRES);
+            template = new QueryTemplate(dsl -> dsl.selectFrom(I18N_LANGUAGE)
+                    .where(I18N_LANGUAGE.CODE.eq(DSL.param("code", String.class))
+                            .and(I18N_LANGUAGE.HL.eq(DSL.param("hl", String.class)))));
+        }
+    }
+
+    @Benchmark
+    public String buildAndRender(Queries state) {
+        return state.ctx.selectFrom(I18N_LANGUAGE)
+                .where(I18N_LANGUAGE.CODE.eq("en").and(I18N_LANGUAGE.HL.eq("en")))
+                .getSQL();
+    }
+
+    @Benchmark
+    public String template(Queries state) {
+        return state.template.query(state.ctx, "en", "en").getSQL();
+    }
+}
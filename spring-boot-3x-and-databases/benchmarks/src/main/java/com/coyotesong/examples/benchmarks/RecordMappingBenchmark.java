@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.benchmarks;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.persistence.jooq.I18nLanguageRepositoryJooq;
+import com.coyotesong.examples.persistence.jooq.generated.tables.records.I18nLanguageRecord;
+import com.coyotesong.examples.persistence.jooq.mapping.I18nLanguageRecordMapper;
+import org.jooq.DSLContext;
+import org.jooq.Result;
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.coyotesong.examples.persistence.jooq.generated.tables.I18nLanguage.I18N_LANGUAGE;
+
+/**
+ * Compare jOOQ's reflective `DefaultRecordMapper` with the index-based `I18nLanguageRecordMapper`
+ *
+ * The `fetch` benchmarks read 1M rows from the database, so they include the JDBC cost.
+ * The `map` benchmarks convert an already-fetched result and show the mapping cost alone.
+ * The reported throughput is rows/second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RecordMappingBenchmark {
+    static final int ROWS = 1_000_000;
+
+    /**
+     * Database with 1M languages, and the same rows already fetched
+     */
+    @State(Scope.Benchmark)
+    public static class Rows {
+        DSLContext ctx;
+        Result<I18nLanguageRecord> result;
+
+        @Setup
+        public void setup(PostgreSQLDatabase database) {
+            final I18nLanguageRepositoryJooq repository = new I18nLanguageRepositoryJooq(database.getConfiguration());
+            repository.truncate();
+            repository.load(SyntheticData.languages(ROWS));
+
+            // this uses jOOQ's default RecordMapperProvider
+            ctx = DSL.using(database.getConfiguration());
+            result = ctx.selectFrom(I18N_LANGUAGE).fetch();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<I18nLanguage> fetchReflective(Rows state) {
+        return state.ctx.selectFrom(I18N_LANGUAGE).fetchInto(I18nLanguage.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<I18nLanguage> fetchMapper(Rows state) {
+        return state.ctx.selectFrom(I18N_LANGUAGE).fetch(I18nLanguageRecordMapper.INSTANCE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<I18nLanguage> mapReflective(Rows state) {
+        return state.result.into(I18nLanguage.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<I18nLanguage> mapMapper(Rows state) {
+        return state.result.map(I18nLanguageRecordMapper.INSTANCE);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.benchmarks;
+
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.persistence.jooq.I18nRegionRepositoryJooq;
+import com.coyotesong.examples.persistence.jooq.generated.tables.records.I18nRegionRecord;
+import com.coyotesong.examples.persistence.jooq.mapping.I18nRegionRecordMapper;
+import com.coyotesong.examples.repository.cache.RetainedSize;
+import com.coyotesong.examples.repository.cache.StringPool;
+import org.jooq.Result;
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.coyotesong.examples.persistence.jooq.generated.tables.I18nRegion.I18N_REGION;
+
+/**
+ * Compare mapping regions with and without the `StringPool`
+ *
+ * The benchmarks map 1M already-fetched rows and report rows/second, i.e., the cost of
+ * the pool lookups. The heap footprint is printed at the end of the trial - it's the
+ * size of the distinct `String` instances reachable from the mapped regions, which is
+ * what a snapshot or cache would retain once the jOOQ result is discarded.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StringPoolBenchmark {
+    static final int ROWS = 1_000_000;
+
+    private static final I18nRegionRecordMapper UNPOOLED = I18nRegionRecordMapper.using(StringPool.NONE);
+
+    /**
+     * Database with 1M regions, already fetched
+     */
+    @State(Scope.Benchmark)
+    public static class Rows {
+        Result<I18nRegionRecord> result;
+
+        @Setup
+        public void setup(PostgreSQLDatabase database) {
+            final I18nRegionRepositoryJooq repository = new I18nRegionRepositoryJooq(database.getConfiguration());
+            repository.truncate();
+            repository.load(SyntheticData.regions(ROWS));
+
+            result = DSL.using(database.getConfiguration()).selectFrom(I18N_REGION).fetch();
+        }
+
+        @TearDown(Level.Trial)
+        public void footprint() {
+            final long unpooled = stringBytes(result.map(UNPOOLED));
+            final long pooled = stringBytes(result.map(I18nRegionRecordMapper.using(new StringPool(
+                    StringPool.DEFAULT_CAPACITY, StringPool.DEFAULT_MAX_LENGTH))));
+            System.out.printf("%nretained String bytes for %,d regions: unpooled %,d, pooled %,d (%.1f%%)%n",
+                    ROWS, unpooled, pooled, 100.0 * pooled / unpooled);
+        }
+    }
+
+    /**
+     * Estimate the size of the distinct strings held by regions
+     *
+     * @param regions regions
+     * @return estimated size in bytes
+     */
+    static long stringBytes(List<I18nRegion> regions) {
+        final Set<String> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        long bytes = 0L;
+        for (I18nRegion region : regions) {
+            for (String value : new String[]{region.getCode(), region.getHl(), region.getName(), region.getGl()}) {
+                if (value != null && seen.add(value)) {
+                    bytes += RetainedSize.of(value);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<I18nRegion> mapUnpooled(Rows state) {
+        return state.result.map(UNPOOLED);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<I18nRegion> mapPooled(Rows state) {
+        return state.result.map(I18nRegionRecordMapper.INSTANCE);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.benchmarks;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.model.I18nRegion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic test data
+ *
+ * The values are deterministic so repeated runs are comparable. The `(code, hl)`
+ * pairs are unique.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class SyntheticData {
+
+    /**
+     * A representative subset of the locales provided by YouTube
+     */
+    public static final List<String> LOCALES = List.of(
+            "af", "az", "id", "ms", "bs", "ca", "cs", "da", "de", "et",
+            "en-IN", "en-GB", "en", "es", "es-419", "es-US", "eu", "fil", "fr", "fr-CA",
+            "gl", "hr", "zu", "is", "it", "sw", "lv", "lt", "hu", "nl",
+            "no", "uz", "pl", "pt-PT", "pt", "ro", "sq", "sk", "sl", "sr-Latn",
+            "fi", "sv", "vi", "tr", "be", "bg", "ky", "kk", "mk", "mn",
+            "ru", "sr", "uk", "el", "hy", "iw", "ur", "ar", "fa", "ne",
+            "mr", "hi", "as", "bn", "pa", "gu", "or", "ta", "te", "kn",
+            "ml", "si", "th", "lo", "my", "ka", "am", "km", "zh-CN", "zh-TW",
+            "zh-HK", "ja", "ko");
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Create synthetic languages
+     *
+     * @param count number of languages
+     * @return list of languages
+     */
+    public static List<I18nLanguage> languages(int count) {
+        final List<I18nLanguage> languages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final I18nLanguage language = new I18nLanguage();
+            language.setCode(code(i));
+            language.setHl(LOCALES.get(i % LOCALES.size()));
+            language.setName("Language " + i);
+            languages.add(language);
+        }
+        return languages;
+    }
+
+    /**
+     * Create synthetic regions
+     *
+     * @param count number of regions
+     * @return list of regions
+     */
+    public static List<I18nRegion> regions(int count) {
+        final List<I18nRegion> regions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final I18nRegion region = new I18nRegion();
+            region.setCode(code(i));
+            region.setGl(region.getCode());
+            region.setHl(LOCALES.get(i % LOCALES.size()));
+            region.setName("Region " + i);
+            regions.add(region);
+        }
+        return regions;
+    }
+
+    /**
+     * Create code that's unique within each locale
+     *
+     * @param idx row index
+     * @return code
+     */
+    private static String code(int idx) {
+        return "X" + (idx / LOCALES.size());
+    }
+}
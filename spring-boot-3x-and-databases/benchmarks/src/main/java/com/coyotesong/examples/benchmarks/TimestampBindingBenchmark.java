@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.coyotesong.examples.benchmarks;
+
+import com.coyotesong.examples.containers.EnhancedClickHouseContainer;
+import com.coyotesong.examples.containers.EnhancedCockroachDBContainer;
+import com.coyotesong.examples.containers.EnhancedDb2Container;
+import com.coyotesong.examples.containers.EnhancedMariaDBContainer;
+import com.coyotesong.examples.containers.EnhancedMySQLContainer;
+import com.coyotesong.examples.containers.EnhancedOceanBaseCEContainer;
+import com.coyotesong.examples.containers.EnhancedOracleFreeContainer;
+import com.coyotesong.examples.containers.EnhancedOracleXEContainer;
+import com.coyotesong.examples.containers.EnhancedPostgreSQLContainer;
+import com.coyotesong.examples.containers.EnhancedQuestDBContainer;
+import com.coyotesong.examples.containers.EnhancedSQLServerContainer;
+import com.coyotesong.examples.containers.EnhancedTiDBContainer;
+import com.coyotesong.examples.containers.EnhancedTimescaleContainer;
+import com.coyotesong.examples.containers.EnhancedTrinoContainer;
+import com.coyotesong.examples.containers.EnhancedYugabyteDBContainer;
+import com.coyotesong.examples.persistence.jooq.bindings.LocalDateTimeToInstantBinding;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.jooq.BindingGetResultSetContext;
+import org.jooq.DSLContext;
+import org.jooq.DataType;
+import org.jooq.Field;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.jooq.tools.jdbc.JDBCUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcontainers.containers.JdbcDatabaseContainer;
+
+import java.io.Serial;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the `LocalDateTimeToInstantBinding` read path with the previous `Calendar` and
+ * `Timestamp` implementation, on each of the supported databases
+ *
+ * Each invocation reads a single `TIMESTAMP` literal, so the throughput is dominated by
+ * the round trip and will barely move. Run with `-prof gc` - the interesting figure is
+ * `gc.alloc.rate.norm`, the number of bytes allocated per row.
+ *
+ * Db2 and SQL Server require accepting the vendor's license.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@SuppressWarnings({"JavadocBlankLines", "SqlNoDataSourceInspection"})
+public class TimestampBindingBenchmark {
+
+    /**
+     * The databases, and a single-row query for a `TIMESTAMP` value in each one's dialect
+     */
+    public enum Database {
+        CLICKHOUSE("SELECT CAST('2024-07-04 12:34:56' AS DateTime)"),
+        COCKROACHDB("SELECT TIMESTAMP '2024-07-04 12:34:56'"),
+        DB2("SELECT TIMESTAMP('2024-07-04 12:34:56') FROM SYSIBM.SYSDUMMY1"),
+        MARIADB("SELECT CAST('2024-07-04 12:34:56' AS DATETIME)"),
+        MYSQL("SELECT CAST('2024-07-04 12:34:56' AS DATETIME)"),
+        OCEANBASE("SELECT CAST('2024-07-04 12:34:56' AS DATETIME)"),
+        ORACLE_FREE("SELECT TIMESTAMP '2024-07-04 12:34:56' FROM DUAL"),
+        ORACLE_XE("SELECT TIMESTAMP '2024-07-04 12:34:56' FROM DUAL"),
+        POSTGRESQL("SELECT TIMESTAMP '2024-07-04 12:34:56'"),
+        QUESTDB("SELECT CAST('2024-07-04T12:34:56.000000Z' AS TIMESTAMP)"),
+        SQLSERVER("SELECT CAST('2024-07-04 12:34:56' AS DATETIME2)"),
+        TIDB("SELECT CAST('2024-07-04 12:34:56' AS DATETIME)"),
+        TIMESCALE("SELECT TIMESTAMP '2024-07-04 12:34:56'"),
+        TRINO("SELECT TIMESTAMP '2024-07-04 12:34:56'"),
+        YUGABYTEDB("SELECT TIMESTAMP '2024-07-04 12:34:56'");
+
+        private final String sql;
+
+        Database(String sql) {
+            this.sql = sql;
+        }
+
+        /**
+         * Create (but don't start) the container
+         *
+         * @return container
+         */
+        JdbcDatabaseContainer<?> newContainer() {
+            return switch (this) {
+                case CLICKHOUSE -> new EnhancedClickHouseContainer();
+                case COCKROACHDB -> new EnhancedCockroachDBContainer();
+                case DB2 -> {
+                    final EnhancedDb2Container container = new EnhancedDb2Container();
+                    container.acceptLicense();
+                    yield container;
+                }
+                case MARIADB -> new EnhancedMariaDBContainer<>();
+                case MYSQL -> new EnhancedMySQLContainer<>();
+                case OCEANBASE -> new EnhancedOceanBaseCEContainer();
+                case ORACLE_FREE -> new EnhancedOracleFreeContainer();
+                case ORACLE_XE -> new EnhancedOracleXEContainer();
+                case POSTGRESQL -> new EnhancedPostgreSQLContainer<>();
+                case QUESTDB -> new EnhancedQuestDBContainer();
+                case SQLSERVER -> {
+                    final EnhancedSQLServerContainer<?> container = new EnhancedSQLServerContainer<>();
+                    container.acceptLicense();
+                    yield container;
+                }
+                case TIDB -> new EnhancedTiDBContainer();
+                case TIMESCALE -> new EnhancedTimescaleContainer<>();
+                case TRINO -> new EnhancedTrinoContainer();
+                case YUGABYTEDB -> new EnhancedYugabyteDBContainer();
+            };
+        }
+    }
+
+    /**
+     * The previous implementation - a new UTC `Calendar` and a `Timestamp` for every value
+     */
+    static final class CalendarBinding extends LocalDateTimeToInstantBinding {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private static final TimeZone TIMEZONE_UTC = TimeZone.getTimeZone(ZoneOffset.UTC);
+
+        @Override
+        @SuppressWarnings("all") // we shouldn't close ResultSet!
+        public void get(BindingGetResultSetContext<Instant> ctx) throws SQLException {
+            final ResultSet resultSet = ctx.resultSet();
+            final Calendar calendar = Calendar.getInstance(TIMEZONE_UTC);
+            final Timestamp timestamp = resultSet.getTimestamp(ctx.index(), calendar);
+
+            if (timestamp == null) {
+                ctx.value(null);
+            } else {
+                ctx.value(converter().from(timestamp.toLocalDateTime()));
+            }
+        }
+    }
+
+    /**
+     * A started container, and the same query with each binding
+     */
+    @State(Scope.Benchmark)
+    public static class Timestamps {
+        @Param
+        public Database database;
+
+        private JdbcDatabaseContainer<?> container;
+        private HikariDataSource dataSource;
+
+        DSLContext ctx;
+        Field<Instant> current;
+        Field<Instant> calendar;
+
+        @Setup(Level.Trial)
+        public void start() throws SQLException {
+            container = database.newContainer();
+            container.start();
+
+            final HikariConfig config = new HikariConfig();
+            config.setDriverClassName(container.getDriverClassName());
+            config.setJdbcUrl(container.getJdbcUrl());
+            config.setUsername(container.getUsername());
+            config.setPassword(container.getPassword());
+            config.setMaximumPoolSize(1);
+            config.setPoolName("benchmark");
+            dataSource = new HikariDataSource(config);
+
+            // the community edition reports many of these as DEFAULT
+            final SQLDialect dialect;
+            try (Connection connection = dataSource.getConnection()) {
+                dialect = JDBCUtils.dialect(connection);
+            }
+            ctx = DSL.using(dataSource, dialect);
+
+            final DataType<Instant> currentType =
+                    SQLDataType.LOCALDATETIME.asConvertedDataType(new LocalDateTimeToInstantBinding());
+            final DataType<Instant> calendarType =
+                    SQLDataType.LOCALDATETIME.asConvertedDataType(new CalendarBinding());
+            current = DSL.field(DSL.name("ts"), currentType);
+            calendar = DSL.field(DSL.name("ts"), calendarType);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            if (dataSource != null) {
+                dataSource.close();
+            }
+            if (container != null) {
+                container.stop();
+            }
+        }
+    }
+
+    @Benchmark
+    public Instant javaTime(Timestamps state) {
+        return state.ctx.resultQuery(state.database.sql).coerce(state.current).fetchOne().value1();
+    }
+
+    @Benchmark
+    public Instant calendar(Timestamps state) {
+        return state.ctx.resultQuery(state.database.sql).coerce(state.calendar).fetchOne().value1();
+    }
+}
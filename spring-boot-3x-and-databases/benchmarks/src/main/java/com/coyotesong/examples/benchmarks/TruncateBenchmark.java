@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.benchmarks;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.persistence.jooq.I18nLanguageRepositoryJooq;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare emptying a table with `delete()` and with `truncate()`
+ *
+ * The table is reloaded with `COPY` before every invocation, outside of the measured
+ * time. The reported time is per reset, in milliseconds.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TruncateBenchmark {
+
+    /**
+     * Repository and test data
+     */
+    @State(Scope.Benchmark)
+    public static class Repositories {
+        @Param({"10000", "1000000"})
+        public int rows;
+
+        I18nLanguageRepositoryJooq languageRepository;
+        List<I18nLanguage> languages;
+
+        @Setup(Level.Trial)
+        public void setup(PostgreSQLDatabase database) {
+            languageRepository = new I18nLanguageRepositoryJooq(database.getConfiguration());
+            languages = SyntheticData.languages(rows);
+        }
+
+        @Setup(Level.Invocation)
+        public void reload() {
+            languageRepository.truncate();
+            languageRepository.load(languages);
+        }
+    }
+
+    @Benchmark
+    public void delete(Repositories state) {
+        state.languageRepository.delete();
+    }
+
+    @Benchmark
+    public void truncate(Repositories state) {
+        state.languageRepository.truncate();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.benchmarks;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.persistence.jooq.I18nLanguageRepositoryJooq;
+import com.coyotesong.examples.persistence.jooq.I18nRegionRepositoryJooq;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare re-importing reference data with `delete()` + `bulkInsert(Collection)` and
+ * with `upsert(Collection)`
+ *
+ * The table already contains every row so each upsert is an update. Both approaches
+ * leave the table in the same state so it is only loaded once per trial. The reported
+ * throughput is rows/second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UpsertBenchmark {
+    static final int ROWS = 10_000;
+
+    /**
+     * Repositories and test data
+     */
+    @State(Scope.Benchmark)
+    public static class Repositories {
+        @Param({"100", "500", "1000"})
+        public int batchSize;
+
+        I18nLanguageRepositoryJooq languageRepository;
+        I18nRegionRepositoryJooq regionRepository;
+
+        List<I18nLanguage> languages;
+        List<I18nRegion> regions;
+
+        @Setup(Level.Trial)
+        public void setup(PostgreSQLDatabase database) {
+            languageRepository = new I18nLanguageRepositoryJooq(database.getConfiguration());
+            languageRepository.setBatchSize(batchSize);
+            regionRepository = new I18nRegionRepositoryJooq(database.getConfiguration());
+            regionRepository.setBatchSize(batchSize);
+
+            languages = SyntheticData.languages(ROWS);
+            regions = SyntheticData.regions(ROWS);
+
+            languageRepository.delete();
+            regionRepository.delete();
+            languageRepository.load(languages);
+            regionRepository.load(regions);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void languageDeleteAndInsert(Repositories state) {
+        state.languageRepository.delete();
+        state.languageRepository.bulkInsert(state.languages);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void languageUpsert(Repositories state) {
+        state.languageRepository.upsert(state.languages);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void regionDeleteAndInsert(Repositories state) {
+        state.regionRepository.delete();
+        state.regionRepository.bulkInsert(state.regions);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void regionUpsert(Repositories state) {
+        state.regionRepository.upsert(state.regions);
+    }
+}
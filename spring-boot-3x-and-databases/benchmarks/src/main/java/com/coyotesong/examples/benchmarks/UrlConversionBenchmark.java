@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.coyotesong.examples.benchmarks;
+
+import com.coyotesong.examples.model.LazyUrl;
+import com.coyotesong.examples.persistence.jooq.bindings.VarcharToLazyUrlBinding.VarcharToLazyUrlConverter;
+import com.coyotesong.examples.persistence.jooq.bindings.VarcharToUrlBinding.VarcharToUrlConverter;
+import com.coyotesong.examples.repository.cache.UrlCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare converting URL columns eagerly, through a `UrlCache`, and lazily
+ *
+ * Each invocation converts 100k strings that are copies of `distinct` different URLs,
+ * the way a driver returns a new string for every row. The `lazy` benchmarks convert
+ * the values but never look at them - the usual case when rows are only passed along.
+ * The reported throughput is values/second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UrlConversionBenchmark {
+    static final int ROWS = 100_000;
+
+    /**
+     * The column values
+     */
+    @State(Scope.Benchmark)
+    public static class Values {
+        @Param({"16", "100000"})
+        public int distinct;
+
+        String[] values;
+
+        @Setup
+        public void setup() {
+            values = new String[ROWS];
+            for (int i = 0; i < ROWS; i++) {
+                values[i] = new String("https://www.example.com/channels/" + (i % distinct) + "/videos?hl=en");
+            }
+        }
+    }
+
+    /**
+     * A new cache for each trial, so the miss rate reflects `distinct`
+     */
+    @State(Scope.Benchmark)
+    public static class Converters {
+        final VarcharToUrlConverter eager = new VarcharToUrlConverter();
+        final VarcharToUrlConverter cached = new VarcharToUrlConverter(new UrlCache(UrlCache.DEFAULT_CAPACITY));
+        final VarcharToLazyUrlConverter lazy = new VarcharToLazyUrlConverter();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void eager(Values values, Converters converters, Blackhole bh) {
+        for (String value : values.values) {
+            bh.consume(converters.eager.from(value));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void cached(Values values, Converters converters, Blackhole bh) {
+        for (String value : values.values) {
+            bh.consume(converters.cached.from(value));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void lazy(Values values, Converters converters, Blackhole bh) {
+        for (String value : values.values) {
+            bh.consume(converters.lazy.from(value));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void lazyThenParsed(Values values, Converters converters, Blackhole bh) {
+        for (String value : values.values) {
+            final LazyUrl url = converters.lazy.from(value);
+            bh.consume(url.toURL());
+        }
+    }
+}
@@ -19,13 +19,12 @@ package com.coyotesong.examples.model;
 
 //import jakarta.persistence.*;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * YouTube I18nLanguage
@@ -91,12 +90,10 @@ public class I18nLanguage implements Serializable {
         }
 
         if (o instanceof I18nLanguage that) {
-            return new EqualsBuilder()
-                    // DO NOT INCLUDE KEY!
-                    .append(code, that.code)
-                    .append(name, that.name)
-                    .append(hl, that.hl)
-                    .isEquals();
+            // DO NOT INCLUDE KEY!
+            return Objects.equals(code, that.code)
+                    && Objects.equals(name, that.name)
+                    && Objects.equals(hl, that.hl);
         }
 
         return false;
@@ -104,11 +101,26 @@ public class I18nLanguage implements Serializable {
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder(17, 37)
-                .append(code)
-                .append(name)
-                .append(hl)
-                .toHashCode();
+        return hash(code, name, hl);
+    }
+
+    /**
+     * Compute the hash code without allocating
+     *
+     * The value is the same as the `HashCodeBuilder(17, 37)` this replaced. It is
+     * shared with {@link ImmutableI18nLanguage} so equal values have the same hash.
+     *
+     * @param code code
+     * @param name name
+     * @param hl   hl
+     * @return hash code
+     */
+    static int hash(String code, String name, String hl) {
+        int result = 17;
+        result = 37 * result + Objects.hashCode(code);
+        result = 37 * result + Objects.hashCode(name);
+        result = 37 * result + Objects.hashCode(hl);
+        return result;
     }
 
     @Override
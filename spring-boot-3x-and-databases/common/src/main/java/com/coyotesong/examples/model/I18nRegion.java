@@ -17,13 +17,12 @@
 
 package com.coyotesong.examples.model;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * YouTube I18nRegion
@@ -93,13 +92,11 @@ public class I18nRegion implements Serializable {
         }
 
         if (o instanceof I18nRegion that) {
-            return new EqualsBuilder()
-                    // DO NOT INCLUDE KEY!
-                    .append(code, that.code)
-                    .append(name, that.name)
-                    .append(hl, that.hl)
-                    .append(gl, that.gl)
-                    .isEquals();
+            // DO NOT INCLUDE KEY!
+            return Objects.equals(code, that.code)
+                    && Objects.equals(name, that.name)
+                    && Objects.equals(hl, that.hl)
+                    && Objects.equals(gl, that.gl);
         }
 
         return false;
@@ -107,12 +104,28 @@ public class I18nRegion implements Serializable {
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder(17, 37)
-                .append(code)
-                .append(name)
-                .append(hl)
-                .append(gl)
-                .toHashCode();
+        return hash(code, name, hl, gl);
+    }
+
+    /**
+     * Compute the hash code without allocating
+     *
+     * The value is the same as the `HashCodeBuilder(17, 37)` this replaced. It is
+     * shared with {@link ImmutableI18nRegion} so equal values have the same hash.
+     *
+     * @param code code
+     * @param name name
+     * @param hl   hl
+     * @param gl   gl
+     * @return hash code
+     */
+    static int hash(String code, String name, String hl, String gl) {
+        int result = 17;
+        result = 37 * result + Objects.hashCode(code);
+        result = 37 * result + Objects.hashCode(name);
+        result = 37 * result + Objects.hashCode(hl);
+        result = 37 * result + Objects.hashCode(gl);
+        return result;
     }
 
     @Override
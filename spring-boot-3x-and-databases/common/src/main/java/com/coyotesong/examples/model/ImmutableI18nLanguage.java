@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.coyotesong.examples.model;
+
+import java.io.Serial;
+
+/**
+ * Immutable I18nLanguage
+ *
+ * The setters throw `UnsupportedOperationException`, so a value can be shared safely by
+ * snapshots and caches and returned anywhere an `I18nLanguage` is expected, without a copy.
+ *
+ * The hash is computed once, so this is cheaper than {@link I18nLanguage} as a map key
+ * or when de-duplicating large collections. Equality and hashing follow `I18nLanguage` -
+ * the key is ignored - and a value is equal to the language it was copied from.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class ImmutableI18nLanguage extends I18nLanguage {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int hash;
+
+    /**
+     * Constructor
+     *
+     * @param key  database key (may be null)
+     * @param code code
+     * @param name name
+     * @param hl   locale
+     */
+    public ImmutableI18nLanguage(Integer key, String code, String name, String hl) {
+        super.setKey(key);
+        super.setCode(code);
+        super.setName(name);
+        super.setHl(hl);
+        this.hash = I18nLanguage.hash(code, name, hl);
+    }
+
+    /**
+     * Copy a language
+     *
+     * @param language language
+     * @return immutable copy, or the language itself if it is already immutable
+     */
+    public static ImmutableI18nLanguage of(I18nLanguage language) {
+        if (language instanceof ImmutableI18nLanguage immutable) {
+            return immutable;
+        }
+        return new ImmutableI18nLanguage(language.getKey(), language.getCode(), language.getName(), language.getHl());
+    }
+
+    /**
+     * Create a mutable copy
+     *
+     * @return new language
+     */
+    public I18nLanguage toI18nLanguage() {
+        final I18nLanguage language = new I18nLanguage();
+        language.setKey(getKey());
+        language.setCode(getCode());
+        language.setName(getName());
+        language.setHl(getHl());
+        return language;
+    }
+
+    @Override
+    public void setKey(Integer key) {
+        throw new UnsupportedOperationException("ImmutableI18nLanguage can't be modified");
+    }
+
+    @Override
+    public void setCode(String code) {
+        throw new UnsupportedOperationException("ImmutableI18nLanguage can't be modified");
+    }
+
+    @Override
+    public void setName(String name) {
+        throw new UnsupportedOperationException("ImmutableI18nLanguage can't be modified");
+    }
+
+    @Override
+    public void setHl(String hl) {
+        throw new UnsupportedOperationException("ImmutableI18nLanguage can't be modified");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        // cheap rejection before comparing the strings
+        if (o instanceof ImmutableI18nLanguage that && hash != that.hash) {
+            return false;
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.coyotesong.examples.model;
+
+import java.io.Serial;
+
+/**
+ * Immutable I18nRegion
+ *
+ * See {@link ImmutableI18nLanguage}. A value is equal to, and has the same hash as, the
+ * region it was copied from, and the key is ignored by `equals()`.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class ImmutableI18nRegion extends I18nRegion {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int hash;
+
+    /**
+     * Constructor
+     *
+     * @param key  database key (may be null)
+     * @param code code
+     * @param name name
+     * @param hl   locale
+     * @param gl   region code
+     */
+    public ImmutableI18nRegion(Integer key, String code, String name, String hl, String gl) {
+        super.setKey(key);
+        super.setCode(code);
+        super.setName(name);
+        super.setHl(hl);
+        super.setGl(gl);
+        this.hash = I18nRegion.hash(code, name, hl, gl);
+    }
+
+    /**
+     * Copy a region
+     *
+     * @param region region
+     * @return immutable copy, or the region itself if it is already immutable
+     */
+    public static ImmutableI18nRegion of(I18nRegion region) {
+        if (region instanceof ImmutableI18nRegion immutable) {
+            return immutable;
+        }
+        return new ImmutableI18nRegion(region.getKey(), region.getCode(), region.getName(), region.getHl(),
+                region.getGl());
+    }
+
+    /**
+     * Create a mutable copy
+     *
+     * @return new region
+     */
+    public I18nRegion toI18nRegion() {
+        final I18nRegion region = new I18nRegion();
+        region.setKey(getKey());
+        region.setCode(getCode());
+        region.setName(getName());
+        region.setHl(getHl());
+        region.setGl(getGl());
+        return region;
+    }
+
+    @Override
+    public void setKey(Integer key) {
+        throw new UnsupportedOperationException("ImmutableI18nRegion can't be modified");
+    }
+
+    @Override
+    public void setCode(String code) {
+        throw new UnsupportedOperationException("ImmutableI18nRegion can't be modified");
+    }
+
+    @Override
+    public void setName(String name) {
+        throw new UnsupportedOperationException("ImmutableI18nRegion can't be modified");
+    }
+
+    @Override
+    public void setHl(String hl) {
+        throw new UnsupportedOperationException("ImmutableI18nRegion can't be modified");
+    }
+
+    @Override
+    public void setGl(String gl) {
+        throw new UnsupportedOperationException("ImmutableI18nRegion can't be modified");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        // cheap rejection before comparing the strings
+        if (o instanceof ImmutableI18nRegion that && hash != that.hash) {
+            return false;
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
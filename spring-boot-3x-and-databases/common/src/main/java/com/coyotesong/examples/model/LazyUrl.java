@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.coyotesong.examples.model;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.util.function.Function;
+
+/**
+ * URL that isn't parsed until it's needed
+ *
+ * Most URLs read from the database are only passed along or written back out, so this
+ * keeps the original string and only parses it on the first call to `toURL()`. The
+ * parsed URL is then kept. A parser may be given, e.g., `UrlCache::get`, so frequently
+ * repeated URLs are only parsed once.
+ *
+ * Equality is based on the string. This also avoids `URL.equals()` and
+ * `URL.hashCode()`, which may resolve the host name.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class LazyUrl implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String spec;
+    private final transient Function<String, URL> parser;
+    private transient volatile URL url;
+
+    private LazyUrl(String spec, Function<String, URL> parser, URL url) {
+        this.spec = spec;
+        this.parser = parser;
+        this.url = url;
+    }
+
+    /**
+     * Parse a URL
+     *
+     * @param spec URL
+     * @return parsed URL
+     * @throws IllegalArgumentException the value is not a valid URL
+     */
+    public static URL parse(String spec) {
+        try {
+            return URI.create(spec).toURL();
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Wrap a URL string. It isn't checked until `toURL()` is called.
+     *
+     * @param spec URL (may be null)
+     * @return lazy URL, or null
+     */
+    public static LazyUrl of(String spec) {
+        return of(spec, null);
+    }
+
+    /**
+     * Wrap a URL string, using a custom parser when it's parsed
+     *
+     * @param spec   URL (may be null)
+     * @param parser parser, e.g., a cache (may be null)
+     * @return lazy URL, or null
+     */
+    public static LazyUrl of(String spec, Function<String, URL> parser) {
+        return (spec == null) ? null : new LazyUrl(spec, parser, null);
+    }
+
+    /**
+     * Wrap an already-parsed URL
+     *
+     * @param url URL (may be null)
+     * @return lazy URL, or null
+     */
+    public static LazyUrl of(URL url) {
+        return (url == null) ? null : new LazyUrl(url.toString(), null, url);
+    }
+
+    /**
+     * Get the parsed URL, parsing it on the first call
+     *
+     * @return URL
+     * @throws IllegalArgumentException the value is not a valid URL
+     */
+    public URL toURL() {
+        URL value = url;
+        if (value == null) {
+            // a racing thread may parse it too - both get equivalent values
+            value = (parser == null) ? parse(spec) : parser.apply(spec);
+            url = value;
+        }
+        return value;
+    }
+
+    /**
+     * Has the URL been parsed yet?
+     *
+     * @return true if `toURL()` won't need to parse the string
+     */
+    public boolean isParsed() {
+        return url != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return (o instanceof LazyUrl that) && spec.equals(that.spec);
+    }
+
+    @Override
+    public int hashCode() {
+        return spec.hashCode();
+    }
+
+    /**
+     * Get the original string, without parsing it
+     *
+     * @return URL string
+     */
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
@@ -36,12 +36,14 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 /**
  * Configure datasource-related properties (default profile)
+ *
+ * This is also used by the `replicas` and `shards` profiles unless they're combined with `dev`.
  */
 @Configuration
 // @PropertySource(value = "file:///etc/youtube/youtube.properties")
 @PropertySource(value = "file://${user.home}/.config/youtube.properties")
 @ConfigurationPropertiesScan
-@Profile("default")
+@Profile({"default", "replicas & !dev", "shards & !dev"})
 @SuppressWarnings("JavadocBlankLines")
 public class JdbcProperties {
     @SuppressWarnings("unused")
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.config;
+
+import com.coyotesong.examples.containers.enhancements.HikariConnectionPoolHelper;
+import com.coyotesong.examples.persistence.routing.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * Read replicas
+ *
+ * This is used together with one of the `JdbcProperties` classes - `JdbcProperties` when
+ * `replicas` is active on its own and `DevJdbcProperties` with `dev,replicas`. Their
+ * `HikariDataSource` becomes the primary and each URL in `spring.datasource.replica-urls`
+ * gets its own pool, with the same credentials. The `@Primary` DataSource sends read-only
+ * transactions, and finders wrapped in `ReadWriteRoutingDataSource.readOnly()`, to the
+ * replicas. The `ReadReplica*Repository` decorators do the latter.
+ */
+@Configuration
+@Profile("replicas")
+@SuppressWarnings("JavadocBlankLines")
+public class ReplicaJdbcProperties {
+
+    @Value("${spring.datasource.replica-urls}")
+    private String[] replicaUrls;
+
+    @Value("${spring.datasource.replica-pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${spring.datasource.replica-check-interval:PT5S}")
+    private Duration checkInterval;
+
+    @Value("${spring.datasource.replica-ejection-period:PT30S}")
+    private Duration ejectionPeriod;
+
+    /**
+     * Routing DataSource
+     *
+     * @param dataSource           primary dataSource
+     * @param dataSourceProperties connection details, shared by the replicas
+     * @return routing dataSource
+     */
+    @Bean(destroyMethod = "close")
+    @NotNull
+    public ReadWriteRoutingDataSource routingDataSource(@Autowired HikariDataSource dataSource,
+                                                        @Autowired DataSourceProperties dataSourceProperties) {
+        final List<ReadWriteRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.length; i++) {
+            final HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + i);
+            config.setJdbcUrl(replicaUrls[i].trim());
+            config.setUsername(dataSourceProperties.getUsername());
+            config.setPassword(dataSourceProperties.getPassword());
+            config.setMaximumPoolSize(replicaPoolSize);
+            config.setReadOnly(true);
+
+            if (isNotBlank(dataSourceProperties.getDriverClassName())) {
+                config.setDriverClassName(dataSourceProperties.getDriverClassName());
+            }
+
+            replicas.add(new ReadWriteRoutingDataSource.Replica(config.getPoolName(),
+                    HikariConnectionPoolHelper.INSTANCE.getDataSource(config)));
+        }
+
+        final ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(dataSource, replicas);
+        routing.setEjectionPeriod(ejectionPeriod);
+        routing.startHealthChecks(checkInterval);
+        return routing;
+    }
+
+    /**
+     * DataSource used by the transaction manager and repositories
+     *
+     * The lazy proxy delays taking a connection until the first statement, after the
+     * transaction's read-only flag has been set.
+     *
+     * @param routingDataSource routing dataSource
+     * @return dataSource
+     */
+    @Bean
+    @Primary
+    @NotNull
+    public DataSource readWriteDataSource(@Autowired ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
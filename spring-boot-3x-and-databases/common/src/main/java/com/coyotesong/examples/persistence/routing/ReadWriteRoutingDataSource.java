@@ -0,0 +1,370 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * DataSource that sends read-only work to replicas
+ *
+ * Connections are taken from the primary unless the current transaction is marked
+ * `@Transactional(readOnly = true)`, or there is no transaction and the caller is inside
+ * {@link #readOnly(Supplier)}. In either case the replicas are tried in round-robin order.
+ * A replica that can't provide a connection, or that fails a health check, is ejected for
+ * at least `ejectionPeriod` and is only re-admitted after it passes a health check. A
+ * replica whose pool is merely exhausted is skipped but not ejected. If no replica is
+ * available the primary is used.
+ *
+ * The read-only flag is only known after the transaction has started, so this class must
+ * be wrapped in a `LazyConnectionDataSourceProxy`. Otherwise the transaction manager takes
+ * the connection before the flag is set and every transaction goes to the primary.
+ *
+ * The replica pools are owned by this class and are closed with it. The primary is not.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    public static final Duration DEFAULT_EJECTION_PERIOD = Duration.ofSeconds(30);
+    public static final int DEFAULT_VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+
+    /**
+     * Source of a connection - either `getConnection()` or `getConnection(username, password)`
+     */
+    @FunctionalInterface
+    private interface Connector {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    /**
+     * A replica and its health
+     */
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final AtomicInteger failures = new AtomicInteger();
+        private volatile long ejectedUntil;
+        private volatile boolean ejected;
+
+        /**
+         * Constructor
+         *
+         * @param name       name used in logs
+         * @param dataSource replica connection pool
+         */
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isEjected() {
+            return ejected;
+        }
+
+        /**
+         * Get the number of consecutive failures
+         *
+         * @return number of failures since the last success
+         */
+        public int getFailures() {
+            return failures.get();
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder primaryFallbacks = new LongAdder();
+    private final LongAdder poolTimeouts = new LongAdder();
+
+    private Duration ejectionPeriod = DEFAULT_EJECTION_PERIOD;
+    private int validationTimeoutSeconds = DEFAULT_VALIDATION_TIMEOUT_SECONDS;
+    private ScheduledExecutorService healthChecker;
+
+    /**
+     * Constructor
+     *
+     * @param primary  primary (read-write) data source
+     * @param replicas replicas
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, List<Replica> replicas) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+    }
+
+    /**
+     * Set the minimum time an ejected replica is kept out of rotation
+     *
+     * @param ejectionPeriod ejection period
+     */
+    public void setEjectionPeriod(Duration ejectionPeriod) {
+        if (ejectionPeriod.isNegative()) {
+            throw new IllegalArgumentException("ejectionPeriod must not be negative");
+        }
+        this.ejectionPeriod = ejectionPeriod;
+    }
+
+    /**
+     * Set the timeout used by `Connection.isValid()` during health checks
+     *
+     * @param validationTimeoutSeconds timeout in seconds
+     */
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        if (validationTimeoutSeconds < 1) {
+            throw new IllegalArgumentException("validationTimeoutSeconds must be positive");
+        }
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Get the number of connections taken from a replica
+     *
+     * @return number of replica connections
+     */
+    public long getReplicaConnections() {
+        return replicaConnections.sum();
+    }
+
+    /**
+     * Get the number of read-only connections taken from the primary since no replica was available
+     *
+     * @return number of fallbacks
+     */
+    public long getPrimaryFallbacks() {
+        return primaryFallbacks.sum();
+    }
+
+    /**
+     * Get the number of times a replica was skipped because its pool had no free connection
+     *
+     * @return number of pool timeouts
+     */
+    public long getPoolTimeouts() {
+        return poolTimeouts.sum();
+    }
+
+    /**
+     * Run an action that only reads, without starting a transaction
+     *
+     * Connections taken by the action outside a transaction go to a replica. This avoids
+     * the extra round trips of a read-only transaction for single statements. It has no
+     * effect inside a transaction since that already holds (or will take) its connection
+     * based on its own read-only flag.
+     *
+     * @param action action
+     * @param <T>    result type
+     * @return result
+     */
+    public static <T> T readOnly(Supplier<T> action) {
+        if (READ_ONLY.get() != null) {
+            return action.get();
+        }
+        READ_ONLY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            READ_ONLY.remove();
+        }
+    }
+
+    /**
+     * Should the next connection come from a replica?
+     *
+     * @return true if the work is read-only
+     */
+    private static boolean isReadOnly() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        }
+        return READ_ONLY.get() != null || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * Did the pool time out waiting for a free connection?
+     *
+     * HikariCP reports both an exhausted pool and an unreachable server as a
+     * `SQLTransientConnectionException`, but only the latter has a cause - the last
+     * failure to open a connection. An exhausted pool says nothing about the replica's
+     * health so it shouldn't be ejected.
+     *
+     * @param e exception
+     * @return true if the pool is busy rather than broken
+     */
+    static boolean isPoolTimeout(SQLException e) {
+        return e instanceof SQLTransientConnectionException && e.getCause() == null;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * Take a connection from a healthy replica, or the primary
+     *
+     * @param connector method used to get the connection
+     * @return connection
+     * @throws SQLException no connection is available from the primary
+     */
+    private Connection route(Connector connector) throws SQLException {
+        if (replicas.isEmpty() || !isReadOnly()) {
+            return connector.connect(primary);
+        }
+
+        final int size = replicas.size();
+        final int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            final Replica replica = replicas.get((start + i) % size);
+            if (replica.ejected) {
+                continue;
+            }
+            try {
+                final Connection conn = connector.connect(replica.dataSource);
+                replica.failures.set(0);
+                replicaConnections.increment();
+                return conn;
+            } catch (SQLException e) {
+                if (isPoolTimeout(e)) {
+                    poolTimeouts.increment();
+                    LOG.debug("replica {} has no free connection: {}", replica.name, e.getMessage());
+                } else {
+                    eject(replica, e);
+                }
+            }
+        }
+
+        primaryFallbacks.increment();
+        return connector.connect(primary);
+    }
+
+    /**
+     * Remove a replica from rotation
+     *
+     * @param replica replica
+     * @param cause   reason
+     */
+    private void eject(Replica replica, Exception cause) {
+        replica.failures.incrementAndGet();
+        replica.ejectedUntil = System.nanoTime() + ejectionPeriod.toNanos();
+        if (!replica.ejected) {
+            replica.ejected = true;
+            LOG.warn("ejecting replica {}: {}: {}", replica.name, cause.getClass().getName(), cause.getMessage());
+        }
+    }
+
+    /**
+     * Check the health of every replica
+     *
+     * Healthy replicas that fail the check are ejected. Ejected replicas are checked once
+     * their ejection period has passed and are re-admitted if they pass.
+     */
+    public void checkReplicas() {
+        final long now = System.nanoTime();
+        for (Replica replica : replicas) {
+            if (replica.ejected && (now - replica.ejectedUntil) < 0) {
+                continue;
+            }
+            try (Connection conn = replica.dataSource.getConnection()) {
+                if (!conn.isValid(validationTimeoutSeconds)) {
+                    throw new SQLException("connection is not valid");
+                }
+                replica.failures.set(0);
+                if (replica.ejected) {
+                    replica.ejected = false;
+                    LOG.info("re-admitting replica {}", replica.name);
+                }
+            } catch (SQLException e) {
+                // a busy pool is checked again next time
+                if (!isPoolTimeout(e)) {
+                    eject(replica, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Run `checkReplicas()` in the background
+     *
+     * @param interval time between checks
+     */
+    public synchronized void startHealthChecks(Duration interval) {
+        if (healthChecker != null) {
+            throw new IllegalStateException("health checks have already been started");
+        }
+        healthChecker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("replica-health-check")
+                .daemon()
+                .factory());
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the health checks and close the replica pools
+     */
+    @Override
+    public synchronized void close() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+            healthChecker = null;
+        }
+
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    LOG.warn("{}: failure when closing replica {}: {}",
+                            e.getClass().getName(), replica.name, e.getMessage());
+                }
+            }
+        }
+    }
+}
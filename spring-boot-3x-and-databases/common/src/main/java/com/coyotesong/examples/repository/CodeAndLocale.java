@@ -0,0 +1,10 @@
+package com.coyotesong.examples.repository;
+
+/**
+ * Lookup key used by the i18n repositories
+ *
+ * @param code   language or region code
+ * @param locale locale (hl)
+ */
+public record CodeAndLocale(String code, String locale) {
+}
@@ -4,17 +4,50 @@ import com.coyotesong.examples.model.I18nLanguage;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface I18nLanguageRepository {
     void delete();
 
+    default void truncate() {
+        delete();
+    }
+
     void insert(I18nLanguage language);
 
     void insert(Collection<I18nLanguage> languages);
 
+    void bulkInsert(Collection<I18nLanguage> languages);
+
+    long load(Iterable<I18nLanguage> languages);
+
+    void upsert(Collection<I18nLanguage> languages);
+
     List<I18nLanguage> findAll();
 
+    Stream<I18nLanguage> streamAll();
+
+    default void forEach(Consumer<? super I18nLanguage> action) {
+        try (Stream<I18nLanguage> stream = streamAll()) {
+            stream.forEach(action);
+        }
+    }
+
     I18nLanguage findByCodeAndLocale(String code, String locale);
 
+    Map<CodeAndLocale, I18nLanguage> findByCodesAndLocales(Collection<CodeAndLocale> keys);
+
     List<I18nLanguage> findAllForLocale(String locale);
+
+    Page<I18nLanguage> findAllForLocale(String locale, Integer afterKey, int limit);
+
+    Stream<I18nLanguage> streamAllForLocale(String locale);
+
+    default void forEachForLocale(String locale, Consumer<? super I18nLanguage> action) {
+        try (Stream<I18nLanguage> stream = streamAllForLocale(locale)) {
+            stream.forEach(action);
+        }
+    }
 }
@@ -4,15 +4,48 @@ import com.coyotesong.examples.model.I18nRegion;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface I18nRegionRepository {
     void delete();
 
+    default void truncate() {
+        delete();
+    }
+
     void insert(Collection<I18nRegion> regions);
 
+    void bulkInsert(Collection<I18nRegion> regions);
+
+    long load(Iterable<I18nRegion> regions);
+
+    void upsert(Collection<I18nRegion> regions);
+
     List<I18nRegion> findAll();
 
+    Stream<I18nRegion> streamAll();
+
+    default void forEach(Consumer<? super I18nRegion> action) {
+        try (Stream<I18nRegion> stream = streamAll()) {
+            stream.forEach(action);
+        }
+    }
+
     I18nRegion findByCodeAndLocale(String code, String locale);
 
+    Map<CodeAndLocale, I18nRegion> findByCodesAndLocales(Collection<CodeAndLocale> keys);
+
     List<I18nRegion> findAllForLocale(String locale);
+
+    Page<I18nRegion> findAllForLocale(String locale, Integer afterKey, int limit);
+
+    Stream<I18nRegion> streamAllForLocale(String locale);
+
+    default void forEachForLocale(String locale, Consumer<? super I18nRegion> action) {
+        try (Stream<I18nRegion> stream = streamAllForLocale(locale)) {
+            stream.forEach(action);
+        }
+    }
 }
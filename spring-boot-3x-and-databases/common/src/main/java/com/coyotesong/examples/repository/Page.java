@@ -0,0 +1,74 @@
+package com.coyotesong.examples.repository;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * One page of a keyset ("seek") query
+ *
+ * @param items   values in key order
+ * @param nextKey continuation token - pass as `afterKey` to get the next page, null if this is the last page
+ * @param <T>     model type
+ */
+public record Page<T>(List<T> items, Integer nextKey) {
+
+    public Page {
+        items = List.copyOf(items);
+    }
+
+    public boolean hasNext() {
+        return nextKey != null;
+    }
+
+    /**
+     * Create a page from a query that fetched (up to) `limit + 1` rows
+     *
+     * The extra row is only used to detect whether there is another page.
+     *
+     * @param rows  rows in key order
+     * @param limit page size
+     * @param key   function that extracts the key
+     * @param <T>   model type
+     * @return page
+     */
+    public static <T> Page<T> of(List<T> rows, int limit, Function<? super T, Integer> key) {
+        if (rows.size() <= limit) {
+            return new Page<>(rows, null);
+        }
+        final List<T> items = rows.subList(0, limit);
+        return new Page<>(items, key.apply(items.get(limit - 1)));
+    }
+
+    /**
+     * Create a page from in-memory rows that aren't in key order
+     *
+     * Rows without a key are skipped, like they are by a keyset query.
+     *
+     * @param rows     row numbers, in any order
+     * @param afterKey key of the last item on the previous page, or null for the first page
+     * @param limit    page size
+     * @param key      function that returns a row's key
+     * @param item     function that returns a row's value
+     * @param <T>      model type
+     * @return page
+     */
+    public static <T> Page<T> ofRows(IntStream rows, Integer afterKey, int limit,
+                                     IntFunction<Integer> key, IntFunction<T> item) {
+        final int[] sorted = rows
+                .filter(row -> {
+                    final Integer k = key.apply(row);
+                    return (k != null) && ((afterKey == null) || (k > afterKey));
+                })
+                .boxed()
+                .sorted(Comparator.comparing(key::apply))
+                .limit(limit + 1L)
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        final List<T> items = IntStream.of(sorted).limit(limit).mapToObj(item).toList();
+        return new Page<>(items, (sorted.length > limit) ? key.apply(sorted[limit - 1]) : null);
+    }
+}
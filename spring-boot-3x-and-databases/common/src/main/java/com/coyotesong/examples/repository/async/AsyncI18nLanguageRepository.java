@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.async;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import com.coyotesong.examples.repository.I18nLanguageRepository;
+import com.coyotesong.examples.repository.Page;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous facade for an I18nLanguageRepository
+ *
+ * Each call runs the blocking repository method on its own virtual thread. Concurrency
+ * is bounded by the executor, which may be shared with other facades that use the
+ * same connection pool.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class AsyncI18nLanguageRepository {
+    private final I18nLanguageRepository delegate;
+    private final BoundedVirtualThreadExecutor executor;
+
+    /**
+     * Constructor
+     *
+     * @param delegate underlying repository
+     * @param executor executor - the caller is responsible for closing it
+     */
+    public AsyncI18nLanguageRepository(I18nLanguageRepository delegate, BoundedVirtualThreadExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Void> deleteAsync() {
+        return executor.submit(() -> {
+            delegate.delete();
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> truncateAsync() {
+        return executor.submit(() -> {
+            delegate.truncate();
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> insertAsync(I18nLanguage language) {
+        return executor.submit(() -> {
+            delegate.insert(language);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> bulkInsertAsync(Collection<I18nLanguage> languages) {
+        return executor.submit(() -> {
+            delegate.bulkInsert(languages);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> upsertAsync(Collection<I18nLanguage> languages) {
+        return executor.submit(() -> {
+            delegate.upsert(languages);
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<I18nLanguage>> findAllAsync() {
+        return executor.submit(delegate::findAll);
+    }
+
+    public CompletableFuture<I18nLanguage> findByCodeAndLocaleAsync(String code, String locale) {
+        return executor.submit(() -> delegate.findByCodeAndLocale(code, locale));
+    }
+
+    public CompletableFuture<Map<CodeAndLocale, I18nLanguage>> findByCodesAndLocalesAsync(
+            Collection<CodeAndLocale> keys) {
+        return executor.submit(() -> delegate.findByCodesAndLocales(keys));
+    }
+
+    public CompletableFuture<List<I18nLanguage>> findAllForLocaleAsync(String locale) {
+        return executor.submit(() -> delegate.findAllForLocale(locale));
+    }
+
+    public CompletableFuture<Page<I18nLanguage>> findAllForLocaleAsync(String locale, Integer afterKey, int limit) {
+        return executor.submit(() -> delegate.findAllForLocale(locale, afterKey, limit));
+    }
+
+    /**
+     * Get the executor metrics (queue depth, wait times, etc.)
+     *
+     * @return metrics
+     */
+    public BoundedVirtualThreadExecutor.Metrics getMetrics() {
+        return executor.getMetrics();
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.async;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Run blocking repository calls on virtual threads with bounded concurrency
+ *
+ * Every task gets its own virtual thread, but only `maxConcurrency` tasks may run at
+ * the same time. The rest park on a fair semaphore. This is cheap for a virtual thread
+ * and, unlike waiting in the Hikari pool, it can't time out and it is measured.
+ *
+ * The limit should normally match the maximum size of the connection pool used by the
+ * repositories. See {@link #forDataSource(HikariDataSource)}.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class BoundedVirtualThreadExecutor implements AutoCloseable {
+
+    /**
+     * Point-in-time metrics
+     *
+     * @param maxConcurrency maximum number of concurrent tasks
+     * @param active         number of tasks currently running
+     * @param queueDepth     number of tasks waiting for a permit
+     * @param completed      number of completed tasks
+     * @param averageWait    average time spent waiting for a permit
+     * @param maxWait        maximum time spent waiting for a permit
+     */
+    public record Metrics(int maxConcurrency, int active, int queueDepth, long completed,
+                          Duration averageWait, Duration maxWait) {
+    }
+
+    private final int maxConcurrency;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0L);
+
+    /**
+     * Constructor
+     *
+     * @param maxConcurrency maximum number of concurrent tasks
+     */
+    public BoundedVirtualThreadExecutor(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("repository-", 0).factory());
+    }
+
+    /**
+     * Create an executor sized to match a Hikari pool
+     *
+     * @param dataSource Hikari dataSource, e.g., from `HikariConnectionPoolHelper.getDataSource()`
+     * @return new executor
+     */
+    public static BoundedVirtualThreadExecutor forDataSource(HikariDataSource dataSource) {
+        return new BoundedVirtualThreadExecutor(dataSource.getMaximumPoolSize());
+    }
+
+    /**
+     * Run a task on a new virtual thread once a permit is available
+     *
+     * @param task task
+     * @param <T>  result type
+     * @return future result
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> call(task), executor);
+    }
+
+    private <T> T call(Supplier<T> task) {
+        final long start = System.nanoTime();
+        waiting.incrementAndGet();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+
+        final long waited = System.nanoTime() - start;
+        acquired.increment();
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulate(waited);
+
+        active.incrementAndGet();
+        try {
+            return task.get();
+        } finally {
+            active.decrementAndGet();
+            completed.increment();
+            permits.release();
+        }
+    }
+
+    /**
+     * Get the current metrics
+     *
+     * @return metrics
+     */
+    public Metrics getMetrics() {
+        final long count = acquired.sum();
+        final long average = (count == 0) ? 0L : totalWaitNanos.sum() / count;
+        return new Metrics(maxConcurrency, active.get(), waiting.get(), completed.sum(),
+                Duration.ofNanos(average), Duration.ofNanos(maxWaitNanos.get()));
+    }
+
+    /**
+     * Get the number of tasks waiting for a permit
+     *
+     * @return queue depth
+     */
+    public int getQueueDepth() {
+        return waiting.get();
+    }
+
+    /**
+     * Stop accepting tasks and wait for the running and queued tasks to finish
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.cache;
+
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.model.ImmutableI18nRegion;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import com.coyotesong.examples.repository.I18nRegionRepository;
+import com.coyotesong.examples.repository.Page;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Read-through cache for {@link I18nRegionRepository#findByCodeAndLocale(String, String)}
+ *
+ * The cache is bounded and uses Caffeine's frequency-aware (W-TinyLFU) eviction policy.
+ * Writes made through this object invalidate the affected entries. Writes made by other
+ * processes are not visible until the entry is evicted or `invalidateAll()` is called.
+ *
+ * Missing values are not cached. The cache holds {@link ImmutableI18nRegion} values, so the
+ * returned objects and lists are shared without a copy and can't be modified.
+ *
+ * {@link I18nRegionRepository#findAllForLocale(String)} is cached separately in a
+ * {@link LocaleListCache}, bounded by estimated bytes rather than entries.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class CachingI18nRegionRepository implements I18nRegionRepository {
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000L;
+
+    private final I18nRegionRepository delegate;
+    private final Cache<CodeAndLocale, I18nRegion> cache;
+    private final LocaleListCache<I18nRegion> localeCache;
+
+    /**
+     * Constructor
+     *
+     * @param delegate underlying repository
+     */
+    public CachingI18nRegionRepository(I18nRegionRepository delegate) {
+        this(delegate, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param delegate    underlying repository
+     * @param maximumSize maximum number of cached entries
+     */
+    public CachingI18nRegionRepository(I18nRegionRepository delegate, long maximumSize) {
+        this(delegate, maximumSize, LocaleListCache.DEFAULT_MAXIMUM_BYTES);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param delegate           underlying repository
+     * @param maximumSize        maximum number of cached entries
+     * @param maximumLocaleBytes maximum estimated bytes held by the per-locale lists
+     */
+    public CachingI18nRegionRepository(I18nRegionRepository delegate, long maximumSize, long maximumLocaleBytes) {
+        this.delegate = delegate;
+        this.localeCache = new LocaleListCache<>(maximumLocaleBytes, RetainedSize::of);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void delete() {
+        delegate.delete();
+        invalidateAll();
+    }
+
+    @Override
+    public void truncate() {
+        delegate.truncate();
+        invalidateAll();
+    }
+
+    @Override
+    public void insert(Collection<I18nRegion> regions) {
+        delegate.insert(regions);
+        invalidate(regions);
+    }
+
+    @Override
+    public void bulkInsert(Collection<I18nRegion> regions) {
+        delegate.bulkInsert(regions);
+        invalidate(regions);
+    }
+
+    @Override
+    public void upsert(Collection<I18nRegion> regions) {
+        delegate.upsert(regions);
+        invalidate(regions);
+    }
+
+    @Override
+    public long load(Iterable<I18nRegion> regions) {
+        // the source may be a one-shot stream so we can't revisit it
+        final long count = delegate.load(regions);
+        invalidateAll();
+        return count;
+    }
+
+    @Override
+    public List<I18nRegion> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<I18nRegion> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public I18nRegion findByCodeAndLocale(String code, String locale) {
+        return cache.get(new CodeAndLocale(code, locale),
+                k -> freeze(delegate.findByCodeAndLocale(k.code(), k.locale())));
+    }
+
+    /**
+     * Find regions for many `(code, hl)` pairs
+     *
+     * Cached entries are returned directly and the rest are fetched from the delegate
+     * in a single call.
+     *
+     * @param keys keys
+     * @return matching regions, keyed by `(code, hl)`. Keys without a match are omitted.
+     */
+    @Override
+    public Map<CodeAndLocale, I18nRegion> findByCodesAndLocales(Collection<CodeAndLocale> keys) {
+        return cache.getAll(keys, missing -> {
+            final Map<CodeAndLocale, I18nRegion> loaded = new HashMap<>();
+            delegate.findByCodesAndLocales(List.copyOf(missing)).forEach((k, v) -> loaded.put(k, freeze(v)));
+            return loaded;
+        });
+    }
+
+    @Override
+    public List<I18nRegion> findAllForLocale(String locale) {
+        return localeCache.get(locale,
+                hl -> delegate.findAllForLocale(hl).stream().map(CachingI18nRegionRepository::freeze).toList());
+    }
+
+    @Override
+    public Page<I18nRegion> findAllForLocale(String locale, Integer afterKey, int limit) {
+        return delegate.findAllForLocale(locale, afterKey, limit);
+    }
+
+    @Override
+    public Stream<I18nRegion> streamAllForLocale(String locale) {
+        return delegate.streamAllForLocale(locale);
+    }
+
+    /**
+     * Get the cache statistics (hits, misses, evictions, etc.)
+     *
+     * @return cache statistics
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Get the (approximate) number of cached entries
+     *
+     * @return number of cached entries
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Get the per-locale list cache metrics (hit rate, bytes held, evictions, etc.)
+     *
+     * @return per-locale list cache metrics
+     */
+    public LocaleListCache.Metrics getLocaleMetrics() {
+        return localeCache.getMetrics();
+    }
+
+    /**
+     * Discard all cached entries
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        localeCache.invalidateAll();
+    }
+
+    /**
+     * Discard the cached entries for a locale
+     *
+     * Use this when another process changes the regions for a locale.
+     *
+     * @param locale locale
+     */
+    public void invalidateLocale(String locale) {
+        localeCache.invalidate(locale);
+        cache.asMap().keySet().removeIf(key -> Objects.equals(key.locale(), locale));
+    }
+
+    private void invalidate(Collection<I18nRegion> regions) {
+        final Set<String> locales = new HashSet<>();
+        for (I18nRegion region : regions) {
+            cache.invalidate(key(region));
+            locales.add(region.getHl());
+        }
+        localeCache.invalidateAll(locales);
+    }
+
+    private static I18nRegion freeze(I18nRegion region) {
+        return (region == null) ? null : ImmutableI18nRegion.of(region);
+    }
+
+    private static CodeAndLocale key(I18nRegion region) {
+        return new CodeAndLocale(region.getCode(), region.getHl());
+    }
+}
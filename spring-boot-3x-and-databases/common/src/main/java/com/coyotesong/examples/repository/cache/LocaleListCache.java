@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache for per-locale lists, bounded by estimated retained bytes
+ *
+ * The lists for popular locales can be much larger than the others, so bounding the
+ * number of entries doesn't bound the memory used. Each entry is weighed by the estimated
+ * size of the list and its elements, and Caffeine evicts entries (W-TinyLFU) to stay under
+ * the limit. A single list that is larger than the limit is not retained.
+ *
+ * The cached lists are immutable. The elements are shared and must not be modified.
+ *
+ * @param <T> element type
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class LocaleListCache<T> {
+    public static final long DEFAULT_MAXIMUM_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * Cache metrics
+     *
+     * @param hitRate       fraction of requests that were served from the cache
+     * @param hitCount      number of requests served from the cache
+     * @param missCount     number of requests passed to the loader
+     * @param evictionCount number of entries evicted to stay under the limit
+     * @param evictedBytes  estimated bytes released by evictions
+     * @param retainedBytes estimated bytes currently held
+     * @param entries       (approximate) number of cached locales
+     */
+    public record Metrics(double hitRate, long hitCount, long missCount, long evictionCount,
+                          long evictedBytes, long retainedBytes, long entries) {
+    }
+
+    private final Cache<String, List<T>> cache;
+    private final long maximumBytes;
+
+    /**
+     * Constructor
+     *
+     * @param maximumBytes maximum estimated bytes held
+     * @param elementSize  estimated size of an element, e.g., `RetainedSize::of`
+     */
+    public LocaleListCache(long maximumBytes, ToLongFunction<? super T> elementSize) {
+        if (maximumBytes < 0) {
+            throw new IllegalArgumentException("maximumBytes must not be negative");
+        }
+        this.maximumBytes = maximumBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((String locale, List<T> values) -> weigh(locale, values, elementSize))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Estimate the size of an entry
+     *
+     * @param locale      key
+     * @param values      list
+     * @param elementSize estimated size of an element
+     * @param <T>         element type
+     * @return estimated size in bytes, capped at `Integer.MAX_VALUE`
+     */
+    static <T> int weigh(String locale, List<T> values, ToLongFunction<? super T> elementSize) {
+        long bytes = RetainedSize.of(locale) + RetainedSize.ofList(values.size());
+        for (T value : values) {
+            bytes += elementSize.applyAsLong(value);
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the list for a locale, loading it if necessary
+     *
+     * @param locale locale
+     * @param loader function that loads the list
+     * @return immutable list
+     */
+    public List<T> get(String locale, Function<String, List<T>> loader) {
+        return cache.get(locale, key -> List.copyOf(loader.apply(key)));
+    }
+
+    /**
+     * Discard the list for a locale
+     *
+     * This should be called whenever a value for the locale is written, including by
+     * other processes.
+     *
+     * @param locale locale (ignored if null)
+     */
+    public void invalidate(String locale) {
+        if (locale != null) {
+            cache.invalidate(locale);
+        }
+    }
+
+    /**
+     * Discard the lists for several locales
+     *
+     * @param locales locales
+     */
+    public void invalidateAll(Collection<String> locales) {
+        cache.invalidateAll(locales.stream().filter(Objects::nonNull).toList());
+    }
+
+    /**
+     * Discard all lists
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Get the estimated bytes currently held
+     *
+     * @return estimated bytes
+     */
+    public long getRetainedBytes() {
+        // the weights are applied during maintenance, which Caffeine runs asynchronously
+        cache.cleanUp();
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    public long getMaximumBytes() {
+        return maximumBytes;
+    }
+
+    /**
+     * Get the cache metrics
+     *
+     * @return metrics
+     */
+    public Metrics getMetrics() {
+        final CacheStats stats = cache.stats();
+        return new Metrics(stats.hitRate(), stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                stats.evictionWeight(), getRetainedBytes(), cache.estimatedSize());
+    }
+
+    /**
+     * Process pending maintenance (e.g., evictions)
+     *
+     * Caffeine does this in the background, so this is only needed when the results
+     * must be observed immediately, e.g., in tests.
+     */
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+}
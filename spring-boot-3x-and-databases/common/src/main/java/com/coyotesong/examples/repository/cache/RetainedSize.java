@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.cache;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.model.ImmutableI18nLanguage;
+import com.coyotesong.examples.model.ImmutableI18nRegion;
+
+/**
+ * Rough estimates of retained heap size
+ *
+ * These assume a 64-bit JVM with compressed oops and compact strings, i.e., 12-byte
+ * object headers, 16-byte array headers, 4-byte references and 8-byte alignment. They
+ * are only meant to be close enough to bound a cache - use JOL for real measurements.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class RetainedSize {
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+
+    // String: header, byte[] value, int hash, byte coder, boolean hashIsZero
+    private static final long STRING = align(OBJECT_HEADER + REFERENCE + 4 + 1 + 1);
+    private static final long INTEGER = align(OBJECT_HEADER + 4);
+
+    // I18nLanguage: key, code, name, hl. I18nRegion adds gl.
+    private static final long LANGUAGE = align(OBJECT_HEADER + 4 * REFERENCE);
+    private static final long REGION = align(OBJECT_HEADER + 5 * REFERENCE);
+
+    // the immutable variants add the cached int hash
+    private static final long IMMUTABLE_LANGUAGE = align(OBJECT_HEADER + 4 * REFERENCE + 4);
+    private static final long IMMUTABLE_REGION = align(OBJECT_HEADER + 5 * REFERENCE + 4);
+
+    private RetainedSize() {
+    }
+
+    /**
+     * Round up to the next multiple of 8
+     *
+     * @param bytes unaligned size
+     * @return aligned size
+     */
+    static long align(long bytes) {
+        return (bytes + 7L) & ~7L;
+    }
+
+    /**
+     * Estimate the size of a string
+     *
+     * Non-Latin-1 strings use two bytes per character.
+     *
+     * @param value string (may be null)
+     * @return estimated size in bytes
+     */
+    public static long of(String value) {
+        if (value == null) {
+            return 0L;
+        }
+        boolean latin1 = true;
+        for (int i = 0; i < value.length() && latin1; i++) {
+            latin1 = value.charAt(i) < 256;
+        }
+        return STRING + align(ARRAY_HEADER + (long) value.length() * (latin1 ? 1 : 2));
+    }
+
+    /**
+     * Estimate the size of an immutable list, not including its elements
+     *
+     * @param size number of elements
+     * @return estimated size in bytes
+     */
+    public static long ofList(int size) {
+        return align(OBJECT_HEADER + REFERENCE) + align(ARRAY_HEADER + (long) size * REFERENCE);
+    }
+
+    /**
+     * Estimate the size of a language
+     *
+     * @param language language
+     * @return estimated size in bytes
+     */
+    public static long of(I18nLanguage language) {
+        if (language instanceof ImmutableI18nLanguage immutable) {
+            return of(immutable);
+        }
+        return LANGUAGE + ((language.getKey() == null) ? 0L : INTEGER)
+                + of(language.getCode()) + of(language.getName()) + of(language.getHl());
+    }
+
+    /**
+     * Estimate the size of a region
+     *
+     * @param region region
+     * @return estimated size in bytes
+     */
+    public static long of(I18nRegion region) {
+        if (region instanceof ImmutableI18nRegion immutable) {
+            return of(immutable);
+        }
+        return REGION + ((region.getKey() == null) ? 0L : INTEGER)
+                + of(region.getCode()) + of(region.getName()) + of(region.getHl()) + of(region.getGl());
+    }
+
+    /**
+     * Estimate the size of an immutable language
+     *
+     * @param language language
+     * @return estimated size in bytes
+     */
+    public static long of(ImmutableI18nLanguage language) {
+        return IMMUTABLE_LANGUAGE + ((language.getKey() == null) ? 0L : INTEGER)
+                + of(language.getCode()) + of(language.getName()) + of(language.getHl());
+    }
+
+    /**
+     * Estimate the size of an immutable region
+     *
+     * @param region region
+     * @return estimated size in bytes
+     */
+    public static long of(ImmutableI18nRegion region) {
+        return IMMUTABLE_REGION + ((region.getKey() == null) ? 0L : INTEGER)
+                + of(region.getCode()) + of(region.getName()) + of(region.getHl()) + of(region.getGl());
+    }
+}
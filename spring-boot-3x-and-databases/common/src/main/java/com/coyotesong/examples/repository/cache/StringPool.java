@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.cache;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free flyweight pool for short, frequently repeated strings
+ *
+ * Each fetched row has its own copy of values like `hl` and `gl` even though there are
+ * only a few hundred distinct codes. Passing them through a pool means every row shares
+ * one instance and the duplicates can be collected as soon as the row is mapped.
+ *
+ * This is a direct-mapped table, not a map - each string has a single slot and a
+ * colliding string simply replaces it. That means lookups never lock or allocate and the
+ * pool can't grow, at the cost of an occasional duplicate. Unlike `String.intern()` the
+ * pooled values are ordinary heap objects.
+ *
+ * Long strings are returned unchanged since they're unlikely to repeat.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class StringPool {
+    public static final int DEFAULT_CAPACITY = 4096;
+    public static final int DEFAULT_MAX_LENGTH = 16;
+
+    /**
+     * Pool shared by the i18n record mappers - the locale and region codes are common to both tables
+     */
+    public static final StringPool CODES = new StringPool(DEFAULT_CAPACITY, DEFAULT_MAX_LENGTH);
+
+    /**
+     * Pool that returns every value unchanged
+     */
+    public static final StringPool NONE = new StringPool(1, -1);
+
+    /**
+     * Point-in-time metrics
+     *
+     * @param hits   number of values replaced by a pooled instance
+     * @param misses number of values added to the pool
+     */
+    public record Metrics(long hits, long misses) {
+        public double hitRate() {
+            final long total = hits + misses;
+            return (total == 0L) ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private final AtomicReferenceArray<String> table;
+    private final int mask;
+    private final int maxLength;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor
+     *
+     * @param capacity  number of slots, rounded up to a power of two
+     * @param maxLength longest string that will be pooled
+     */
+    public StringPool(int capacity, int maxLength) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        final int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.table = new AtomicReferenceArray<>(Math.max(size, 1));
+        this.mask = table.length() - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Get the pooled instance of a string
+     *
+     * @param value string (may be null)
+     * @return an equal pooled string, or `value` itself
+     */
+    public String canonicalize(String value) {
+        if (value == null || value.length() > maxLength) {
+            return value;
+        }
+
+        // String caches its hash so this is cheap after the first call
+        final int h = value.hashCode();
+        final int idx = (h ^ (h >>> 16)) & mask;
+
+        final String pooled = table.getAcquire(idx);
+        if (pooled != null && pooled.hashCode() == h && pooled.equals(value)) {
+            hits.increment();
+            return pooled;
+        }
+
+        // a racing thread may overwrite this - the only cost is a duplicate
+        table.setRelease(idx, value);
+        misses.increment();
+        return value;
+    }
+
+    /**
+     * Remove all pooled values
+     */
+    public void clear() {
+        for (int i = 0; i < table.length(); i++) {
+            table.setRelease(i, null);
+        }
+    }
+
+    /**
+     * Get the metrics
+     *
+     * @return metrics
+     */
+    public Metrics getMetrics() {
+        return new Metrics(hits.sum(), misses.sum());
+    }
+}
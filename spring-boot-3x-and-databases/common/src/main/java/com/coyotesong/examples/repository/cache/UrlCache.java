@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.coyotesong.examples.repository.cache;
+
+import com.coyotesong.examples.model.LazyUrl;
+
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, lock-free cache of parsed URLs
+ *
+ * Parsing a URL means parsing it as a URI first and then looking up the protocol
+ * handler. That adds up when the same few URLs appear in many rows. `URL` is immutable,
+ * so every row can share one parsed instance.
+ *
+ * Like {@link StringPool} this is a direct-mapped table. Each URL has a single slot and
+ * a colliding URL replaces it, so the cache never grows and lookups never lock.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class UrlCache {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Point-in-time metrics
+     *
+     * @param hits   number of URLs found in the cache
+     * @param misses number of URLs parsed
+     */
+    public record Metrics(long hits, long misses) {
+        public double hitRate() {
+            final long total = hits + misses;
+            return (total == 0L) ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private record Entry(String spec, URL url) {
+    }
+
+    private final AtomicReferenceArray<Entry> table;
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor
+     *
+     * @param capacity number of slots, rounded up to a power of two
+     */
+    public UrlCache(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        final int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.table = new AtomicReferenceArray<>(Math.max(size, 1));
+        this.mask = table.length() - 1;
+    }
+
+    /**
+     * Get the parsed URL, parsing it if necessary
+     *
+     * @param spec URL (may be null)
+     * @return parsed URL
+     * @throws IllegalArgumentException the value is not a valid URL
+     */
+    public URL get(String spec) {
+        if (spec == null) {
+            return null;
+        }
+
+        final int h = spec.hashCode();
+        final int idx = (h ^ (h >>> 16)) & mask;
+
+        final Entry entry = table.getAcquire(idx);
+        if (entry != null && entry.spec().hashCode() == h && entry.spec().equals(spec)) {
+            hits.increment();
+            return entry.url();
+        }
+
+        // invalid URLs throw before they're cached, so they're parsed every time
+        final URL url = LazyUrl.parse(spec);
+        table.setRelease(idx, new Entry(spec, url));
+        misses.increment();
+        return url;
+    }
+
+    /**
+     * Remove all cached URLs
+     */
+    public void clear() {
+        for (int i = 0; i < table.length(); i++) {
+            table.setRelease(i, null);
+        }
+    }
+
+    /**
+     * Get the metrics
+     *
+     * @return metrics
+     */
+    public Metrics getMetrics() {
+        return new Metrics(hits.sum(), misses.sum());
+    }
+}
@@ -0,0 +1,441 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.compact;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.repository.cache.RetainedSize;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compact, immutable, primitive-encoded index of i18n rows
+ *
+ * The codes (`code`, `hl` and `gl`) are replaced by ids from a shared dictionary, so each
+ * distinct code is stored once. A `(code, hl)` pair is packed into a `long` and looked up
+ * in an open-addressing table of primitive arrays that maps it to a row ordinal. The
+ * names are stored as UTF-8 in one shared byte array and decoded on demand.
+ *
+ * The rows are sorted by `(hl, code)` so each locale is a contiguous range of ordinals.
+ * As in `I18nSnapshot`, rows with a null `code` or `hl` aren't indexed, and if there are
+ * duplicate `(code, hl)` pairs the first one in sort order wins.
+ *
+ * Lookups by `(code, hl)` and the per-locale ranges don't allocate. Only the accessors
+ * that return a name or a model object do.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class CompactI18nIndex {
+    public static final int NOT_FOUND = -1;
+
+    // sentinel for a null key - the keys are generated by the database so it can't occur
+    private static final int NO_KEY = Integer.MIN_VALUE;
+    private static final int NO_CODE = -1;
+
+    private static final Comparator<String> NULLS_LAST = Comparator.nullsLast(Comparator.naturalOrder());
+
+    // dictionary of codes, with an open-addressing table from code to id
+    private final String[] dictionary;
+    private final String[] dictionaryTable;
+    private final int[] dictionaryIds;
+
+    // columns, indexed by row ordinal
+    private final int[] keys;
+    private final int[] codes;
+    private final int[] hls;
+    private final int[] gls;
+    private final int[] nameOffsets;
+    private final byte[] names;
+    private final BitSet nullNames;
+
+    // open-addressing table from packed (code, hl) to row ordinal
+    private final long[] slotKeys;
+    private final int[] slotRows;
+
+    // row ranges indexed by the dictionary id of the locale
+    private final int[] localeStart;
+    private final int[] localeEnd;
+
+    /**
+     * Unencoded row, used while building the index
+     */
+    private record Row(Integer key, String code, String hl, String name, String gl) {
+    }
+
+    private CompactI18nIndex(List<Row> unsorted) {
+        final List<Row> rows = new ArrayList<>(unsorted);
+        rows.sort(Comparator.comparing(Row::hl, NULLS_LAST).thenComparing(Row::code, NULLS_LAST));
+
+        // dictionary - one entry per distinct code
+        final Set<String> distinct = new HashSet<>();
+        for (Row row : rows) {
+            distinct.add(row.code());
+            distinct.add(row.hl());
+            distinct.add(row.gl());
+        }
+        distinct.remove(null);
+        final List<String> values = new ArrayList<>(distinct.size());
+        final int dictionaryCapacity = tableSize(distinct.size());
+        this.dictionaryTable = new String[dictionaryCapacity];
+        this.dictionaryIds = new int[dictionaryCapacity];
+
+        final int n = rows.size();
+        this.keys = new int[n];
+        this.codes = new int[n];
+        this.hls = new int[n];
+        this.gls = new int[n];
+        this.nameOffsets = new int[n + 1];
+        this.nullNames = new BitSet(n);
+
+        final List<byte[]> encoded = new ArrayList<>(n);
+        int offset = 0;
+        for (int i = 0; i < n; i++) {
+            final Row row = rows.get(i);
+            keys[i] = (row.key() == null) ? NO_KEY : row.key();
+            codes[i] = intern(row.code(), values);
+            hls[i] = intern(row.hl(), values);
+            gls[i] = intern(row.gl(), values);
+
+            final byte[] bytes = (row.name() == null) ? new byte[0] : row.name().getBytes(StandardCharsets.UTF_8);
+            if (row.name() == null) {
+                nullNames.set(i);
+            }
+            encoded.add(bytes);
+            nameOffsets[i] = offset;
+            offset += bytes.length;
+        }
+        nameOffsets[n] = offset;
+
+        this.names = new byte[offset];
+        for (int i = 0; i < n; i++) {
+            final byte[] bytes = encoded.get(i);
+            System.arraycopy(bytes, 0, names, nameOffsets[i], bytes.length);
+        }
+        this.dictionary = values.toArray(new String[0]);
+
+        // (code, hl) index, at most 50% full
+        final int slots = tableSize(n);
+        this.slotKeys = new long[slots];
+        this.slotRows = new int[slots];
+        Arrays.fill(slotRows, NOT_FOUND);
+        for (int i = 0; i < n; i++) {
+            if (codes[i] == NO_CODE || hls[i] == NO_CODE) {
+                continue;
+            }
+            final long packed = pack(codes[i], hls[i]);
+            int slot = slot(packed, slots);
+            while (slotRows[slot] != NOT_FOUND && slotKeys[slot] != packed) {
+                slot = (slot + 1) & (slots - 1);
+            }
+            if (slotRows[slot] == NOT_FOUND) {
+                slotKeys[slot] = packed;
+                slotRows[slot] = i;
+            }
+        }
+
+        // locale ranges - the rows are sorted by hl so each locale is contiguous
+        this.localeStart = new int[dictionary.length];
+        this.localeEnd = new int[dictionary.length];
+        for (int i = 0; i < n; i++) {
+            final int hl = hls[i];
+            if (hl == NO_CODE) {
+                continue;
+            }
+            if (localeEnd[hl] == 0) {
+                localeStart[hl] = i;
+            }
+            localeEnd[hl] = i + 1;
+        }
+    }
+
+    /**
+     * Create an index of languages
+     *
+     * @param languages languages
+     * @return index
+     */
+    public static CompactI18nIndex ofLanguages(Collection<I18nLanguage> languages) {
+        final List<Row> rows = new ArrayList<>(languages.size());
+        for (I18nLanguage language : languages) {
+            rows.add(new Row(language.getKey(), language.getCode(), language.getHl(), language.getName(), null));
+        }
+        return new CompactI18nIndex(rows);
+    }
+
+    /**
+     * Create an index of regions
+     *
+     * @param regions regions
+     * @return index
+     */
+    public static CompactI18nIndex ofRegions(Collection<I18nRegion> regions) {
+        final List<Row> rows = new ArrayList<>(regions.size());
+        for (I18nRegion region : regions) {
+            rows.add(new Row(region.getKey(), region.getCode(), region.getHl(), region.getName(), region.getGl()));
+        }
+        return new CompactI18nIndex(rows);
+    }
+
+    /**
+     * Find the size of an open-addressing table that is at most 50% full
+     *
+     * @param entries number of entries
+     * @return power of two
+     */
+    private static int tableSize(int entries) {
+        return Math.max(2, Integer.highestOneBit(Math.max(entries, 1) * 2 - 1) << 1);
+    }
+
+    /**
+     * Pack the dictionary ids of a `(code, hl)` pair
+     *
+     * @param code code id
+     * @param hl   locale id
+     * @return packed key
+     */
+    static long pack(int code, int hl) {
+        return ((long) code << 32) | (hl & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Find the home slot of a packed key (murmur3 finalizer)
+     *
+     * @param packed packed key
+     * @param slots  table size (power of two)
+     * @return slot
+     */
+    private static int slot(long packed, int slots) {
+        long h = packed;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & (slots - 1);
+    }
+
+    /**
+     * Add a code to the dictionary while building the index
+     *
+     * @param value  code (may be null)
+     * @param values dictionary under construction
+     * @return dictionary id, or `NO_CODE` if value is null
+     */
+    private int intern(String value, List<String> values) {
+        if (value == null) {
+            return NO_CODE;
+        }
+        final int id = lookup(value);
+        if (id != NO_CODE) {
+            return id;
+        }
+
+        final int mask = dictionaryTable.length - 1;
+        int slot = value.hashCode() & mask;
+        while (dictionaryTable[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        dictionaryTable[slot] = value;
+        dictionaryIds[slot] = values.size();
+        values.add(value);
+        return values.size() - 1;
+    }
+
+    /**
+     * Find the dictionary id of a code
+     *
+     * @param value code (may be null)
+     * @return dictionary id, or `NO_CODE` if it's not present
+     */
+    private int lookup(String value) {
+        if (value == null) {
+            return NO_CODE;
+        }
+        final int mask = dictionaryTable.length - 1;
+        int slot = value.hashCode() & mask;
+        String candidate;
+        while ((candidate = dictionaryTable[slot]) != null) {
+            if (candidate.equals(value)) {
+                return dictionaryIds[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_CODE;
+    }
+
+    /**
+     * Find a row by code and locale
+     *
+     * @param code   code
+     * @param locale locale (hl)
+     * @return row ordinal, or `NOT_FOUND`
+     */
+    public int find(String code, String locale) {
+        final int codeId = lookup(code);
+        final int hlId = lookup(locale);
+        if (codeId == NO_CODE || hlId == NO_CODE) {
+            return NOT_FOUND;
+        }
+
+        final long packed = pack(codeId, hlId);
+        final int mask = slotKeys.length - 1;
+        int slot = slot(packed, slotKeys.length);
+        int row;
+        while ((row = slotRows[slot]) != NOT_FOUND) {
+            if (slotKeys[slot] == packed) {
+                return row;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Get the first row for a locale
+     *
+     * @param locale locale (hl)
+     * @return row ordinal. This equals `localeEnd(locale)` if there are no rows.
+     */
+    public int localeStart(String locale) {
+        final int hlId = lookup(locale);
+        return (hlId == NO_CODE) ? 0 : localeStart[hlId];
+    }
+
+    /**
+     * Get the end (exclusive) of the rows for a locale
+     *
+     * @param locale locale (hl)
+     * @return row ordinal
+     */
+    public int localeEnd(String locale) {
+        final int hlId = lookup(locale);
+        return (hlId == NO_CODE) ? 0 : localeEnd[hlId];
+    }
+
+    /**
+     * Get the number of rows
+     *
+     * @return number of rows
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Get the number of distinct codes
+     *
+     * @return dictionary size
+     */
+    public int dictionarySize() {
+        return dictionary.length;
+    }
+
+    public Integer key(int row) {
+        return (keys[row] == NO_KEY) ? null : keys[row];
+    }
+
+    public String code(int row) {
+        return decode(codes[row]);
+    }
+
+    public String hl(int row) {
+        return decode(hls[row]);
+    }
+
+    public String gl(int row) {
+        return decode(gls[row]);
+    }
+
+    /**
+     * Decode the name of a row
+     *
+     * @param row row ordinal
+     * @return new string, or null
+     */
+    public String name(int row) {
+        if (nullNames.get(row)) {
+            return null;
+        }
+        return new String(names, nameOffsets[row], nameOffsets[row + 1] - nameOffsets[row], StandardCharsets.UTF_8);
+    }
+
+    private String decode(int id) {
+        return (id == NO_CODE) ? null : dictionary[id];
+    }
+
+    /**
+     * Create a language from a row
+     *
+     * @param row row ordinal
+     * @return new language
+     */
+    public I18nLanguage language(int row) {
+        final I18nLanguage language = new I18nLanguage();
+        language.setKey(key(row));
+        language.setCode(code(row));
+        language.setHl(hl(row));
+        language.setName(name(row));
+        return language;
+    }
+
+    /**
+     * Create a region from a row
+     *
+     * @param row row ordinal
+     * @return new region
+     */
+    public I18nRegion region(int row) {
+        final I18nRegion region = new I18nRegion();
+        region.setKey(key(row));
+        region.setCode(code(row));
+        region.setHl(hl(row));
+        region.setName(name(row));
+        region.setGl(gl(row));
+        return region;
+    }
+
+    /**
+     * Estimate the retained heap size
+     *
+     * Uses the same assumptions as `RetainedSize`: 16-byte array headers and 4-byte
+     * references. The dictionary strings are included.
+     *
+     * @return estimated size in bytes
+     */
+    public long getRetainedBytes() {
+        long bytes = 0L;
+        for (String value : dictionary) {
+            bytes += RetainedSize.of(value);
+        }
+        bytes += array(dictionary.length, 4) + array(dictionaryTable.length, 4) + array(dictionaryIds.length, 4);
+        bytes += 4 * array(keys.length, 4) + array(nameOffsets.length, 4) + array(names.length, 1);
+        bytes += array(slotKeys.length, 8) + array(slotRows.length, 4);
+        bytes += array(localeStart.length, 4) + array(localeEnd.length, 4);
+        bytes += array(nullNames.size() / Long.SIZE, 8);
+        return bytes;
+    }
+
+    private static long array(long length, int width) {
+        return (16L + length * width + 7L) & ~7L;
+    }
+}
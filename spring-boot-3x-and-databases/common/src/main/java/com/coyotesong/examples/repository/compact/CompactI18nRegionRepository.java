@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.compact;
+
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import com.coyotesong.examples.repository.I18nRegionRepository;
+import com.coyotesong.examples.repository.Page;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Read-only I18nRegionRepository backed by a {@link CompactI18nIndex}
+ *
+ * This holds a fraction of the heap of a snapshot of `I18nRegion` objects, at the cost of
+ * creating a new object for each region returned. The objects aren't shared so callers
+ * may modify them. Use `forEachForLocale()` to avoid building a list.
+ *
+ * All writes throw `UnsupportedOperationException`. Create a new repository, e.g., with
+ * {@link #of(I18nRegionRepository)}, to pick up changes.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class CompactI18nRegionRepository implements I18nRegionRepository {
+    private final CompactI18nIndex index;
+
+    /**
+     * Constructor
+     *
+     * @param regions regions
+     */
+    public CompactI18nRegionRepository(Collection<I18nRegion> regions) {
+        this.index = CompactI18nIndex.ofRegions(regions);
+    }
+
+    /**
+     * Load all regions from another repository
+     *
+     * @param source source repository
+     * @return read-only repository
+     */
+    public static CompactI18nRegionRepository of(I18nRegionRepository source) {
+        return new CompactI18nRegionRepository(source.findAll());
+    }
+
+    /**
+     * Get the index
+     *
+     * @return index
+     */
+    public CompactI18nIndex getIndex() {
+        return index;
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("repository is read-only");
+    }
+
+    @Override
+    public void delete() {
+        throw readOnly();
+    }
+
+    @Override
+    public void truncate() {
+        throw readOnly();
+    }
+
+    @Override
+    public void insert(Collection<I18nRegion> regions) {
+        throw readOnly();
+    }
+
+    @Override
+    public void bulkInsert(Collection<I18nRegion> regions) {
+        throw readOnly();
+    }
+
+    @Override
+    public long load(Iterable<I18nRegion> regions) {
+        throw readOnly();
+    }
+
+    @Override
+    public void upsert(Collection<I18nRegion> regions) {
+        throw readOnly();
+    }
+
+    @Override
+    public List<I18nRegion> findAll() {
+        final List<I18nRegion> regions = new ArrayList<>(index.size());
+        for (int row = 0; row < index.size(); row++) {
+            regions.add(index.region(row));
+        }
+        return regions;
+    }
+
+    @Override
+    public Stream<I18nRegion> streamAll() {
+        return IntStream.range(0, index.size()).mapToObj(index::region);
+    }
+
+    @Override
+    public I18nRegion findByCodeAndLocale(String code, String locale) {
+        final int row = index.find(code, locale);
+        return (row == CompactI18nIndex.NOT_FOUND) ? null : index.region(row);
+    }
+
+    @Override
+    public Map<CodeAndLocale, I18nRegion> findByCodesAndLocales(Collection<CodeAndLocale> keys) {
+        final Map<CodeAndLocale, I18nRegion> results = new HashMap<>();
+        for (CodeAndLocale key : keys) {
+            if (key == null || results.containsKey(key)) {
+                continue;
+            }
+            final int row = index.find(key.code(), key.locale());
+            if (row != CompactI18nIndex.NOT_FOUND) {
+                results.put(key, index.region(row));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public List<I18nRegion> findAllForLocale(String locale) {
+        final int start = index.localeStart(locale);
+        final int end = index.localeEnd(locale);
+        final List<I18nRegion> regions = new ArrayList<>(end - start);
+        for (int row = start; row < end; row++) {
+            regions.add(index.region(row));
+        }
+        return regions;
+    }
+
+    @Override
+    public Page<I18nRegion> findAllForLocale(String locale, Integer afterKey, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+
+        return Page.ofRows(IntStream.range(index.localeStart(locale), index.localeEnd(locale)), afterKey, limit,
+                index::key, index::region);
+    }
+
+    @Override
+    public Stream<I18nRegion> streamAllForLocale(String locale) {
+        return IntStream.range(index.localeStart(locale), index.localeEnd(locale)).mapToObj(index::region);
+    }
+
+    @Override
+    public void forEachForLocale(String locale, Consumer<? super I18nRegion> action) {
+        final int end = index.localeEnd(locale);
+        for (int row = index.localeStart(locale); row < end; row++) {
+            action.accept(index.region(row));
+        }
+    }
+}
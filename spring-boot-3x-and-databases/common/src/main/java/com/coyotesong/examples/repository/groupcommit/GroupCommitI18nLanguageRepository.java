@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.groupcommit;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import com.coyotesong.examples.repository.I18nLanguageRepository;
+import com.coyotesong.examples.repository.Page;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Group commit for {@link I18nLanguageRepository#insert(I18nLanguage)}
+ *
+ * Concurrent single-row inserts are queued and a background thread writes them with
+ * one `bulkInsert(Collection)`, i.e., one multi-row statement and one commit. A batch is
+ * written when it reaches `maxBatchSize` rows or when its oldest row has waited `maxWait`.
+ * Each caller blocks until its batch has been committed, and the generated key is set
+ * on its object when the delegate's `bulkInsert()` returns keys.
+ *
+ * If a batch fails its rows are retried one at a time, so a bad row (e.g., a duplicate)
+ * only fails its own caller.
+ *
+ * The rows are written outside the caller's transaction, if any. This is opt-in - wrap
+ * the repository only where that is acceptable. The other methods are passed through.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class GroupCommitI18nLanguageRepository implements I18nLanguageRepository, AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(GroupCommitI18nLanguageRepository.class);
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+    public static final Duration DEFAULT_MAX_WAIT = Duration.ofMillis(2);
+
+    // how often an idle flusher checks whether it has been closed
+    private static final long IDLE_POLL_MILLIS = 100L;
+
+    /**
+     * Row waiting to be written
+     *
+     * @param language language
+     * @param enqueued time the row was queued (`System.nanoTime()`)
+     * @param done     completed when the row has been committed
+     */
+    private record Pending(I18nLanguage language, long enqueued, CompletableFuture<Void> done) {
+    }
+
+    private final I18nLanguageRepository delegate;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread flusher;
+
+    private final Log2Histogram batchSizes = new Log2Histogram();
+    private final Log2Histogram waitMicros = new Log2Histogram();
+
+    private volatile boolean closed;
+
+    /**
+     * Constructor
+     *
+     * @param delegate underlying repository
+     */
+    public GroupCommitI18nLanguageRepository(I18nLanguageRepository delegate) {
+        this(delegate, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_WAIT);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param delegate     underlying repository
+     * @param maxBatchSize maximum number of rows per batch
+     * @param maxWait      maximum time a row waits for other rows
+     */
+    public GroupCommitI18nLanguageRepository(I18nLanguageRepository delegate, int maxBatchSize, Duration maxWait) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        if (maxWait.isNegative()) {
+            throw new IllegalArgumentException("maxWait must not be negative");
+        }
+        this.delegate = delegate;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.flusher = Thread.ofPlatform().name("group-commit").daemon().start(this::flushLoop);
+    }
+
+    /**
+     * Insert a language as part of a group commit
+     *
+     * @param language language to insert
+     * @throws IllegalStateException the repository has been closed
+     */
+    @Override
+    public void insert(I18nLanguage language) {
+        if (closed) {
+            throw new IllegalStateException("repository has been closed");
+        }
+
+        final Pending pending = new Pending(language, System.nanoTime(), new CompletableFuture<>());
+        queue.add(pending);
+
+        // close() may have drained the queue before we added our row
+        if (closed && queue.remove(pending)) {
+            throw new IllegalStateException("repository has been closed");
+        }
+
+        try {
+            pending.done().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Collect and write batches until closed
+     */
+    private void flushLoop() {
+        final List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                final Pending first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                final long deadline = first.enqueued() + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    final long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0L) {
+                        break;
+                    }
+                    final Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                // close() is responsible for stopping us, but the rows we've taken are still written
+                LOG.debug("group commit flusher interrupted");
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+            } catch (RuntimeException e) {
+                // flush() completes every future so this shouldn't happen
+                LOG.warn("{}: group commit failed: {}", e.getClass().getName(), e.getMessage());
+                batch.forEach(pending -> pending.done().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Write a batch and release its callers
+     *
+     * @param batch rows to write
+     */
+    private void flush(List<Pending> batch) {
+        batchSizes.record(batch.size());
+
+        final List<I18nLanguage> languages = new ArrayList<>(batch.size());
+        batch.forEach(pending -> languages.add(pending.language()));
+
+        try {
+            delegate.bulkInsert(languages);
+            batch.forEach(this::complete);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), e);
+                return;
+            }
+
+            LOG.debug("{}: group commit of {} rows failed, retrying individually: {}",
+                    e.getClass().getName(), batch.size(), e.getMessage());
+            for (Pending pending : batch) {
+                try {
+                    delegate.bulkInsert(List.of(pending.language()));
+                    complete(pending);
+                } catch (RuntimeException single) {
+                    fail(pending, single);
+                }
+            }
+        }
+    }
+
+    private void complete(Pending pending) {
+        waitMicros.record((System.nanoTime() - pending.enqueued()) / 1_000L);
+        pending.done().complete(null);
+    }
+
+    private void fail(Pending pending, RuntimeException e) {
+        waitMicros.record((System.nanoTime() - pending.enqueued()) / 1_000L);
+        pending.done().completeExceptionally(e);
+    }
+
+    /**
+     * Get the distribution of batch sizes
+     *
+     * @return batch sizes, in rows
+     */
+    public Log2Histogram getBatchSizes() {
+        return batchSizes;
+    }
+
+    /**
+     * Get the distribution of the time callers waited, including the write
+     *
+     * @return wait times, in microseconds
+     */
+    public Log2Histogram getWaitMicros() {
+        return waitMicros;
+    }
+
+    /**
+     * Write any queued rows and stop the background thread
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // rows queued while the flusher was exiting
+        final List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    @Override
+    public void delete() {
+        delegate.delete();
+    }
+
+    @Override
+    public void truncate() {
+        delegate.truncate();
+    }
+
+    @Override
+    public void insert(Collection<I18nLanguage> languages) {
+        delegate.insert(languages);
+    }
+
+    @Override
+    public void bulkInsert(Collection<I18nLanguage> languages) {
+        delegate.bulkInsert(languages);
+    }
+
+    @Override
+    public long load(Iterable<I18nLanguage> languages) {
+        return delegate.load(languages);
+    }
+
+    @Override
+    public void upsert(Collection<I18nLanguage> languages) {
+        delegate.upsert(languages);
+    }
+
+    @Override
+    public List<I18nLanguage> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<I18nLanguage> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public I18nLanguage findByCodeAndLocale(String code, String locale) {
+        return delegate.findByCodeAndLocale(code, locale);
+    }
+
+    @Override
+    public Map<CodeAndLocale, I18nLanguage> findByCodesAndLocales(Collection<CodeAndLocale> keys) {
+        return delegate.findByCodesAndLocales(keys);
+    }
+
+    @Override
+    public List<I18nLanguage> findAllForLocale(String locale) {
+        return delegate.findAllForLocale(locale);
+    }
+
+    @Override
+    public Page<I18nLanguage> findAllForLocale(String locale, Integer afterKey, int limit) {
+        return delegate.findAllForLocale(locale, afterKey, limit);
+    }
+
+    @Override
+    public Stream<I18nLanguage> streamAllForLocale(String locale) {
+        return delegate.streamAllForLocale(locale);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.groupcommit;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram with power-of-two buckets
+ *
+ * Bucket `i` counts the values in `[2^(i-1), 2^i)` and bucket 0 counts zero. The
+ * percentiles are the upper bound of the bucket, so they are accurate to within a factor
+ * of two. That's plenty for batch sizes and latencies, and recording is just two
+ * uncontended increments.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class Log2Histogram {
+
+    /**
+     * Point-in-time summary
+     *
+     * @param count number of values
+     * @param mean  mean value
+     * @param max   maximum value
+     * @param p50   median (bucket upper bound)
+     * @param p99   99th percentile (bucket upper bound)
+     */
+    public record Snapshot(long count, double mean, long max, long p50, long p99) {
+    }
+
+    private final LongAdder[] buckets = new LongAdder[Long.SIZE];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0L);
+
+    /**
+     * Constructor
+     */
+    public Log2Histogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record a value
+     *
+     * @param value value - negative values are recorded as zero
+     */
+    public void record(long value) {
+        final long v = Math.max(value, 0L);
+        buckets[Math.min(Long.SIZE - Long.numberOfLeadingZeros(v), buckets.length - 1)].increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    /**
+     * Get the number of values in each bucket
+     *
+     * @return bucket counts
+     */
+    public long[] getBuckets() {
+        final long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Get a summary
+     *
+     * The values are read without locking, so they may be slightly inconsistent while
+     * values are being recorded.
+     *
+     * @return snapshot
+     */
+    public Snapshot snapshot() {
+        final long[] counts = getBuckets();
+        long total = 0L;
+        for (long c : counts) {
+            total += c;
+        }
+        final double mean = (total == 0L) ? 0.0 : (double) sum.sum() / total;
+        return new Snapshot(total, mean, max.get(), percentile(counts, total, 0.50), percentile(counts, total, 0.99));
+    }
+
+    /**
+     * Find the upper bound of the bucket containing a percentile
+     *
+     * @param counts bucket counts
+     * @param total  number of values
+     * @param p      percentile, in `(0, 1]`
+     * @return bucket upper bound
+     */
+    private static long percentile(long[] counts, long total, double p) {
+        if (total == 0L) {
+            return 0L;
+        }
+        final long rank = (long) Math.ceil(p * total);
+        long seen = 0L;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return (i == 0) ? 0L : (i >= Long.SIZE - 1) ? Long.MAX_VALUE : (1L << i) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.mapped;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import com.coyotesong.examples.repository.I18nLanguageRepository;
+import com.coyotesong.examples.repository.Page;
+import com.coyotesong.examples.repository.snapshot.Refreshable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Read-only I18nLanguageRepository backed by a memory-mapped {@link SnapshotFile}
+ *
+ * See {@link MappedI18nRegionRepository}.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class MappedI18nLanguageRepository implements I18nLanguageRepository, Refreshable {
+    private final Path path;
+    private volatile SnapshotFile file;
+    private Object fileKey;
+
+    /**
+     * Constructor
+     *
+     * @param path snapshot file
+     * @throws IOException unable to map the file, or it doesn't contain languages
+     */
+    public MappedI18nLanguageRepository(Path path) throws IOException {
+        this.path = path;
+        this.fileKey = fileKey(path);
+        this.file = open(path);
+    }
+
+    private static SnapshotFile open(Path path) throws IOException {
+        final SnapshotFile file = SnapshotFile.open(path);
+        if (!file.isLanguages()) {
+            throw new IOException(path + " does not contain languages");
+        }
+        return file;
+    }
+
+    private static Object fileKey(Path path) throws IOException {
+        return Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+    }
+
+    /**
+     * Map the file again if it has been replaced
+     *
+     * @throws UncheckedIOException unable to map the new file
+     */
+    @Override
+    public synchronized void refresh() {
+        try {
+            final Object key = fileKey(path);
+            // not all file systems provide a file key
+            if (key == null || !Objects.equals(key, fileKey)) {
+                file = open(path);
+                fileKey = key;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Get the current file
+     *
+     * @return mapped file
+     */
+    public SnapshotFile getFile() {
+        return file;
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("repository is read-only");
+    }
+
+    @Override
+    public void delete() {
+        throw readOnly();
+    }
+
+    @Override
+    public void truncate() {
+        throw readOnly();
+    }
+
+    @Override
+    public void insert(I18nLanguage language) {
+        throw readOnly();
+    }
+
+    @Override
+    public void insert(Collection<I18nLanguage> languages) {
+        throw readOnly();
+    }
+
+    @Override
+    public void bulkInsert(Collection<I18nLanguage> languages) {
+        throw readOnly();
+    }
+
+    @Override
+    public long load(Iterable<I18nLanguage> languages) {
+        throw readOnly();
+    }
+
+    @Override
+    public void upsert(Collection<I18nLanguage> languages) {
+        throw readOnly();
+    }
+
+    @Override
+    public List<I18nLanguage> findAll() {
+        final SnapshotFile current = file;
+        final List<I18nLanguage> languages = new ArrayList<>(current.size());
+        for (int row = 0; row < current.size(); row++) {
+            languages.add(current.language(row));
+        }
+        return languages;
+    }
+
+    @Override
+    public Stream<I18nLanguage> streamAll() {
+        final SnapshotFile current = file;
+        return IntStream.range(0, current.size()).mapToObj(current::language);
+    }
+
+    @Override
+    public I18nLanguage findByCodeAndLocale(String code, String locale) {
+        final SnapshotFile current = file;
+        final int row = current.find(code, locale);
+        return (row == SnapshotFile.NOT_FOUND) ? null : current.language(row);
+    }
+
+    @Override
+    public Map<CodeAndLocale, I18nLanguage> findByCodesAndLocales(Collection<CodeAndLocale> keys) {
+        final SnapshotFile current = file;
+        final Map<CodeAndLocale, I18nLanguage> results = new HashMap<>();
+        for (CodeAndLocale key : keys) {
+            if (key == null || results.containsKey(key)) {
+                continue;
+            }
+            final int row = current.find(key.code(), key.locale());
+            if (row != SnapshotFile.NOT_FOUND) {
+                results.put(key, current.language(row));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public List<I18nLanguage> findAllForLocale(String locale) {
+        final SnapshotFile current = file;
+        final int start = current.localeStart(locale);
+        final int end = current.localeEnd(locale);
+        final List<I18nLanguage> languages = new ArrayList<>(end - start);
+        for (int row = start; row < end; row++) {
+            languages.add(current.language(row));
+        }
+        return languages;
+    }
+
+    @Override
+    public Page<I18nLanguage> findAllForLocale(String locale, Integer afterKey, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+
+        final SnapshotFile current = file;
+        return Page.ofRows(IntStream.range(current.localeStart(locale), current.localeEnd(locale)), afterKey, limit,
+                current::key, current::language);
+    }
+
+    @Override
+    public Stream<I18nLanguage> streamAllForLocale(String locale) {
+        final SnapshotFile current = file;
+        return IntStream.range(current.localeStart(locale), current.localeEnd(locale)).mapToObj(current::language);
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.mapped;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.model.I18nRegion;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+import static com.coyotesong.examples.repository.mapped.SnapshotFileFormat.*;
+
+/**
+ * Read-only, memory-mapped i18n snapshot file
+ *
+ * The file is mapped, not read, so the data stays in the page cache and is shared by
+ * every JVM on the host that maps the same file. Lookups are binary searches over the
+ * mapped rows and only use absolute reads, so an instance can be shared by any number
+ * of threads. Strings are only decoded when a row is turned into a model object.
+ *
+ * The mapping remains valid after the file has been replaced by `SnapshotFileWriter`
+ * since the rename doesn't touch the old file's contents. Open the path again to see
+ * the new version.
+ *
+ * See {@link SnapshotFileFormat} for the layout.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class SnapshotFile {
+    public static final int NOT_FOUND = -1;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int kind;
+    private final long version;
+    private final int rowCount;
+    private final int localeCount;
+    private final int rowsOffset;
+    private final int localesOffset;
+    private final int stringsOffset;
+
+    private SnapshotFile(Path path, ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+            throw new IOException(path + " is not an i18n snapshot file");
+        }
+        if (buffer.getInt(FORMAT_VERSION_OFFSET) != FORMAT_VERSION) {
+            throw new IOException(path + " has unsupported format version " + buffer.getInt(FORMAT_VERSION_OFFSET));
+        }
+
+        this.path = path;
+        this.buffer = buffer;
+        this.kind = buffer.getInt(KIND_OFFSET);
+        this.version = buffer.getLong(VERSION_OFFSET);
+        this.rowCount = buffer.getInt(ROW_COUNT_OFFSET);
+        this.localeCount = buffer.getInt(LOCALE_COUNT_OFFSET);
+        this.rowsOffset = buffer.getInt(ROWS_OFFSET);
+        this.localesOffset = buffer.getInt(LOCALES_OFFSET);
+        this.stringsOffset = buffer.getInt(STRINGS_OFFSET);
+
+        final long end = (long) stringsOffset + buffer.getInt(STRINGS_LENGTH_OFFSET);
+        if (end != buffer.capacity()) {
+            throw new IOException(path + " is truncated");
+        }
+
+        final CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(HEADER_SIZE, buffer.capacity() - HEADER_SIZE));
+        if (crc.getValue() != buffer.getLong(CHECKSUM_OFFSET)) {
+            throw new IOException(path + " has a bad checksum");
+        }
+    }
+
+    /**
+     * Map a snapshot file
+     *
+     * The checksum is verified, which reads the whole file once.
+     *
+     * @param path snapshot file
+     * @return mapped file
+     * @throws IOException unable to map the file, or it isn't a valid snapshot
+     */
+    public static SnapshotFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(path + " is too large");
+            }
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+            return new SnapshotFile(path, mapped);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isLanguages() {
+        return kind == KIND_LANGUAGE;
+    }
+
+    public boolean isRegions() {
+        return kind == KIND_REGION;
+    }
+
+    /**
+     * Get the number of rows
+     *
+     * @return number of rows
+     */
+    public int size() {
+        return rowCount;
+    }
+
+    /**
+     * Find a row by code and locale
+     *
+     * If there are duplicate `(code, hl)` pairs the first one in sort order is returned.
+     *
+     * @param code   code
+     * @param locale locale (hl)
+     * @return row ordinal, or `NOT_FOUND`
+     */
+    public int find(String code, String locale) {
+        final int entry = findLocale(locale);
+        if (entry == NOT_FOUND || code == null) {
+            return NOT_FOUND;
+        }
+
+        final byte[] key = utf8(code);
+        final int base = localeEntry(entry);
+        int lo = buffer.getInt(base + LOCALE_FIRST_ROW);
+        int hi = lo + buffer.getInt(base + LOCALE_CODED_COUNT) - 1;
+        int found = NOT_FOUND;
+        while (lo <= hi) {
+            final int mid = (lo + hi) >>> 1;
+            final int c = compareRef(row(mid) + ROW_CODE, key);
+            if (c < 0) {
+                lo = mid + 1;
+            } else {
+                if (c == 0) {
+                    found = mid;
+                }
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Get the first row for a locale
+     *
+     * @param locale locale (hl)
+     * @return row ordinal. This equals `localeEnd(locale)` if there are no rows.
+     */
+    public int localeStart(String locale) {
+        final int entry = findLocale(locale);
+        return (entry == NOT_FOUND) ? 0 : buffer.getInt(localeEntry(entry) + LOCALE_FIRST_ROW);
+    }
+
+    /**
+     * Get the end (exclusive) of the rows for a locale
+     *
+     * @param locale locale (hl)
+     * @return row ordinal
+     */
+    public int localeEnd(String locale) {
+        final int entry = findLocale(locale);
+        if (entry == NOT_FOUND) {
+            return 0;
+        }
+        final int base = localeEntry(entry);
+        return buffer.getInt(base + LOCALE_FIRST_ROW) + buffer.getInt(base + LOCALE_ROW_COUNT);
+    }
+
+    /**
+     * Binary search of the locale directory
+     *
+     * @param locale locale (hl)
+     * @return directory entry, or `NOT_FOUND`
+     */
+    private int findLocale(String locale) {
+        if (locale == null) {
+            return NOT_FOUND;
+        }
+        final byte[] key = utf8(locale);
+        int lo = 0;
+        int hi = localeCount - 1;
+        while (lo <= hi) {
+            final int mid = (lo + hi) >>> 1;
+            final int c = compareRef(localeEntry(mid) + LOCALE_HL, key);
+            if (c < 0) {
+                lo = mid + 1;
+            } else if (c > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private int row(int ordinal) {
+        return rowsOffset + ordinal * ROW_SIZE;
+    }
+
+    private int localeEntry(int entry) {
+        return localesOffset + entry * LOCALE_SIZE;
+    }
+
+    /**
+     * Compare a string in the file with a key, as unsigned UTF-8 bytes with nulls last
+     *
+     * @param ref position of the string reference
+     * @param key UTF-8 key (not null)
+     * @return negative, zero or positive
+     */
+    private int compareRef(int ref, byte[] key) {
+        final int offset = buffer.getInt(ref);
+        if (offset == NULL_STRING) {
+            return 1;
+        }
+        final int length = buffer.getInt(ref + 4);
+        final int start = stringsOffset + offset;
+        final int n = Math.min(length, key.length);
+        for (int i = 0; i < n; i++) {
+            final int c = Byte.compareUnsigned(buffer.get(start + i), key[i]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    /**
+     * Decode a string
+     *
+     * @param ref position of the string reference
+     * @return new string, or null
+     */
+    private String decode(int ref) {
+        final int offset = buffer.getInt(ref);
+        if (offset == NULL_STRING) {
+            return null;
+        }
+        final byte[] bytes = new byte[buffer.getInt(ref + 4)];
+        buffer.get(stringsOffset + offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public Integer key(int row) {
+        final int key = buffer.getInt(row(row) + ROW_KEY);
+        return (key == NO_KEY) ? null : key;
+    }
+
+    public String code(int row) {
+        return decode(row(row) + ROW_CODE);
+    }
+
+    public String hl(int row) {
+        return decode(row(row) + ROW_HL);
+    }
+
+    public String name(int row) {
+        return decode(row(row) + ROW_NAME);
+    }
+
+    public String gl(int row) {
+        return decode(row(row) + ROW_GL);
+    }
+
+    /**
+     * Create a language from a row
+     *
+     * @param row row ordinal
+     * @return new language
+     */
+    public I18nLanguage language(int row) {
+        final I18nLanguage language = new I18nLanguage();
+        language.setKey(key(row));
+        language.setCode(code(row));
+        language.setHl(hl(row));
+        language.setName(name(row));
+        return language;
+    }
+
+    /**
+     * Create a region from a row
+     *
+     * @param row row ordinal
+     * @return new region
+     */
+    public I18nRegion region(int row) {
+        final I18nRegion region = new I18nRegion();
+        region.setKey(key(row));
+        region.setCode(code(row));
+        region.setHl(hl(row));
+        region.setName(name(row));
+        region.setGl(gl(row));
+        return region;
+    }
+}
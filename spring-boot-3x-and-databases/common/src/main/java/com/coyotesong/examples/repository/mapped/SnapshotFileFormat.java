@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.mapped;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Layout of an i18n snapshot file
+ *
+ * All values are big-endian. The file is
+ *
+ * - a fixed-size header
+ * - the rows, sorted by `(hl, code)` with nulls last, as fixed-size entries
+ * - the locale directory, sorted by `hl`, one entry per block of rows with the same locale
+ * - a string heap with the UTF-8 bytes of every distinct string
+ *
+ * The header has a CRC32C of everything that follows it. A string reference is an
+ * `(offset, length)` pair into the heap, with an offset of -1 for null. The comparisons
+ * are on the unsigned UTF-8 bytes, so the writer and reader always agree on the order.
+ */
+@SuppressWarnings("JavadocBlankLines")
+final class SnapshotFileFormat {
+    static final int MAGIC = 0x4931384E; // "I18N"
+    static final int FORMAT_VERSION = 1;
+
+    static final int KIND_LANGUAGE = 1;
+    static final int KIND_REGION = 2;
+
+    // header
+    static final int HEADER_SIZE = 64;
+    static final int MAGIC_OFFSET = 0;
+    static final int FORMAT_VERSION_OFFSET = 4;
+    static final int KIND_OFFSET = 8;
+    static final int ROW_COUNT_OFFSET = 12;
+    static final int VERSION_OFFSET = 16;
+    static final int LOCALE_COUNT_OFFSET = 24;
+    static final int ROWS_OFFSET = 28;
+    static final int LOCALES_OFFSET = 32;
+    static final int STRINGS_OFFSET = 36;
+    static final int STRINGS_LENGTH_OFFSET = 40;
+    static final int CHECKSUM_OFFSET = 48;
+
+    // row: int key, then code, hl, name and gl string references
+    static final int NO_KEY = Integer.MIN_VALUE;
+    static final int ROW_KEY = 0;
+    static final int ROW_CODE = 4;
+    static final int ROW_HL = 12;
+    static final int ROW_NAME = 20;
+    static final int ROW_GL = 28;
+    static final int ROW_SIZE = 36;
+
+    // locale directory entry: hl string reference, first row, row count, rows with a code
+    static final int LOCALE_HL = 0;
+    static final int LOCALE_FIRST_ROW = 8;
+    static final int LOCALE_ROW_COUNT = 12;
+    static final int LOCALE_CODED_COUNT = 16;
+    static final int LOCALE_SIZE = 20;
+
+    static final int NULL_STRING = -1;
+
+    private SnapshotFileFormat() {
+    }
+
+    /**
+     * Encode a string for comparison with the file contents
+     *
+     * @param value string (may be null)
+     * @return UTF-8 bytes, or null
+     */
+    static byte[] utf8(String value) {
+        return (value == null) ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compare two UTF-8 strings as unsigned bytes, with nulls last
+     *
+     * @param a first value (may be null)
+     * @param b second value (may be null)
+     * @return negative, zero or positive
+     */
+    static int compare(byte[] a, byte[] b) {
+        if (a == null || b == null) {
+            return (a == null) ? ((b == null) ? 0 : 1) : -1;
+        }
+        return Arrays.compareUnsigned(a, b);
+    }
+}
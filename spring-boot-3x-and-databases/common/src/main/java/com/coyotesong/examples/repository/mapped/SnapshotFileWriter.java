@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.mapped;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.repository.I18nLanguageRepository;
+import com.coyotesong.examples.repository.I18nRegionRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+import static com.coyotesong.examples.repository.mapped.SnapshotFileFormat.*;
+
+/**
+ * Write i18n tables to snapshot files
+ *
+ * The file is written to a temporary file in the same directory, forced to disk, and then
+ * renamed over the target. Readers therefore see either the old file or the new one, never
+ * a partial file, and a reader that has the old file mapped keeps a valid mapping.
+ *
+ * The directory must be on a filesystem that supports atomic renames, e.g., a local
+ * POSIX filesystem. Otherwise `write*()` fails with an `AtomicMoveNotSupportedException`
+ * and the target is left unchanged.
+ *
+ * The temporary file is created owner-only. On POSIX filesystems it is given the
+ * permissions of the file it replaces, or {@link #DEFAULT_PERMISSIONS} for a new file,
+ * before it is renamed.
+ *
+ * See {@link SnapshotFileFormat} for the layout.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class SnapshotFileWriter {
+    public static final Set<PosixFilePermission> DEFAULT_PERMISSIONS = PosixFilePermissions.fromString("rw-r--r--");
+
+    /**
+     * Unencoded row
+     */
+    private record Row(Integer key, byte[] code, byte[] hl, byte[] name, byte[] gl) {
+    }
+
+    private static final Comparator<Row> ORDER = (a, b) -> {
+        final int c = compare(a.hl(), b.hl());
+        return (c != 0) ? c : compare(a.code(), b.code());
+    };
+
+    private SnapshotFileWriter() {
+    }
+
+    /**
+     * Export all languages from a repository
+     *
+     * @param repository source repository
+     * @param target     snapshot file
+     * @param version    snapshot version
+     * @throws IOException unable to write the file
+     */
+    public static void export(I18nLanguageRepository repository, Path target, long version) throws IOException {
+        writeLanguages(target, version, repository.findAll());
+    }
+
+    /**
+     * Export all regions from a repository
+     *
+     * @param repository source repository
+     * @param target     snapshot file
+     * @param version    snapshot version
+     * @throws IOException unable to write the file
+     */
+    public static void export(I18nRegionRepository repository, Path target, long version) throws IOException {
+        writeRegions(target, version, repository.findAll());
+    }
+
+    /**
+     * Write languages to a snapshot file
+     *
+     * @param target    snapshot file
+     * @param version   snapshot version
+     * @param languages languages
+     * @throws IOException unable to write the file
+     */
+    public static void writeLanguages(Path target, long version, Collection<I18nLanguage> languages)
+            throws IOException {
+        final List<Row> rows = new ArrayList<>(languages.size());
+        for (I18nLanguage language : languages) {
+            rows.add(new Row(language.getKey(), utf8(language.getCode()), utf8(language.getHl()),
+                    utf8(language.getName()), null));
+        }
+        write(target, KIND_LANGUAGE, version, rows);
+    }
+
+    /**
+     * Write regions to a snapshot file
+     *
+     * @param target  snapshot file
+     * @param version snapshot version
+     * @param regions regions
+     * @throws IOException unable to write the file
+     */
+    public static void writeRegions(Path target, long version, Collection<I18nRegion> regions) throws IOException {
+        final List<Row> rows = new ArrayList<>(regions.size());
+        for (I18nRegion region : regions) {
+            rows.add(new Row(region.getKey(), utf8(region.getCode()), utf8(region.getHl()),
+                    utf8(region.getName()), utf8(region.getGl())));
+        }
+        write(target, KIND_REGION, version, rows);
+    }
+
+    /**
+     * Encode the rows and replace the target file
+     *
+     * @param target  snapshot file
+     * @param kind    KIND_LANGUAGE or KIND_REGION
+     * @param version snapshot version
+     * @param rows    rows (in any order)
+     * @throws IOException unable to write the file
+     */
+    private static void write(Path target, int kind, long version, List<Row> rows) throws IOException {
+        final List<Row> sorted = new ArrayList<>(rows);
+        sorted.sort(ORDER);
+
+        final Strings strings = new Strings();
+        final ByteBuffer rowBlock = ByteBuffer.allocate(sorted.size() * ROW_SIZE);
+        for (Row row : sorted) {
+            rowBlock.putInt((row.key() == null) ? NO_KEY : row.key());
+            strings.putRef(rowBlock, row.code());
+            strings.putRef(rowBlock, row.hl());
+            strings.putRef(rowBlock, row.name());
+            strings.putRef(rowBlock, row.gl());
+        }
+
+        // one directory entry per block of rows with the same (non-null) locale
+        final ByteArrayOutputStream directory = new ByteArrayOutputStream();
+        final ByteBuffer entry = ByteBuffer.allocate(LOCALE_SIZE);
+        int localeCount = 0;
+        for (int first = 0; first < sorted.size() && sorted.get(first).hl() != null; ) {
+            final byte[] hl = sorted.get(first).hl();
+            int end = first;
+            int coded = 0;
+            while (end < sorted.size() && compare(hl, sorted.get(end).hl()) == 0) {
+                if (sorted.get(end).code() != null) {
+                    coded++;
+                }
+                end++;
+            }
+
+            entry.clear();
+            strings.putRef(entry, hl);
+            entry.putInt(first).putInt(end - first).putInt(coded);
+            directory.write(entry.array(), 0, LOCALE_SIZE);
+            localeCount++;
+            first = end;
+        }
+
+        final int rowsOffset = HEADER_SIZE;
+        final int localesOffset = rowsOffset + rowBlock.capacity();
+        final int stringsOffset = localesOffset + directory.size();
+        final byte[] heap = strings.toByteArray();
+
+        final CRC32C crc = new CRC32C();
+        crc.update(rowBlock.array());
+        crc.update(directory.toByteArray());
+        crc.update(heap);
+
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC_OFFSET, MAGIC)
+                .putInt(FORMAT_VERSION_OFFSET, FORMAT_VERSION)
+                .putInt(KIND_OFFSET, kind)
+                .putInt(ROW_COUNT_OFFSET, sorted.size())
+                .putLong(VERSION_OFFSET, version)
+                .putInt(LOCALE_COUNT_OFFSET, localeCount)
+                .putInt(ROWS_OFFSET, rowsOffset)
+                .putInt(LOCALES_OFFSET, localesOffset)
+                .putInt(STRINGS_OFFSET, stringsOffset)
+                .putInt(STRINGS_LENGTH_OFFSET, heap.length)
+                .putLong(CHECKSUM_OFFSET, crc.getValue());
+
+        final Path dir = target.toAbsolutePath().getParent();
+        final Path tmp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeFully(channel, header.rewind());
+                writeFully(channel, rowBlock.rewind());
+                writeFully(channel, ByteBuffer.wrap(directory.toByteArray()));
+                writeFully(channel, ByteBuffer.wrap(heap));
+                channel.force(true);
+            }
+            copyPermissions(target, tmp);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Give the temporary file the permissions of the target
+     *
+     * @param target snapshot file, which may not exist yet
+     * @param tmp    temporary file
+     * @throws IOException unable to read or set the permissions
+     */
+    private static void copyPermissions(Path target, Path tmp) throws IOException {
+        final PosixFileAttributeView view = Files.getFileAttributeView(tmp, PosixFileAttributeView.class);
+        if (view == null) {
+            return;
+        }
+        view.setPermissions(Files.exists(target) ? Files.getPosixFilePermissions(target) : DEFAULT_PERMISSIONS);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * String heap - each distinct string is stored once
+     */
+    private static final class Strings {
+        private final ByteArrayOutputStream heap = new ByteArrayOutputStream();
+        private final Map<ByteBuffer, Integer> offsets = new HashMap<>();
+
+        void putRef(ByteBuffer buffer, byte[] value) {
+            if (value == null) {
+                buffer.putInt(NULL_STRING).putInt(0);
+                return;
+            }
+
+            // ByteBuffer equality is on the contents
+            final ByteBuffer key = ByteBuffer.wrap(value);
+            final Integer offset = offsets.get(key);
+            if (offset != null) {
+                buffer.putInt(offset).putInt(value.length);
+                return;
+            }
+
+            offsets.put(key, heap.size());
+            buffer.putInt(heap.size()).putInt(value.length);
+            heap.write(value, 0, value.length);
+        }
+
+        byte[] toByteArray() {
+            return heap.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.coyotesong.examples.repository.reactive;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import com.coyotesong.examples.repository.Page;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ReactiveI18nLanguageRepository {
+    Mono<Void> delete();
+
+    Mono<Void> truncate();
+
+    Mono<I18nLanguage> insert(I18nLanguage language);
+
+    Mono<Long> insert(Publisher<I18nLanguage> languages);
+
+    Mono<Long> upsert(Publisher<I18nLanguage> languages);
+
+    Flux<I18nLanguage> findAll();
+
+    Mono<I18nLanguage> findByCodeAndLocale(String code, String locale);
+
+    Mono<Map<CodeAndLocale, I18nLanguage>> findByCodesAndLocales(Collection<CodeAndLocale> keys);
+
+    Flux<I18nLanguage> findAllForLocale(String locale);
+
+    Mono<Page<I18nLanguage>> findAllForLocale(String locale, Integer afterKey, int limit);
+}
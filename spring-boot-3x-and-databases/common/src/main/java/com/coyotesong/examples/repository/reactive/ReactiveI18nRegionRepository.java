@@ -0,0 +1,31 @@
+package com.coyotesong.examples.repository.reactive;
+
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import com.coyotesong.examples.repository.Page;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ReactiveI18nRegionRepository {
+    Mono<Void> delete();
+
+    Mono<Void> truncate();
+
+    Mono<Long> insert(Publisher<I18nRegion> regions);
+
+    Mono<Long> upsert(Publisher<I18nRegion> regions);
+
+    Flux<I18nRegion> findAll();
+
+    Mono<I18nRegion> findByCodeAndLocale(String code, String locale);
+
+    Mono<Map<CodeAndLocale, I18nRegion>> findByCodesAndLocales(Collection<CodeAndLocale> keys);
+
+    Flux<I18nRegion> findAllForLocale(String locale);
+
+    Mono<Page<I18nRegion>> findAllForLocale(String locale, Integer afterKey, int limit);
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.coyotesong.examples.repository.replica;
+
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.persistence.routing.ReadWriteRoutingDataSource;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import com.coyotesong.examples.repository.I18nRegionRepository;
+import com.coyotesong.examples.repository.Page;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Region repository that sends its finders to the read replicas
+ *
+ * The `find*()` methods run inside {@link ReadWriteRoutingDataSource#readOnly} so they
+ * use a replica connection without the cost of a read-only transaction. Finders called
+ * inside a caller's transaction use that transaction's connection. The stream methods
+ * and writes go to the primary since a cursor may outlive the method call.
+ *
+ * This is only useful with the `replicas` profile. Without a `ReadWriteRoutingDataSource`
+ * it simply passes every call to the delegate.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class ReadReplicaI18nRegionRepository implements I18nRegionRepository {
+    private final I18nRegionRepository delegate;
+
+    /**
+     * Constructor
+     *
+     * @param delegate underlying repository
+     */
+    public ReadReplicaI18nRegionRepository(I18nRegionRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void delete() {
+        delegate.delete();
+    }
+
+    @Override
+    public void truncate() {
+        delegate.truncate();
+    }
+
+    @Override
+    public void insert(Collection<I18nRegion> regions) {
+        delegate.insert(regions);
+    }
+
+    @Override
+    public void bulkInsert(Collection<I18nRegion> regions) {
+        delegate.bulkInsert(regions);
+    }
+
+    @Override
+    public long load(Iterable<I18nRegion> regions) {
+        return delegate.load(regions);
+    }
+
+    @Override
+    public void upsert(Collection<I18nRegion> regions) {
+        delegate.upsert(regions);
+    }
+
+    @Override
+    public List<I18nRegion> findAll() {
+        return ReadWriteRoutingDataSource.readOnly(delegate::findAll);
+    }
+
+    @Override
+    public Stream<I18nRegion> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public I18nRegion findByCodeAndLocale(String code, String locale) {
+        return ReadWriteRoutingDataSource.readOnly(() -> delegate.findByCodeAndLocale(code, locale));
+    }
+
+    @Override
+    public Map<CodeAndLocale, I18nRegion> findByCodesAndLocales(Collection<CodeAndLocale> keys) {
+        return ReadWriteRoutingDataSource.readOnly(() -> delegate.findByCodesAndLocales(keys));
+    }
+
+    @Override
+    public List<I18nRegion> findAllForLocale(String locale) {
+        return ReadWriteRoutingDataSource.readOnly(() -> delegate.findAllForLocale(locale));
+    }
+
+    @Override
+    public Page<I18nRegion> findAllForLocale(String locale, Integer afterKey, int limit) {
+        return ReadWriteRoutingDataSource.readOnly(() -> delegate.findAllForLocale(locale, afterKey, limit));
+    }
+
+    @Override
+    public Stream<I18nRegion> streamAllForLocale(String locale) {
+        return delegate.streamAllForLocale(locale);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consistent hash ring
+ *
+ * Each shard is placed on the ring at `virtualNodes` points and a key belongs to the first
+ * point at or after its own hash, wrapping around. Adding or removing a shard only moves
+ * the keys between it and its neighbours (about 1/N of them), and the virtual nodes keep
+ * the shards roughly the same size.
+ *
+ * The hash is a 64-bit FNV-1a over the UTF-8 bytes followed by the MurmurHash3 finalizer.
+ * It is stable across JVMs and releases, unlike `String.hashCode()` which has poor
+ * dispersion for short keys like locales. The ring is immutable.
+ *
+ * @param <T> shard type
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class ConsistentHashRing<T> {
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    /**
+     * A point on the ring
+     *
+     * @param hash  position
+     * @param name  shard name
+     * @param shard shard
+     * @param <S>   shard type
+     */
+    private record Point<S>(long hash, String name, S shard) {
+    }
+
+    private final long[] points;
+    private final List<T> owners;
+
+    /**
+     * Constructor
+     *
+     * @param shards shards, keyed by a name that is stable across restarts
+     */
+    public ConsistentHashRing(Map<String, T> shards) {
+        this(shards, DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param shards       shards, keyed by a name that is stable across restarts
+     * @param virtualNodes number of points per shard
+     */
+    public ConsistentHashRing(Map<String, T> shards, int virtualNodes) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("at least one shard is required");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+
+        final List<Point<T>> ring = new ArrayList<>(shards.size() * virtualNodes);
+        for (Map.Entry<String, T> entry : shards.entrySet()) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.add(new Point<>(hash(entry.getKey() + "#" + i), entry.getKey(), entry.getValue()));
+            }
+        }
+        // break (unlikely) ties by name so the order doesn't depend on the map
+        ring.sort(Comparator.<Point<T>>comparingLong(Point::hash).thenComparing(Point::name));
+
+        this.points = new long[ring.size()];
+        final List<T> owners = new ArrayList<>(ring.size());
+        for (int i = 0; i < ring.size(); i++) {
+            points[i] = ring.get(i).hash();
+            owners.add(ring.get(i).shard());
+        }
+        this.owners = owners;
+    }
+
+    /**
+     * Get the shard that owns a key
+     *
+     * @param key key
+     * @return shard
+     */
+    public T get(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners.get((index == points.length) ? 0 : index);
+    }
+
+    /**
+     * Stable 64-bit hash
+     *
+     * @param key key
+     * @return hash
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+
+        // MurmurHash3 fmix64
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.shard;
+
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import com.coyotesong.examples.repository.I18nRegionRepository;
+import com.coyotesong.examples.repository.Page;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * I18nRegionRepository that spreads the locales across several databases
+ *
+ * Each locale (`hl`) is owned by one shard, picked with a {@link ConsistentHashRing}, so
+ * the locale-based methods go to a single database. `findAll()`, `findByCodesAndLocales()`
+ * and the writes are split by shard and run in parallel on virtual threads.
+ *
+ * The generated keys are only unique within a shard. That's enough for keyset pagination
+ * since a locale never spans shards, but the keys can't be used to identify a region
+ * across shards.
+ *
+ * The shard repositories should each use their own connection pool. They are not closed
+ * by this class.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class ShardedI18nRegionRepository implements I18nRegionRepository, AutoCloseable {
+    public static final int DEFAULT_LOAD_CHUNK_SIZE = 10_000;
+
+    private final List<I18nRegionRepository> shards;
+    private final ConsistentHashRing<I18nRegionRepository> ring;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private int loadChunkSize = DEFAULT_LOAD_CHUNK_SIZE;
+
+    /**
+     * Constructor
+     *
+     * @param shards shard repositories, keyed by a name that is stable across restarts.
+     *               Changing a name moves its locales to other shards.
+     */
+    public ShardedI18nRegionRepository(Map<String, I18nRegionRepository> shards) {
+        this.shards = List.copyOf(shards.values());
+        this.ring = new ConsistentHashRing<>(shards);
+    }
+
+    /**
+     * Set the number of regions buffered per shard by `load()`
+     *
+     * @param loadChunkSize number of regions
+     */
+    public void setLoadChunkSize(int loadChunkSize) {
+        if (loadChunkSize < 1) {
+            throw new IllegalArgumentException("loadChunkSize must be positive");
+        }
+        this.loadChunkSize = loadChunkSize;
+    }
+
+    /**
+     * Get the shard that owns a locale
+     *
+     * @param locale locale
+     * @return shard repository
+     */
+    public I18nRegionRepository shardFor(String locale) {
+        return ring.get(locale);
+    }
+
+    @Override
+    public void delete() {
+        forEachShard(all(), (shard, ignored) -> shard.delete());
+    }
+
+    @Override
+    public void truncate() {
+        forEachShard(all(), (shard, ignored) -> shard.truncate());
+    }
+
+    @Override
+    public void insert(Collection<I18nRegion> regions) {
+        forEachShard(partition(regions, I18nRegion::getHl), I18nRegionRepository::insert);
+    }
+
+    @Override
+    public void bulkInsert(Collection<I18nRegion> regions) {
+        forEachShard(partition(regions, I18nRegion::getHl), I18nRegionRepository::bulkInsert);
+    }
+
+    @Override
+    public void upsert(Collection<I18nRegion> regions) {
+        forEachShard(partition(regions, I18nRegion::getHl), I18nRegionRepository::upsert);
+    }
+
+    /**
+     * Load regions
+     *
+     * The source is only read once. Regions are buffered per shard and each shard is
+     * loaded whenever its buffer is full, so memory use is bounded by the chunk size.
+     *
+     * @param regions regions to load
+     * @return number of regions loaded
+     */
+    @Override
+    public long load(Iterable<I18nRegion> regions) {
+        final Map<I18nRegionRepository, List<I18nRegion>> buffers = new IdentityHashMap<>();
+        long count = 0;
+        for (I18nRegion region : regions) {
+            final I18nRegionRepository shard = ring.get(region.getHl());
+            final List<I18nRegion> buffer = buffers.computeIfAbsent(shard, s -> new ArrayList<>());
+            buffer.add(region);
+            if (buffer.size() >= loadChunkSize) {
+                count += shard.load(buffer);
+                buffer.clear();
+            }
+        }
+
+        final Map<I18nRegionRepository, List<I18nRegion>> remaining = new IdentityHashMap<>();
+        buffers.forEach((shard, buffer) -> {
+            if (!buffer.isEmpty()) {
+                remaining.put(shard, buffer);
+            }
+        });
+        return count + fanOut(remaining, I18nRegionRepository::load).stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Find all regions
+     *
+     * The shards are queried in parallel. The results are grouped by shard, not sorted.
+     *
+     * @return regions
+     */
+    @Override
+    public List<I18nRegion> findAll() {
+        final List<I18nRegion> results = new ArrayList<>();
+        for (List<I18nRegion> regions : fanOut(all(), (shard, ignored) -> shard.findAll())) {
+            results.addAll(regions);
+        }
+        return results;
+    }
+
+    /**
+     * Stream all regions, one shard at a time
+     *
+     * Only one shard's cursor is open at a time.
+     *
+     * @return regions
+     */
+    @Override
+    public Stream<I18nRegion> streamAll() {
+        return shards.stream().flatMap(I18nRegionRepository::streamAll);
+    }
+
+    @Override
+    public I18nRegion findByCodeAndLocale(String code, String locale) {
+        return ring.get(locale).findByCodeAndLocale(code, locale);
+    }
+
+    @Override
+    public Map<CodeAndLocale, I18nRegion> findByCodesAndLocales(Collection<CodeAndLocale> keys) {
+        final Map<CodeAndLocale, I18nRegion> results = new HashMap<>();
+        for (Map<CodeAndLocale, I18nRegion> found : fanOut(partition(keys, CodeAndLocale::locale),
+                I18nRegionRepository::findByCodesAndLocales)) {
+            results.putAll(found);
+        }
+        return results;
+    }
+
+    @Override
+    public List<I18nRegion> findAllForLocale(String locale) {
+        return ring.get(locale).findAllForLocale(locale);
+    }
+
+    @Override
+    public Page<I18nRegion> findAllForLocale(String locale, Integer afterKey, int limit) {
+        return ring.get(locale).findAllForLocale(locale, afterKey, limit);
+    }
+
+    @Override
+    public Stream<I18nRegion> streamAllForLocale(String locale) {
+        return ring.get(locale).streamAllForLocale(locale);
+    }
+
+    /**
+     * Stop the fan-out executor
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    /**
+     * Group values by the shard that owns their locale
+     *
+     * @param values values
+     * @param locale function that extracts the locale
+     * @param <V>    value type
+     * @return values, grouped by shard
+     */
+    private <V> Map<I18nRegionRepository, List<V>> partition(Collection<V> values, Function<V, String> locale) {
+        final Map<I18nRegionRepository, List<V>> partitions = new IdentityHashMap<>();
+        for (V value : values) {
+            partitions.computeIfAbsent(ring.get(locale.apply(value)), shard -> new ArrayList<>()).add(value);
+        }
+        return partitions;
+    }
+
+    /**
+     * Get every shard, without an argument
+     *
+     * @return shards
+     */
+    private Map<I18nRegionRepository, Void> all() {
+        final Map<I18nRegionRepository, Void> all = new IdentityHashMap<>();
+        shards.forEach(shard -> all.put(shard, null));
+        return all;
+    }
+
+    /**
+     * Run an action on each shard in parallel
+     *
+     * @param work   shards and their arguments
+     * @param action action
+     * @param <A>    argument type
+     */
+    private <A> void forEachShard(Map<I18nRegionRepository, A> work, BiConsumer<I18nRegionRepository, A> action) {
+        fanOut(work, (shard, argument) -> {
+            action.accept(shard, argument);
+            return null;
+        });
+    }
+
+    /**
+     * Function of a shard and its argument
+     *
+     * @param <A> argument type
+     * @param <R> result type
+     */
+    @FunctionalInterface
+    private interface ShardFunction<A, R> {
+        R apply(I18nRegionRepository shard, A argument);
+    }
+
+    /**
+     * Run a function on each shard in parallel and wait for all of them
+     *
+     * If more than one shard fails the first failure is thrown and the others are
+     * added to it as suppressed exceptions.
+     *
+     * @param work     shards and their arguments
+     * @param function function
+     * @param <A>      argument type
+     * @param <R>      result type
+     * @return results
+     */
+    private <A, R> List<R> fanOut(Map<I18nRegionRepository, A> work, ShardFunction<A, R> function) {
+        if (work.size() == 1) {
+            final Map.Entry<I18nRegionRepository, A> entry = work.entrySet().iterator().next();
+            final List<R> results = new ArrayList<>(1);
+            results.add(function.apply(entry.getKey(), entry.getValue()));
+            return results;
+        }
+
+        final Map<I18nRegionRepository, CompletableFuture<R>> futures = new LinkedHashMap<>();
+        work.forEach((shard, argument) -> futures.put(shard,
+                CompletableFuture.supplyAsync(() -> function.apply(shard, argument), executor)));
+
+        final List<R> results = new ArrayList<>(futures.size());
+        RuntimeException failure = null;
+        for (CompletableFuture<R> future : futures.values()) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                final RuntimeException cause = (e.getCause() instanceof RuntimeException re) ? re : e;
+                if (failure == null) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.snapshot;
+
+import com.coyotesong.examples.repository.CodeAndLocale;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable point-in-time copy of an i18n table
+ *
+ * The values are indexed by `(code, hl)` and by `hl`. The per-locale lists are sorted
+ * once, when the snapshot is created, and are shared by all readers.
+ *
+ * Rows with a null `code` or `hl` can never match an SQL equality test so they are
+ * only visible via `getAll()`. If there are duplicate `(code, hl)` pairs the first one
+ * in sort order wins.
+ *
+ * The collections are immutable. The values are shared by all readers, so they should be
+ * immutable too, e.g., `ImmutableI18nLanguage`.
+ *
+ * @param <T> model type
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class I18nSnapshot<T> {
+    private final long version;
+    private final List<T> all;
+    private final Map<CodeAndLocale, T> byCodeAndLocale;
+    private final Map<String, List<T>> byLocale;
+
+    /**
+     * Constructor
+     *
+     * @param version snapshot version
+     * @param values  values
+     * @param code    function that extracts the code
+     * @param locale  function that extracts the locale (hl)
+     * @param order   sort order
+     */
+    public I18nSnapshot(long version, Collection<? extends T> values, Function<? super T, String> code,
+                        Function<? super T, String> locale, Comparator<? super T> order) {
+        final List<T> sorted = new ArrayList<>(values);
+        sorted.sort(order);
+
+        final Map<CodeAndLocale, T> index = new HashMap<>();
+        final Map<String, List<T>> groups = new HashMap<>();
+        for (T value : sorted) {
+            final String hl = locale.apply(value);
+            if (hl == null) {
+                continue;
+            }
+            final String c = code.apply(value);
+            if (c != null) {
+                index.putIfAbsent(new CodeAndLocale(c, hl), value);
+            }
+            groups.computeIfAbsent(hl, k -> new ArrayList<>()).add(value);
+        }
+
+        final Map<String, List<T>> frozen = new HashMap<>();
+        groups.forEach((hl, list) -> frozen.put(hl, List.copyOf(list)));
+
+        this.version = version;
+        this.all = List.copyOf(sorted);
+        this.byCodeAndLocale = Map.copyOf(index);
+        this.byLocale = Map.copyOf(frozen);
+    }
+
+    /**
+     * Get the snapshot version
+     *
+     * @return version, incremented each time a snapshot is replaced
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get all values
+     *
+     * @return immutable sorted list
+     */
+    public List<T> getAll() {
+        return all;
+    }
+
+    /**
+     * Get value by code and locale
+     *
+     * @param code   code
+     * @param locale locale (hl)
+     * @return matching value, or null if none
+     */
+    public T get(String code, String locale) {
+        if ((code == null) || (locale == null)) {
+            return null;
+        }
+        return byCodeAndLocale.get(new CodeAndLocale(code, locale));
+    }
+
+    /**
+     * Get values for many codes and locales
+     *
+     * @param keys keys
+     * @return matching values. Keys without a match are omitted.
+     */
+    public Map<CodeAndLocale, T> get(Collection<CodeAndLocale> keys) {
+        final Map<CodeAndLocale, T> results = new HashMap<>();
+        for (CodeAndLocale key : keys) {
+            final T value = (key == null) ? null : byCodeAndLocale.get(key);
+            if (value != null) {
+                results.put(key, value);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Get all values for a locale
+     *
+     * @param locale locale (hl)
+     * @return shared immutable sorted list, possibly empty
+     */
+    public List<T> getAllForLocale(String locale) {
+        if (locale == null) {
+            return List.of();
+        }
+        return byLocale.getOrDefault(locale, List.of());
+    }
+
+    /**
+     * Get the number of values
+     *
+     * @return number of values
+     */
+    public int size() {
+        return all.size();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.snapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresh snapshots at a fixed interval
+ *
+ * This is the fallback for databases that can't push change notifications. Changes
+ * made by other processes may be invisible for up to one interval.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class PollingRefresher implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(PollingRefresher.class);
+
+    private final List<Refreshable> targets;
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Constructor
+     *
+     * @param interval time between refreshes
+     * @param targets  objects to refresh
+     */
+    public PollingRefresher(Duration interval, Collection<? extends Refreshable> targets) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        this.targets = List.copyOf(targets);
+        this.executor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("i18n-snapshot-poller").daemon().factory());
+
+        final long millis = interval.toMillis();
+        executor.scheduleWithFixedDelay(this::refreshAll, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Refresh all targets. A failure is logged and does not cancel future refreshes.
+     */
+    void refreshAll() {
+        for (Refreshable target : targets) {
+            try {
+                target.refresh();
+            } catch (RuntimeException e) {
+                LOG.warn("snapshot refresh failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
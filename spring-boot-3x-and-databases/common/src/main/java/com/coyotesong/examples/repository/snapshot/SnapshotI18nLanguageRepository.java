@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.snapshot;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.model.ImmutableI18nLanguage;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import com.coyotesong.examples.repository.I18nLanguageRepository;
+import com.coyotesong.examples.repository.Page;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * I18nLanguageRepository that serves all reads from an immutable in-memory snapshot
+ *
+ * Reads are lock-free - they only dereference the current snapshot. Writes made through
+ * this object are sent to the underlying repository and then the snapshot is rebuilt.
+ * Writes made by other processes are picked up when `refresh()` is called, e.g., by a
+ * `PollingRefresher` or a database change notification.
+ *
+ * The snapshot holds {@link ImmutableI18nLanguage} values, so the returned lists and objects
+ * are shared without a copy and can't be modified.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class SnapshotI18nLanguageRepository implements I18nLanguageRepository, Refreshable {
+    private static final Comparator<I18nLanguage> ORDER =
+            Comparator.comparing(I18nLanguage::getHl, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+                    .thenComparing(I18nLanguage::getCode, Comparator.nullsLast(Comparator.<String>naturalOrder()));
+
+    private final I18nLanguageRepository delegate;
+    private volatile I18nSnapshot<I18nLanguage> snapshot;
+
+    /**
+     * Constructor. The initial snapshot is loaded immediately.
+     *
+     * @param delegate underlying repository
+     */
+    public SnapshotI18nLanguageRepository(I18nLanguageRepository delegate) {
+        this.delegate = delegate;
+        this.snapshot = load(1L);
+    }
+
+    /**
+     * Rebuild the snapshot and publish it atomically
+     *
+     * Concurrent refreshes are serialized so an older snapshot can't replace a newer one.
+     */
+    @Override
+    public synchronized void refresh() {
+        snapshot = load(snapshot.getVersion() + 1);
+    }
+
+    /**
+     * Get the current snapshot
+     *
+     * @return current snapshot
+     */
+    public I18nSnapshot<I18nLanguage> getSnapshot() {
+        return snapshot;
+    }
+
+    private I18nSnapshot<I18nLanguage> load(long version) {
+        final List<ImmutableI18nLanguage> values = delegate.findAll().stream().map(ImmutableI18nLanguage::of).toList();
+        return new I18nSnapshot<>(version, values, I18nLanguage::getCode, I18nLanguage::getHl, ORDER);
+    }
+
+    @Override
+    public void delete() {
+        delegate.delete();
+        refresh();
+    }
+
+    @Override
+    public void truncate() {
+        delegate.truncate();
+        refresh();
+    }
+
+    @Override
+    public void insert(I18nLanguage language) {
+        delegate.insert(language);
+        refresh();
+    }
+
+    @Override
+    public void insert(Collection<I18nLanguage> languages) {
+        delegate.insert(languages);
+        refresh();
+    }
+
+    @Override
+    public void bulkInsert(Collection<I18nLanguage> languages) {
+        delegate.bulkInsert(languages);
+        refresh();
+    }
+
+    @Override
+    public void upsert(Collection<I18nLanguage> languages) {
+        delegate.upsert(languages);
+        refresh();
+    }
+
+    @Override
+    public long load(Iterable<I18nLanguage> languages) {
+        final long count = delegate.load(languages);
+        refresh();
+        return count;
+    }
+
+    @Override
+    public List<I18nLanguage> findAll() {
+        return snapshot.getAll();
+    }
+
+    @Override
+    public Stream<I18nLanguage> streamAll() {
+        return snapshot.getAll().stream();
+    }
+
+    @Override
+    public I18nLanguage findByCodeAndLocale(String code, String locale) {
+        return snapshot.get(code, locale);
+    }
+
+    @Override
+    public Map<CodeAndLocale, I18nLanguage> findByCodesAndLocales(Collection<CodeAndLocale> keys) {
+        return snapshot.get(keys);
+    }
+
+    @Override
+    public List<I18nLanguage> findAllForLocale(String locale) {
+        return snapshot.getAllForLocale(locale);
+    }
+
+    @Override
+    public Page<I18nLanguage> findAllForLocale(String locale, Integer afterKey, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+
+        final List<I18nLanguage> rows = snapshot.getAllForLocale(locale).stream()
+                .filter(value -> (value.getKey() != null) && ((afterKey == null) || (value.getKey() > afterKey)))
+                .sorted(Comparator.comparing(I18nLanguage::getKey))
+                .limit(limit + 1L)
+                .toList();
+
+        return Page.of(rows, limit, I18nLanguage::getKey);
+    }
+
+    @Override
+    public Stream<I18nLanguage> streamAllForLocale(String locale) {
+        return snapshot.getAllForLocale(locale).stream();
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.snapshot;
+
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.model.ImmutableI18nRegion;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import com.coyotesong.examples.repository.I18nRegionRepository;
+import com.coyotesong.examples.repository.Page;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * I18nRegionRepository that serves all reads from an immutable in-memory snapshot
+ *
+ * Reads are lock-free - they only dereference the current snapshot. Writes made through
+ * this object are sent to the underlying repository and then the snapshot is rebuilt.
+ * Writes made by other processes are picked up when `refresh()` is called, e.g., by a
+ * `PollingRefresher` or a database change notification.
+ *
+ * The snapshot holds {@link ImmutableI18nRegion} values, so the returned lists and objects
+ * are shared without a copy and can't be modified.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class SnapshotI18nRegionRepository implements I18nRegionRepository, Refreshable {
+    private static final Comparator<I18nRegion> ORDER =
+            Comparator.comparing(I18nRegion::getHl, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+                    .thenComparing(I18nRegion::getCode, Comparator.nullsLast(Comparator.<String>naturalOrder()));
+
+    private final I18nRegionRepository delegate;
+    private volatile I18nSnapshot<I18nRegion> snapshot;
+
+    /**
+     * Constructor. The initial snapshot is loaded immediately.
+     *
+     * @param delegate underlying repository
+     */
+    public SnapshotI18nRegionRepository(I18nRegionRepository delegate) {
+        this.delegate = delegate;
+        this.snapshot = load(1L);
+    }
+
+    /**
+     * Rebuild the snapshot and publish it atomically
+     *
+     * Concurrent refreshes are serialized so an older snapshot can't replace a newer one.
+     */
+    @Override
+    public synchronized void refresh() {
+        snapshot = load(snapshot.getVersion() + 1);
+    }
+
+    /**
+     * Get the current snapshot
+     *
+     * @return current snapshot
+     */
+    public I18nSnapshot<I18nRegion> getSnapshot() {
+        return snapshot;
+    }
+
+    private I18nSnapshot<I18nRegion> load(long version) {
+        final List<ImmutableI18nRegion> values = delegate.findAll().stream().map(ImmutableI18nRegion::of).toList();
+        return new I18nSnapshot<>(version, values, I18nRegion::getCode, I18nRegion::getHl, ORDER);
+    }
+
+    @Override
+    public void delete() {
+        delegate.delete();
+        refresh();
+    }
+
+    @Override
+    public void truncate() {
+        delegate.truncate();
+        refresh();
+    }
+
+    @Override
+    public void insert(Collection<I18nRegion> regions) {
+        delegate.insert(regions);
+        refresh();
+    }
+
+    @Override
+    public void bulkInsert(Collection<I18nRegion> regions) {
+        delegate.bulkInsert(regions);
+        refresh();
+    }
+
+    @Override
+    public void upsert(Collection<I18nRegion> regions) {
+        delegate.upsert(regions);
+        refresh();
+    }
+
+    @Override
+    public long load(Iterable<I18nRegion> regions) {
+        final long count = delegate.load(regions);
+        refresh();
+        return count;
+    }
+
+    @Override
+    public List<I18nRegion> findAll() {
+        return snapshot.getAll();
+    }
+
+    @Override
+    public Stream<I18nRegion> streamAll() {
+        return snapshot.getAll().stream();
+    }
+
+    @Override
+    public I18nRegion findByCodeAndLocale(String code, String locale) {
+        return snapshot.get(code, locale);
+    }
+
+    @Override
+    public Map<CodeAndLocale, I18nRegion> findByCodesAndLocales(Collection<CodeAndLocale> keys) {
+        return snapshot.get(keys);
+    }
+
+    @Override
+    public List<I18nRegion> findAllForLocale(String locale) {
+        return snapshot.getAllForLocale(locale);
+    }
+
+    @Override
+    public Page<I18nRegion> findAllForLocale(String locale, Integer afterKey, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+
+        final List<I18nRegion> rows = snapshot.getAllForLocale(locale).stream()
+                .filter(value -> (value.getKey() != null) && ((afterKey == null) || (value.getKey() > afterKey)))
+                .sorted(Comparator.comparing(I18nRegion::getKey))
+                .limit(limit + 1L)
+                .toList();
+
+        return Page.of(rows, limit, I18nRegion::getKey);
+    }
+
+    @Override
+    public Stream<I18nRegion> streamAllForLocale(String locale) {
+        return snapshot.getAllForLocale(locale).stream();
+    }
+}
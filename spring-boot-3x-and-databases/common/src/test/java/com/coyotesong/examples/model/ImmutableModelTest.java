@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.model;
+
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static com.coyotesong.examples.model.TestModelFactory.newLanguage;
+import static com.coyotesong.examples.model.TestModelFactory.newRegion;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * ImmutableI18nLanguage and ImmutableI18nRegion tests
+ */
+public class ImmutableModelTest {
+
+    @Test
+    public void testHashIsUnchanged() {
+        final I18nLanguage language = newLanguage(1, "en", "en", "English");
+        final int expected = new HashCodeBuilder(17, 37).append("en").append("English").append("en").toHashCode();
+        assertEquals(expected, language.hashCode());
+
+        final I18nLanguage empty = new I18nLanguage();
+        assertEquals(new HashCodeBuilder(17, 37).append((Object) null).append((Object) null)
+                .append((Object) null).toHashCode(), empty.hashCode());
+    }
+
+    @Test
+    public void testLanguageRoundTrip() {
+        final I18nLanguage language = newLanguage(1, "en", "en", "English");
+        final ImmutableI18nLanguage value = ImmutableI18nLanguage.of(language);
+
+        assertEquals(language.hashCode(), value.hashCode());
+        assertEquals(Integer.valueOf(1), value.getKey());
+
+        final I18nLanguage copy = value.toI18nLanguage();
+        assertNotSame(language, copy);
+        assertEquals(language, copy);
+        assertEquals(language.getKey(), copy.getKey());
+    }
+
+    @Test
+    public void testLanguageEqualityIgnoresKey() {
+        final ImmutableI18nLanguage a = ImmutableI18nLanguage.of(newLanguage(1, "en", "en", "English"));
+        final ImmutableI18nLanguage b = ImmutableI18nLanguage.of(newLanguage(2, "en", "en", "English"));
+        final ImmutableI18nLanguage c = ImmutableI18nLanguage.of(newLanguage(1, "en", "en", "Anglais"));
+        final ImmutableI18nLanguage d = new ImmutableI18nLanguage(null, null, null, null);
+
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, c);
+        assertNotEquals(a, d);
+        assertEquals(d, new ImmutableI18nLanguage(3, null, null, null));
+        assertEquals(2, Set.of(a, c).size());
+    }
+
+    @Test
+    public void testLanguageCantBeModified() {
+        final I18nLanguage language = newLanguage(1, "en", "en", "English");
+        final ImmutableI18nLanguage value = ImmutableI18nLanguage.of(language);
+
+        assertThrows(UnsupportedOperationException.class, () -> value.setKey(2));
+        assertThrows(UnsupportedOperationException.class, () -> value.setCode("fr"));
+        assertThrows(UnsupportedOperationException.class, () -> value.setName("French"));
+        assertThrows(UnsupportedOperationException.class, () -> value.setHl("fr"));
+        assertEquals("English", value.getName());
+
+        // usable wherever a language is expected, and never copied twice
+        assertEquals(language, value);
+        assertEquals(value, language);
+        assertSame(value, ImmutableI18nLanguage.of(value));
+    }
+
+    @Test
+    public void testRegionRoundTrip() {
+        final I18nRegion region = newRegion(1, "US", "en", "United States");
+        final ImmutableI18nRegion value = ImmutableI18nRegion.of(region);
+
+        assertEquals(region.hashCode(), value.hashCode());
+        assertEquals(region, value.toI18nRegion());
+        assertEquals(value, ImmutableI18nRegion.of(newRegion(2, "US", "en", "United States")));
+        assertNotEquals(value, ImmutableI18nRegion.of(newRegion(1, "US", "fr", "United States")));
+    }
+
+    @Test
+    public void testRegionCantBeModified() {
+        final I18nRegion region = newRegion(1, "US", "en", "United States");
+        final ImmutableI18nRegion value = ImmutableI18nRegion.of(region);
+
+        assertThrows(UnsupportedOperationException.class, () -> value.setGl("FR"));
+        assertThrows(UnsupportedOperationException.class, () -> value.setName("France"));
+        assertEquals(region, value);
+        assertEquals(value, region);
+        assertSame(value, ImmutableI18nRegion.of(value));
+    }
+}
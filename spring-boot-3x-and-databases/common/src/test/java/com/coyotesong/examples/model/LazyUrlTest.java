@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.coyotesong.examples.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * LazyUrl tests
+ */
+public class LazyUrlTest {
+
+    @Test
+    public void testParsedOnFirstAccess() {
+        final LazyUrl url = LazyUrl.of("https://example.com/a");
+        assertFalse(url.isParsed());
+        assertEquals("https://example.com/a", url.toString());
+        assertFalse(url.isParsed());
+
+        final URL parsed = url.toURL();
+        assertTrue(url.isParsed());
+        assertSame(parsed, url.toURL());
+        assertEquals("https://example.com/a", parsed.toString());
+    }
+
+    @Test
+    public void testInvalidUrlFailsOnAccess() {
+        final LazyUrl url = LazyUrl.of("not a url");
+        assertEquals("not a url", url.toString());
+        assertThrows(IllegalArgumentException.class, url::toURL);
+        assertFalse(url.isParsed());
+    }
+
+    @Test
+    public void testCustomParser() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Function<String, URL> parser = spec -> {
+            calls.incrementAndGet();
+            return LazyUrl.parse(spec);
+        };
+
+        final LazyUrl url = LazyUrl.of("https://example.com/a", parser);
+        assertEquals(0, calls.get());
+        url.toURL();
+        url.toURL();
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testEqualityUsesString() throws Exception {
+        final URL parsed = URI.create("https://example.com/a").toURL();
+        final LazyUrl lazy = LazyUrl.of("https://example.com/a");
+
+        assertEquals(LazyUrl.of(parsed), lazy);
+        assertEquals(LazyUrl.of(parsed).hashCode(), lazy.hashCode());
+        assertFalse(lazy.isParsed());
+    }
+
+    @Test
+    public void testNull() {
+        assertNull(LazyUrl.of((String) null));
+        assertNull(LazyUrl.of((URL) null));
+    }
+}
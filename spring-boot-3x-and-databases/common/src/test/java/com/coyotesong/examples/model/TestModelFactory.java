@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.coyotesong.examples.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Model objects for the unit tests
+ */
+public final class TestModelFactory {
+
+    private TestModelFactory() {
+    }
+
+    public static I18nLanguage newLanguage(Integer key, String code, String hl, String name) {
+        final I18nLanguage language = new I18nLanguage();
+        language.setKey(key);
+        language.setCode(code);
+        language.setHl(hl);
+        language.setName(name);
+        return language;
+    }
+
+    /**
+     * Create a region. `gl` is the same as `code`.
+     */
+    public static I18nRegion newRegion(Integer key, String code, String hl, String name) {
+        final I18nRegion region = new I18nRegion();
+        region.setKey(key);
+        region.setCode(code);
+        region.setGl(code);
+        region.setHl(hl);
+        region.setName(name);
+        return region;
+    }
+
+    /**
+     * Create regions `R0`, `R1`, ... for each locale, with keys starting at 1
+     *
+     * @param locales   locales, in order
+     * @param perLocale number of regions per locale
+     * @return regions, grouped by locale
+     */
+    public static List<I18nRegion> regions(List<String> locales, int perLocale) {
+        final List<I18nRegion> regions = new ArrayList<>();
+        int key = 1;
+        for (String hl : locales) {
+            for (int i = 0; i < perLocale; i++) {
+                regions.add(newRegion(key++, "R" + i, hl, "Région " + i + " (" + hl + ")"));
+            }
+        }
+        return regions;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.coyotesong.examples.persistence.routing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.lang.reflect.Proxy;
+import java.net.ConnectException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ReadWriteRoutingDataSource tests
+ *
+ * These only cover the routing decisions. TestContainerReadWriteRouting covers real
+ * replication.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class ReadWriteRoutingDataSourceTest {
+
+    /**
+     * DataSource that returns the same placeholder connection, or throws
+     */
+    static class FakeDataSource extends AbstractDataSource {
+        final Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> null);
+        SQLException failure;
+        int requests;
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            requests++;
+            if (failure != null) {
+                throw failure;
+            }
+            return connection;
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+
+    private final FakeDataSource primary = new FakeDataSource();
+    private final FakeDataSource replicaPool = new FakeDataSource();
+    private final ReadWriteRoutingDataSource.Replica replica =
+            new ReadWriteRoutingDataSource.Replica("replica", replicaPool);
+    private final ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, List.of(replica));
+
+    private Connection readOnlyConnection() throws SQLException {
+        try {
+            return ReadWriteRoutingDataSource.readOnly(() -> {
+                try {
+                    return routing.getConnection();
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } catch (IllegalStateException e) {
+            throw (SQLException) e.getCause();
+        }
+    }
+
+    @Test
+    public void testWithoutTransactionUsesPrimary() throws SQLException {
+        assertSame(primary.connection, routing.getConnection());
+        assertEquals(0, replicaPool.requests);
+    }
+
+    @Test
+    public void testReadOnlyUsesReplica() throws SQLException {
+        assertSame(replicaPool.connection, readOnlyConnection());
+        assertEquals(1L, routing.getReplicaConnections());
+
+        // the marker is cleared afterwards
+        assertSame(primary.connection, routing.getConnection());
+    }
+
+    @Test
+    public void testPoolTimeoutIsNotEjected() throws SQLException {
+        replicaPool.failure = new SQLTransientConnectionException(
+                "replica - Connection is not available, request timed out after 30000ms.");
+
+        assertSame(primary.connection, readOnlyConnection());
+        assertFalse(replica.isEjected());
+        assertEquals(0, replica.getFailures());
+        assertEquals(1L, routing.getPoolTimeouts());
+        assertEquals(1L, routing.getPrimaryFallbacks());
+
+        // the replica is still in rotation once it has a free connection
+        replicaPool.failure = null;
+        assertSame(replicaPool.connection, readOnlyConnection());
+    }
+
+    @Test
+    public void testConnectionFailureIsEjected() throws SQLException {
+        replicaPool.failure = new SQLTransientConnectionException(
+                "replica - Connection is not available, request timed out after 30000ms.",
+                new SQLException("Connection refused", "08001", new ConnectException("Connection refused")));
+
+        assertSame(primary.connection, readOnlyConnection());
+        assertTrue(replica.isEjected());
+        assertEquals(1, replica.getFailures());
+        assertEquals(0L, routing.getPoolTimeouts());
+
+        // ejected replicas aren't tried again
+        assertSame(primary.connection, readOnlyConnection());
+        assertEquals(1, replicaPool.requests);
+    }
+}
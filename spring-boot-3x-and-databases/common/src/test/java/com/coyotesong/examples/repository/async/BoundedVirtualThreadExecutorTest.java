@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.async;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * BoundedVirtualThreadExecutor tests
+ */
+public class BoundedVirtualThreadExecutorTest {
+
+    @Test
+    public void testConcurrencyIsBounded() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        try (BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor(2)) {
+            final List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                final int value = i;
+                futures.add(executor.submit(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    return value;
+                }));
+            }
+
+            // wait until the remaining tasks are queued
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while ((executor.getQueueDepth() < 8) && (System.nanoTime() < deadline)) {
+                Thread.sleep(10);
+            }
+            assertEquals(8, executor.getMetrics().queueDepth());
+            assertEquals(2, executor.getMetrics().active());
+
+            release.countDown();
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+
+            assertEquals(2, maxRunning.get());
+            assertEquals(10L, executor.getMetrics().completed());
+            assertEquals(0, executor.getMetrics().queueDepth());
+            assertTrue(executor.getMetrics().maxWait().toNanos() > 0L);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.cache;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import com.coyotesong.examples.repository.I18nLanguageRepository;
+import com.coyotesong.examples.repository.Page;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CachingI18nLanguageRepository tests
+ */
+public class CachingI18nLanguageRepositoryTest {
+
+    /**
+     * In-memory repository that counts lookups
+     */
+    static class CountingRepository implements I18nLanguageRepository {
+        final List<I18nLanguage> languages = new ArrayList<>();
+        int lookups;
+        int batchLookups;
+        int localeLookups;
+
+        @Override
+        public void delete() {
+            languages.clear();
+        }
+
+        @Override
+        public void insert(I18nLanguage language) {
+            languages.add(language);
+        }
+
+        @Override
+        public void insert(Collection<I18nLanguage> languages) {
+            this.languages.addAll(languages);
+        }
+
+        @Override
+        public void bulkInsert(Collection<I18nLanguage> languages) {
+            this.languages.addAll(languages);
+        }
+
+        @Override
+        public void upsert(Collection<I18nLanguage> languages) {
+            for (I18nLanguage language : languages) {
+                this.languages.removeIf(existing -> Objects.equals(existing.getCode(), language.getCode())
+                        && Objects.equals(existing.getHl(), language.getHl()));
+                this.languages.add(language);
+            }
+        }
+
+        @Override
+        public long load(Iterable<I18nLanguage> languages) {
+            long count = 0;
+            for (I18nLanguage language : languages) {
+                this.languages.add(language);
+                count++;
+            }
+            return count;
+        }
+
+        @Override
+        public List<I18nLanguage> findAll() {
+            return List.copyOf(languages);
+        }
+
+        @Override
+        public Stream<I18nLanguage> streamAll() {
+            return findAll().stream();
+        }
+
+        @Override
+        public I18nLanguage findByCodeAndLocale(String code, String locale) {
+            lookups++;
+            return languages.stream()
+                    .filter(language -> Objects.equals(code, language.getCode()) && Objects.equals(locale, language.getHl()))
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        @Override
+        public Map<CodeAndLocale, I18nLanguage> findByCodesAndLocales(Collection<CodeAndLocale> keys) {
+            batchLookups++;
+            final Map<CodeAndLocale, I18nLanguage> results = new HashMap<>();
+            for (I18nLanguage language : languages) {
+                final CodeAndLocale key = new CodeAndLocale(language.getCode(), language.getHl());
+                if (keys.contains(key)) {
+                    results.put(key, language);
+                }
+            }
+            return results;
+        }
+
+        @Override
+        public List<I18nLanguage> findAllForLocale(String locale) {
+            localeLookups++;
+            return languages.stream().filter(language -> Objects.equals(locale, language.getHl())).toList();
+        }
+
+        @Override
+        public Page<I18nLanguage> findAllForLocale(String locale, Integer afterKey, int limit) {
+            return Page.of(findAllForLocale(locale), limit, I18nLanguage::getKey);
+        }
+
+        @Override
+        public Stream<I18nLanguage> streamAllForLocale(String locale) {
+            return findAllForLocale(locale).stream();
+        }
+    }
+
+    private CountingRepository delegate;
+    private CachingI18nLanguageRepository repository;
+
+    private static I18nLanguage newLanguage(String code, String hl, String name) {
+        final I18nLanguage language = new I18nLanguage();
+        language.setCode(code);
+        language.setHl(hl);
+        language.setName(name);
+        return language;
+    }
+
+    @BeforeEach
+    public void setup() {
+        delegate = new CountingRepository();
+        repository = new CachingI18nLanguageRepository(delegate, 100);
+        repository.insert(newLanguage("en", "en", "English"));
+    }
+
+    @Test
+    public void testWarmLookupDoesNotUseDelegate() {
+        final I18nLanguage first = repository.findByCodeAndLocale("en", "en");
+        final I18nLanguage second = repository.findByCodeAndLocale("en", "en");
+
+        assertSame(first, second);
+        assertEquals(1, delegate.lookups);
+        assertEquals(1L, repository.getStats().hitCount());
+        assertEquals(1L, repository.getStats().missCount());
+    }
+
+    @Test
+    public void testCachedValuesCantBeModified() {
+        final I18nLanguage value = repository.findByCodeAndLocale("en", "en");
+        final I18nLanguage element = repository.findAllForLocale("en").getFirst();
+        assertThrows(UnsupportedOperationException.class, () -> value.setName("Modified"));
+        assertThrows(UnsupportedOperationException.class, () -> element.setName("Modified"));
+
+        assertEquals("English", repository.findByCodeAndLocale("en", "en").getName());
+        assertEquals("English", repository.findAllForLocale("en").getFirst().getName());
+        assertEquals(1, delegate.lookups);
+        assertEquals(1, delegate.localeLookups);
+    }
+
+    @Test
+    public void testMissingValueIsNotCached() {
+        assertNull(repository.findByCodeAndLocale("es", "en"));
+        repository.insert(newLanguage("es", "en", "Spanish"));
+
+        assertEquals("Spanish", repository.findByCodeAndLocale("es", "en").getName());
+        assertEquals(2, delegate.lookups);
+    }
+
+    @Test
+    public void testDeleteInvalidatesCache() {
+        repository.findByCodeAndLocale("en", "en");
+        repository.delete();
+
+        assertNull(repository.findByCodeAndLocale("en", "en"));
+        assertEquals(2, delegate.lookups);
+    }
+
+    @Test
+    public void testInsertInvalidatesAffectedEntry() {
+        repository.insert(newLanguage("es", "es", "Español"));
+        repository.findByCodeAndLocale("en", "en");
+        repository.findByCodeAndLocale("es", "es");
+
+        delegate.delete();
+        repository.bulkInsert(List.of(newLanguage("en", "en", "English (US)")));
+
+        // replaced entry is reloaded, other entry is still cached
+        assertEquals("English (US)", repository.findByCodeAndLocale("en", "en").getName());
+        assertEquals("Español", repository.findByCodeAndLocale("es", "es").getName());
+        assertEquals(3, delegate.lookups);
+    }
+
+    @Test
+    public void testUpsertInvalidatesAffectedEntry() {
+        repository.findByCodeAndLocale("en", "en");
+        repository.upsert(List.of(newLanguage("en", "en", "English (US)")));
+
+        assertEquals("English (US)", repository.findByCodeAndLocale("en", "en").getName());
+        assertEquals(2, delegate.lookups);
+    }
+
+    @Test
+    public void testBatchLookupOnlyFetchesMissingEntries() {
+        repository.insert(newLanguage("es", "es", "Español"));
+        repository.findByCodeAndLocale("en", "en");
+
+        final Map<CodeAndLocale, I18nLanguage> actual = repository.findByCodesAndLocales(List.of(
+                new CodeAndLocale("en", "en"), new CodeAndLocale("es", "es"), new CodeAndLocale("fr", "fr")));
+
+        assertEquals(2, actual.size());
+        assertEquals("Español", actual.get(new CodeAndLocale("es", "es")).getName());
+        assertEquals(1, delegate.lookups);
+        assertEquals(1, delegate.batchLookups);
+        assertEquals(1L, repository.getStats().hitCount());
+    }
+
+    @Test
+    public void testLocaleListIsCachedAndImmutable() {
+        final List<I18nLanguage> first = repository.findAllForLocale("en");
+        final List<I18nLanguage> second = repository.findAllForLocale("en");
+
+        assertSame(first, second);
+        assertEquals(1, delegate.localeLookups);
+        assertThrows(UnsupportedOperationException.class, () -> first.add(newLanguage("es", "en", "Spanish")));
+
+        final LocaleListCache.Metrics metrics = repository.getLocaleMetrics();
+        assertEquals(0.5, metrics.hitRate());
+        assertTrue(metrics.retainedBytes() > 0L);
+    }
+
+    @Test
+    public void testWriteInvalidatesOnlyAffectedLocale() {
+        repository.insert(newLanguage("es", "es", "Español"));
+        repository.findAllForLocale("en");
+        repository.findAllForLocale("es");
+
+        repository.upsert(List.of(newLanguage("fr", "en", "French")));
+
+        assertEquals(2, repository.findAllForLocale("en").size());
+        assertEquals(1, repository.findAllForLocale("es").size());
+        assertEquals(3, delegate.localeLookups);
+    }
+
+    @Test
+    public void testInvalidateLocale() {
+        repository.findAllForLocale("en");
+        repository.findByCodeAndLocale("en", "en");
+
+        repository.invalidateLocale("en");
+
+        repository.findAllForLocale("en");
+        repository.findByCodeAndLocale("en", "en");
+        assertEquals(2, delegate.localeLookups);
+        assertEquals(2, delegate.lookups);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * LocaleListCache tests
+ */
+public class LocaleListCacheTest {
+
+    private static List<String> values(int count) {
+        final List<String> values = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            values.add("value " + i);
+        }
+        return values;
+    }
+
+    @Test
+    public void testRetainedBytesTracksEntries() {
+        final LocaleListCache<String> cache = new LocaleListCache<>(1_000_000L, RetainedSize::of);
+        cache.get("en", locale -> values(10));
+        cache.get("es", locale -> values(100));
+        cache.cleanUp();
+
+        final long expected = LocaleListCache.weigh("en", values(10), RetainedSize::of)
+                + LocaleListCache.weigh("es", values(100), RetainedSize::of);
+        assertEquals(expected, cache.getRetainedBytes());
+
+        cache.invalidate("es");
+        cache.cleanUp();
+        assertEquals(LocaleListCache.weigh("en", values(10), RetainedSize::of), cache.getRetainedBytes());
+    }
+
+    @Test
+    public void testEvictsToStayUnderLimit() {
+        final long limit = 20L * LocaleListCache.weigh("xx", values(100), RetainedSize::of);
+        final LocaleListCache<String> cache = new LocaleListCache<>(limit, RetainedSize::of);
+        for (int i = 0; i < 100; i++) {
+            cache.get("l" + i, locale -> values(100));
+        }
+        cache.cleanUp();
+
+        final LocaleListCache.Metrics metrics = cache.getMetrics();
+        assertTrue(metrics.retainedBytes() <= limit);
+        assertTrue(metrics.evictionCount() > 0L);
+        assertTrue(metrics.evictedBytes() > 0L);
+        assertEquals(100L, metrics.missCount());
+    }
+
+    @Test
+    public void testEstimateGrowsWithLength() {
+        assertTrue(RetainedSize.of("abcdefghijklmnop") > RetainedSize.of("a"));
+        // UTF-16 strings use two bytes per character
+        assertTrue(RetainedSize.of("中文中文中文中文") > RetainedSize.of("abcdefgh"));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * StringPool tests
+ */
+public class StringPoolTest {
+
+    @Test
+    public void testEqualStringsShareInstance() {
+        final StringPool pool = new StringPool(64, 16);
+        final String first = pool.canonicalize(new String("en-GB"));
+        final String second = pool.canonicalize(new String("en-GB"));
+
+        assertSame(first, second);
+        assertEquals(new StringPool.Metrics(1L, 1L), pool.getMetrics());
+    }
+
+    @Test
+    public void testLongStringsAndNullAreNotPooled() {
+        final StringPool pool = new StringPool(64, 4);
+        final String value = "English (United Kingdom)";
+
+        assertNotSame(pool.canonicalize(new String(value)), pool.canonicalize(new String(value)));
+        assertNull(pool.canonicalize(null));
+        assertEquals(new StringPool.Metrics(0L, 0L), pool.getMetrics());
+    }
+
+    @Test
+    public void testNoneDoesNotPool() {
+        final String value = new String("en");
+        assertSame(value, StringPool.NONE.canonicalize(value));
+        assertNotSame(value, StringPool.NONE.canonicalize(new String("en")));
+    }
+
+    @Test
+    public void testCollisionReplacesSlot() {
+        // single slot, so every new value evicts the previous one
+        final StringPool pool = new StringPool(1, 16);
+        final String en = pool.canonicalize(new String("en"));
+        pool.canonicalize("fr");
+
+        assertNotSame(en, pool.canonicalize(new String("en")));
+        assertEquals("en", pool.canonicalize(new String("en")));
+    }
+
+    @Test
+    public void testClear() {
+        final StringPool pool = new StringPool(64, 16);
+        final String en = pool.canonicalize(new String("en"));
+        pool.clear();
+
+        assertNotSame(en, pool.canonicalize(new String("en")));
+    }
+
+    @Test
+    public void testConcurrentCallersGetEqualValues() throws Exception {
+        final StringPool pool = new StringPool(256, 16);
+        final List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 1000; i++) {
+                final String value = "hl-" + (i % 10);
+                results.add(executor.submit(() -> pool.canonicalize(new String(value))));
+            }
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals("hl-" + (i % 10), results.get(i).get());
+        }
+        assertEquals(1000L, pool.getMetrics().hits() + pool.getMetrics().misses());
+    }
+
+    @Test
+    public void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new StringPool(0, 16));
+    }
+}
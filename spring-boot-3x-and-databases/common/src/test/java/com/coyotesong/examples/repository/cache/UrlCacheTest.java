@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.coyotesong.examples.repository.cache;
+
+import com.coyotesong.examples.model.LazyUrl;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * UrlCache tests
+ */
+public class UrlCacheTest {
+
+    @Test
+    public void testRepeatedUrlIsParsedOnce() {
+        final UrlCache cache = new UrlCache(64);
+        final URL first = cache.get(new String("https://example.com/a"));
+        final URL second = cache.get(new String("https://example.com/a"));
+
+        assertSame(first, second);
+        assertEquals("https://example.com/a", first.toString());
+        assertEquals(new UrlCache.Metrics(1L, 1L), cache.getMetrics());
+    }
+
+    @Test
+    public void testCollidingUrlReplacesSlot() {
+        final UrlCache cache = new UrlCache(1);
+        final URL a = cache.get("https://example.com/a");
+        cache.get("https://example.com/b");
+
+        assertNotSame(a, cache.get("https://example.com/a"));
+        assertEquals(new UrlCache.Metrics(0L, 3L), cache.getMetrics());
+    }
+
+    @Test
+    public void testClear() {
+        final UrlCache cache = new UrlCache(64);
+        final URL a = cache.get("https://example.com/a");
+        cache.clear();
+
+        assertNotSame(a, cache.get("https://example.com/a"));
+    }
+
+    @Test
+    public void testNullAndInvalidValues() {
+        final UrlCache cache = new UrlCache(64);
+
+        assertNull(cache.get(null));
+        assertThrows(IllegalArgumentException.class, () -> cache.get("not a url"));
+        assertThrows(IllegalArgumentException.class, () -> cache.get("relative/path"));
+        assertEquals(new UrlCache.Metrics(0L, 0L), cache.getMetrics());
+    }
+
+    @Test
+    public void testSharedByLazyUrls() {
+        final UrlCache cache = new UrlCache(64);
+        final URL first = LazyUrl.of("https://example.com/a", cache::get).toURL();
+        final URL second = LazyUrl.of("https://example.com/a", cache::get).toURL();
+
+        assertSame(first, second);
+        assertEquals(new UrlCache.Metrics(1L, 1L), cache.getMetrics());
+    }
+
+    @Test
+    public void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new UrlCache(0));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.compact;
+
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.model.TestModelFactory;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import com.coyotesong.examples.repository.Page;
+import com.coyotesong.examples.repository.cache.RetainedSize;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.coyotesong.examples.model.TestModelFactory.newRegion;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CompactI18nIndex and CompactI18nRegionRepository tests
+ */
+public class CompactI18nIndexTest {
+    private static final List<String> LOCALES = List.of("en", "en-GB", "es-419", "fr", "sr-Latn", "zh-TW");
+
+    private static List<I18nRegion> regions(int perLocale) {
+        return TestModelFactory.regions(LOCALES, perLocale);
+    }
+
+    @Test
+    public void testFindByCodeAndLocale() {
+        final List<I18nRegion> regions = regions(50);
+        final CompactI18nIndex index = CompactI18nIndex.ofRegions(regions);
+
+        assertEquals(regions.size(), index.size());
+        for (I18nRegion expected : regions) {
+            final int row = index.find(expected.getCode(), expected.getHl());
+            assertEquals(expected, index.region(row));
+            assertEquals(expected.getKey(), index.key(row));
+        }
+
+        assertEquals(CompactI18nIndex.NOT_FOUND, index.find("R0", "de"));
+        assertEquals(CompactI18nIndex.NOT_FOUND, index.find("XX", "en"));
+        assertEquals(CompactI18nIndex.NOT_FOUND, index.find(null, "en"));
+
+        // codes are shared - R0..R49 plus the locales
+        assertEquals(50 + LOCALES.size(), index.dictionarySize());
+    }
+
+    @Test
+    public void testLocaleRangesAreSortedByCode() {
+        final CompactI18nIndex index = CompactI18nIndex.ofRegions(List.of(
+                newRegion(1, "US", "en", "United States"),
+                newRegion(2, "FR", "fr", "France"),
+                newRegion(3, "DE", "en", "Germany")));
+
+        assertEquals(2, index.localeEnd("en") - index.localeStart("en"));
+        assertEquals("DE", index.code(index.localeStart("en")));
+        assertEquals(1, index.localeEnd("fr") - index.localeStart("fr"));
+        assertEquals(index.localeStart("xx"), index.localeEnd("xx"));
+        // "US" is a code but not a locale
+        assertEquals(index.localeStart("US"), index.localeEnd("US"));
+    }
+
+    @Test
+    public void testNullsAndDuplicates() {
+        final CompactI18nIndex index = CompactI18nIndex.ofRegions(List.of(
+                newRegion(null, "US", "en", null),
+                newRegion(2, "US", "en", "duplicate"),
+                newRegion(3, null, "en", "no code"),
+                newRegion(4, "FR", null, "no locale")));
+
+        assertEquals(4, index.size());
+        final int row = index.find("US", "en");
+        assertNull(index.key(row));
+        assertNull(index.name(row));
+        assertEquals(3, index.localeEnd("en") - index.localeStart("en"));
+        assertEquals(CompactI18nIndex.NOT_FOUND, index.find("FR", null));
+    }
+
+    @Test
+    public void testNamesAreUtf8() {
+        final CompactI18nIndex index = CompactI18nIndex.ofRegions(List.of(
+                newRegion(1, "TW", "zh-TW", "台灣"), newRegion(2, "RS", "sr-Latn", "Srbija")));
+
+        assertEquals("台灣", index.name(index.find("TW", "zh-TW")));
+        assertEquals("Srbija", index.name(index.find("RS", "sr-Latn")));
+    }
+
+    @Test
+    public void testRetainedBytesIsFractionOfObjects() {
+        final List<I18nRegion> regions = regions(200);
+        final CompactI18nIndex index = CompactI18nIndex.ofRegions(regions);
+
+        long objects = 0L;
+        for (I18nRegion region : regions) {
+            objects += RetainedSize.of(region);
+        }
+        assertTrue(index.getRetainedBytes() < objects / 2,
+                "compact " + index.getRetainedBytes() + " vs objects " + objects);
+    }
+
+    @Test
+    public void testRepositoryReads() {
+        final List<I18nRegion> regions = regions(5);
+        final CompactI18nRegionRepository repository = new CompactI18nRegionRepository(regions);
+
+        assertEquals(regions.size(), repository.findAll().size());
+        assertEquals(5, repository.findAllForLocale("fr").size());
+        assertEquals(regions.get(0), repository.findByCodeAndLocale("R0", "en"));
+        assertNull(repository.findByCodeAndLocale("R0", "de"));
+
+        final CodeAndLocale key = new CodeAndLocale("R1", "es-419");
+        final Map<CodeAndLocale, I18nRegion> actual =
+                repository.findByCodesAndLocales(List.of(key, new CodeAndLocale("R1", "de")));
+        assertEquals(Map.of(key, regions.get(11)), actual);
+
+        final Page<I18nRegion> first = repository.findAllForLocale("en", null, 3);
+        assertEquals(3, first.items().size());
+        assertTrue(first.hasNext());
+        final Page<I18nRegion> second = repository.findAllForLocale("en", first.nextKey(), 3);
+        assertEquals(2, second.items().size());
+        assertFalse(second.hasNext());
+
+        // results are copies
+        repository.findByCodeAndLocale("R0", "en").setName("changed");
+        assertEquals(regions.get(0).getName(), repository.findByCodeAndLocale("R0", "en").getName());
+    }
+
+    @Test
+    public void testRepositoryIsReadOnly() {
+        final CompactI18nRegionRepository repository = new CompactI18nRegionRepository(regions(1));
+
+        assertThrows(UnsupportedOperationException.class, repository::truncate);
+        assertThrows(UnsupportedOperationException.class, () -> repository.insert(regions(1)));
+        assertThrows(UnsupportedOperationException.class, () -> repository.upsert(regions(1)));
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.groupcommit;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import com.coyotesong.examples.repository.I18nLanguageRepository;
+import com.coyotesong.examples.repository.Page;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GroupCommitI18nLanguageRepository tests
+ */
+public class GroupCommitI18nLanguageRepositoryTest {
+
+    /**
+     * In-memory repository that records each multi-row insert
+     *
+     * Like the jOOQ repository, `bulkInsert()` sets the generated keys and `insert(Collection)`
+     * (a JDBC batch) does not. A batch containing the code `xx` is rejected, the way a
+     * constraint violation would be.
+     */
+    static class RecordingRepository implements I18nLanguageRepository {
+        final List<Integer> batches = new ArrayList<>();
+        final List<I18nLanguage> languages = new ArrayList<>();
+        int batchInserts;
+        int nextKey = 1;
+
+        @Override
+        public void delete() {
+            languages.clear();
+        }
+
+        @Override
+        public synchronized void insert(I18nLanguage language) {
+            language.setKey(nextKey++);
+            languages.add(language);
+        }
+
+        @Override
+        public synchronized void insert(Collection<I18nLanguage> languages) {
+            batchInserts++;
+            this.languages.addAll(languages);
+        }
+
+        @Override
+        public synchronized void bulkInsert(Collection<I18nLanguage> languages) {
+            batches.add(languages.size());
+            if (languages.stream().anyMatch(language -> "xx".equals(language.getCode()))) {
+                throw new IllegalArgumentException("invalid code");
+            }
+            for (I18nLanguage language : languages) {
+                language.setKey(nextKey++);
+                this.languages.add(language);
+            }
+        }
+
+        @Override
+        public long load(Iterable<I18nLanguage> languages) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void upsert(Collection<I18nLanguage> languages) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public synchronized List<I18nLanguage> findAll() {
+            return List.copyOf(languages);
+        }
+
+        @Override
+        public Stream<I18nLanguage> streamAll() {
+            return findAll().stream();
+        }
+
+        @Override
+        public I18nLanguage findByCodeAndLocale(String code, String locale) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<CodeAndLocale, I18nLanguage> findByCodesAndLocales(Collection<CodeAndLocale> keys) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<I18nLanguage> findAllForLocale(String locale) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Page<I18nLanguage> findAllForLocale(String locale, Integer afterKey, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Stream<I18nLanguage> streamAllForLocale(String locale) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private final RecordingRepository delegate = new RecordingRepository();
+    private GroupCommitI18nLanguageRepository repository;
+
+    private static I18nLanguage newLanguage(String code) {
+        final I18nLanguage language = new I18nLanguage();
+        language.setCode(code);
+        language.setHl("en");
+        language.setName(code);
+        return language;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (repository != null) {
+            repository.close();
+        }
+    }
+
+    /**
+     * Insert languages from concurrent callers
+     *
+     * @param languages languages to insert
+     * @return outcome of each call
+     */
+    private List<Future<?>> insertConcurrently(List<I18nLanguage> languages) throws InterruptedException {
+        final CountDownLatch ready = new CountDownLatch(languages.size());
+        final List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (I18nLanguage language : languages) {
+                results.add(executor.submit(() -> {
+                    ready.countDown();
+                    ready.await();
+                    repository.insert(language);
+                    return null;
+                }));
+            }
+        }
+        return results;
+    }
+
+    @Test
+    public void testSingleInsertSetsKey() {
+        repository = new GroupCommitI18nLanguageRepository(delegate, 10, Duration.ZERO);
+        final I18nLanguage language = newLanguage("en");
+
+        repository.insert(language);
+
+        assertNotNull(language.getKey());
+        assertEquals(List.of(1), delegate.batches);
+        assertEquals(1L, repository.getBatchSizes().snapshot().count());
+        assertEquals(1L, repository.getWaitMicros().snapshot().count());
+    }
+
+    @Test
+    public void testConcurrentInsertsAreCoalesced() throws Exception {
+        repository = new GroupCommitI18nLanguageRepository(delegate, 8, Duration.ofMillis(200));
+        final List<I18nLanguage> languages = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            languages.add(newLanguage("l" + i));
+        }
+
+        for (Future<?> result : insertConcurrently(languages)) {
+            result.get();
+        }
+
+        assertEquals(32, delegate.findAll().size());
+        languages.forEach(language -> assertNotNull(language.getKey()));
+        assertTrue(delegate.batches.size() < 32, "expected fewer statements than rows: " + delegate.batches);
+        assertTrue(delegate.batches.stream().allMatch(size -> size <= 8));
+        assertEquals(0, delegate.batchInserts);
+
+        final Log2Histogram.Snapshot batchSizes = repository.getBatchSizes().snapshot();
+        assertEquals(delegate.batches.size(), batchSizes.count());
+        assertEquals(32L, repository.getWaitMicros().snapshot().count());
+    }
+
+    @Test
+    public void testFailedRowOnlyFailsItsCaller() throws Exception {
+        repository = new GroupCommitI18nLanguageRepository(delegate, 4, Duration.ofMillis(200));
+        final List<I18nLanguage> languages = List.of(
+                newLanguage("aa"), newLanguage("bb"), newLanguage("xx"), newLanguage("cc"));
+
+        final List<Future<?>> results = insertConcurrently(languages);
+
+        int failures = 0;
+        for (Future<?> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalArgumentException);
+                failures++;
+            }
+        }
+        assertEquals(1, failures);
+        assertEquals(3, delegate.findAll().size());
+        delegate.findAll().forEach(language -> assertNotNull(language.getKey()));
+    }
+
+    @Test
+    public void testInterruptedFlusherWritesItsBatch() throws Exception {
+        repository = new GroupCommitI18nLanguageRepository(delegate, 10, Duration.ofSeconds(30));
+        final I18nLanguage language = newLanguage("en");
+
+        final CompletableFuture<Void> result = CompletableFuture.runAsync(() -> repository.insert(language));
+
+        // let the flusher take the row and start waiting for more
+        Thread.sleep(200L);
+        Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> "group-commit".equals(thread.getName()))
+                .forEach(Thread::interrupt);
+
+        result.get(5L, TimeUnit.SECONDS);
+
+        assertNotNull(language.getKey());
+        assertEquals(List.of(1), delegate.batches);
+    }
+
+    @Test
+    public void testInsertAfterCloseIsRejected() {
+        repository = new GroupCommitI18nLanguageRepository(delegate);
+        repository.close();
+
+        assertThrows(IllegalStateException.class, () -> repository.insert(newLanguage("en")));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new GroupCommitI18nLanguageRepository(delegate, 0, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                () -> new GroupCommitI18nLanguageRepository(delegate, 1, Duration.ofMillis(-1)));
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        final Log2Histogram histogram = new Log2Histogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(3);
+        }
+        histogram.record(1000);
+
+        final Log2Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100L, snapshot.count());
+        assertEquals(1000L, snapshot.max());
+        assertEquals(3L, snapshot.p50());
+        assertEquals(3L, snapshot.p99());
+        assertEquals(12.97, snapshot.mean(), 0.001);
+    }
+}
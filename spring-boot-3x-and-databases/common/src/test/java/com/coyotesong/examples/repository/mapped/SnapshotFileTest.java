@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.mapped;
+
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.model.TestModelFactory;
+import com.coyotesong.examples.repository.Page;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+
+import static com.coyotesong.examples.model.TestModelFactory.newLanguage;
+import static com.coyotesong.examples.model.TestModelFactory.newRegion;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * SnapshotFile, SnapshotFileWriter and the mapped repositories
+ */
+public class SnapshotFileTest {
+    private static final List<String> LOCALES = List.of("en", "en-GB", "es-419", "fr", "zh-TW");
+
+    @TempDir
+    Path dir;
+
+    // out of order, so the writer has to sort them
+    private static List<I18nRegion> regions(int perLocale) {
+        return TestModelFactory.regions(LOCALES, perLocale).reversed();
+    }
+
+    @Test
+    public void testPermissions() throws IOException {
+        assumeTrue(Files.getFileStore(dir).supportsFileAttributeView("posix"));
+        final Path path = dir.resolve("regions.i18n");
+
+        SnapshotFileWriter.writeRegions(path, 1L, regions(1));
+        assertEquals(SnapshotFileWriter.DEFAULT_PERMISSIONS, Files.getPosixFilePermissions(path));
+
+        // a replacement keeps the permissions of the file it replaces
+        Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-rw----"));
+        SnapshotFileWriter.writeRegions(path, 2L, regions(1));
+        assertEquals(PosixFilePermissions.fromString("rw-rw----"), Files.getPosixFilePermissions(path));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final Path path = dir.resolve("regions.i18n");
+        final List<I18nRegion> regions = regions(20);
+        SnapshotFileWriter.writeRegions(path, 7L, regions);
+
+        final SnapshotFile file = SnapshotFile.open(path);
+        assertTrue(file.isRegions());
+        assertEquals(7L, file.getVersion());
+        assertEquals(regions.size(), file.size());
+
+        for (I18nRegion expected : regions) {
+            final int row = file.find(expected.getCode(), expected.getHl());
+            assertEquals(expected, file.region(row));
+            assertEquals(expected.getKey(), file.key(row));
+        }
+        assertEquals(SnapshotFile.NOT_FOUND, file.find("R0", "de"));
+        assertEquals(SnapshotFile.NOT_FOUND, file.find("R99", "en"));
+        assertEquals(SnapshotFile.NOT_FOUND, file.find(null, "en"));
+
+        assertEquals(20, file.localeEnd("fr") - file.localeStart("fr"));
+        assertEquals(file.localeStart("de"), file.localeEnd("de"));
+    }
+
+    @Test
+    public void testNullsAndDuplicates() throws IOException {
+        final Path path = dir.resolve("languages.i18n");
+        SnapshotFileWriter.writeLanguages(path, 1L, List.of(
+                newLanguage(null, "en", "en", null),
+                newLanguage(3, null, "en", "no code"),
+                newLanguage(2, "en", "en", "duplicate"),
+                newLanguage(4, "fr", null, "no locale"),
+                newLanguage(5, "zh", "zh-TW", "中文")));
+
+        final SnapshotFile file = SnapshotFile.open(path);
+        assertTrue(file.isLanguages());
+        assertEquals(5, file.size());
+
+        final int row = file.find("en", "en");
+        assertNull(file.key(row));
+        assertNull(file.name(row));
+        assertEquals(3, file.localeEnd("en") - file.localeStart("en"));
+        assertEquals(SnapshotFile.NOT_FOUND, file.find("fr", null));
+        assertEquals("中文", file.name(file.find("zh", "zh-TW")));
+    }
+
+    @Test
+    public void testCorruptFileIsRejected() throws IOException {
+        final Path path = dir.resolve("regions.i18n");
+        SnapshotFileWriter.writeRegions(path, 1L, regions(2));
+
+        final byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(path, bytes);
+        assertThrows(IOException.class, () -> SnapshotFile.open(path));
+
+        Files.write(path, new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> SnapshotFile.open(path));
+    }
+
+    @Test
+    public void testRepositoryRefreshSwapsFile() throws IOException {
+        final Path path = dir.resolve("regions.i18n");
+        SnapshotFileWriter.writeRegions(path, 1L, regions(2));
+
+        final MappedI18nRegionRepository repository = new MappedI18nRegionRepository(path);
+        final SnapshotFile previous = repository.getFile();
+        assertEquals(2, repository.findAllForLocale("en").size());
+
+        SnapshotFileWriter.writeRegions(path, 2L, regions(3));
+        repository.refresh();
+
+        assertEquals(2L, repository.getFile().getVersion());
+        assertEquals(3, repository.findAllForLocale("en").size());
+
+        // the old mapping is still readable
+        assertEquals(2, previous.localeEnd("en") - previous.localeStart("en"));
+        assertEquals(1L, previous.getVersion());
+    }
+
+    @Test
+    public void testRepositoryReads() throws IOException {
+        final Path path = dir.resolve("regions.i18n");
+        final List<I18nRegion> regions = regions(5);
+        SnapshotFileWriter.writeRegions(path, 1L, regions);
+        final MappedI18nRegionRepository repository = new MappedI18nRegionRepository(path);
+
+        assertEquals(regions.size(), repository.findAll().size());
+        assertEquals(newRegion(null, "R0", "en", "Région 0 (en)"), repository.findByCodeAndLocale("R0", "en"));
+
+        final Page<I18nRegion> first = repository.findAllForLocale("en", null, 3);
+        assertEquals(3, first.items().size());
+        assertTrue(first.hasNext());
+        final Page<I18nRegion> second = repository.findAllForLocale("en", first.nextKey(), 3);
+        assertEquals(2, second.items().size());
+        assertFalse(second.hasNext());
+
+        assertThrows(UnsupportedOperationException.class, () -> repository.insert(regions));
+    }
+
+    @Test
+    public void testWrongKindIsRejected() throws IOException {
+        final Path path = dir.resolve("regions.i18n");
+        SnapshotFileWriter.writeRegions(path, 1L, regions(1));
+
+        assertThrows(IOException.class, () -> new MappedI18nLanguageRepository(path));
+    }
+}
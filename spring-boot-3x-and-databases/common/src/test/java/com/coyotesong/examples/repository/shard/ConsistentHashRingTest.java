@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ConsistentHashRing tests
+ */
+public class ConsistentHashRingTest {
+    private static final int KEYS = 30_000;
+
+    private static Map<String, String> shards(int count) {
+        final Map<String, String> shards = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            shards.put("shard-" + i, "shard-" + i);
+        }
+        return shards;
+    }
+
+    @Test
+    public void testKeysAreSpreadEvenly() {
+        final ConsistentHashRing<String> ring = new ConsistentHashRing<>(shards(3));
+        final Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.get("locale-" + i), 1, Integer::sum);
+        }
+
+        assertEquals(3, counts.size());
+        for (int count : counts.values()) {
+            // within 25% of a perfect split
+            assertTrue(Math.abs(count - KEYS / 3) < KEYS / 12, counts.toString());
+        }
+    }
+
+    @Test
+    public void testAddingShardOnlyMovesItsKeys() {
+        final ConsistentHashRing<String> before = new ConsistentHashRing<>(shards(3));
+        final ConsistentHashRing<String> after = new ConsistentHashRing<>(shards(4));
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            final String key = "locale-" + i;
+            if (!before.get(key).equals(after.get(key))) {
+                // keys only move to the new shard
+                assertEquals("shard-3", after.get(key));
+                moved++;
+            }
+        }
+
+        // about a quarter of the keys should move
+        assertTrue(moved > KEYS / 8 && moved < KEYS / 2, Integer.toString(moved));
+    }
+
+    @Test
+    public void testOrderOfShardsDoesNotMatter() {
+        final Map<String, String> reversed = new LinkedHashMap<>();
+        for (int i = 2; i >= 0; i--) {
+            reversed.put("shard-" + i, "shard-" + i);
+        }
+
+        final ConsistentHashRing<String> ring = new ConsistentHashRing<>(shards(3));
+        final ConsistentHashRing<String> other = new ConsistentHashRing<>(reversed);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(ring.get("locale-" + i), other.get("locale-" + i));
+        }
+    }
+
+    @Test
+    public void testEmptyRingIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing<>(Map.of()));
+    }
+}
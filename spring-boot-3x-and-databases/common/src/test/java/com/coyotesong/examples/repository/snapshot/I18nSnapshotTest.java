@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.snapshot;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * I18nSnapshot tests
+ */
+public class I18nSnapshotTest {
+    private static final Comparator<I18nLanguage> BY_CODE = Comparator.comparing(I18nLanguage::getCode);
+
+    private static I18nLanguage newLanguage(String code, String hl, String name) {
+        final I18nLanguage language = new I18nLanguage();
+        language.setCode(code);
+        language.setHl(hl);
+        language.setName(name);
+        return language;
+    }
+
+    private static I18nSnapshot<I18nLanguage> newSnapshot(List<I18nLanguage> languages) {
+        return new I18nSnapshot<>(1L, languages, I18nLanguage::getCode, I18nLanguage::getHl, BY_CODE);
+    }
+
+    @Test
+    public void testLookupByCodeAndLocale() {
+        final I18nLanguage en = newLanguage("en", "en", "English");
+        final I18nLanguage fr = newLanguage("fr", "en", "French");
+        final I18nSnapshot<I18nLanguage> snapshot = newSnapshot(List.of(fr, en));
+
+        assertSame(en, snapshot.get("en", "en"));
+        assertSame(fr, snapshot.get("fr", "en"));
+        assertNull(snapshot.get("en", "fr"));
+        assertNull(snapshot.get(null, "en"));
+    }
+
+    @Test
+    public void testLocaleListIsSortedAndShared() {
+        final I18nLanguage en = newLanguage("en", "en", "English");
+        final I18nLanguage fr = newLanguage("fr", "en", "French");
+        final I18nLanguage de = newLanguage("de", "fr", "Allemand");
+        final I18nSnapshot<I18nLanguage> snapshot = newSnapshot(List.of(fr, de, en));
+
+        final List<I18nLanguage> actual = snapshot.getAllForLocale("en");
+        assertEquals(List.of(en, fr), actual);
+        assertSame(actual, snapshot.getAllForLocale("en"));
+        assertThrows(UnsupportedOperationException.class, () -> actual.add(de));
+    }
+
+    @Test
+    public void testUnknownLocaleIsEmpty() {
+        final I18nSnapshot<I18nLanguage> snapshot = newSnapshot(List.of(newLanguage("en", "en", "English")));
+
+        assertTrue(snapshot.getAllForLocale("xx").isEmpty());
+        assertTrue(snapshot.getAllForLocale(null).isEmpty());
+    }
+
+    @Test
+    public void testNullLocaleIsOnlyInGetAll() {
+        final I18nSnapshot<I18nLanguage> snapshot = newSnapshot(List.of(newLanguage("en", null, "English")));
+
+        assertEquals(1, snapshot.size());
+        assertNull(snapshot.get("en", null));
+    }
+}
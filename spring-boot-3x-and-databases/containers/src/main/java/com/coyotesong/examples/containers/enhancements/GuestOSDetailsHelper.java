@@ -142,6 +142,36 @@ public class GuestOSDetailsHelper<SELF extends JdbcDatabaseContainer<SELF>> {
         return guestOSDetails;
     }
 
+    /**
+     * Get the number of CPUs available to the database server
+     *
+     * This is the `nproc` count inside the container, so it honours a cpuset limit but
+     * not a CPU quota.
+     *
+     * @return number of CPUs, or 0 if it could not be determined
+     */
+    public int getCpuCount() {
+        if (!container.isRunning()) {
+            return 0;
+        }
+
+        for (String[] command : new String[][]{{"nproc"}, {"getconf", "_NPROCESSORS_ONLN"}}) {
+            try {
+                final Container.ExecResult r = container.execInContainer(command);
+                if (r.getExitCode() == 0) {
+                    return Integer.parseInt(r.getStdout().trim());
+                }
+            } catch (IOException | NumberFormatException e) {
+                // try the next command
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 0;
+            }
+        }
+
+        return 0;
+    }
+
     /**
      * Write Guest OS and Connection details to log
      *
@@ -173,6 +203,7 @@ public class GuestOSDetailsHelper<SELF extends JdbcDatabaseContainer<SELF>> {
                 }
 
                 box.addData("server", details.databaseProductName() + " " + details.databaseProductVersion());
+                box.addData("server cpus", Integer.toString(getCpuCount()));
                 box.addData("driver", details.driverName() + " " + details.driverVersion());
             } else {
                 box.addData("guest OS", "n/a");
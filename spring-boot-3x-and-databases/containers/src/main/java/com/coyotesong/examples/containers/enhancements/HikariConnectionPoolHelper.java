@@ -115,9 +115,9 @@ public class HikariConnectionPoolHelper implements MetricsTrackerFactory, AutoCl
         // Do we already have a matching entry?
         // IMPORTANT: we might need to soften this when we add more advanced authentication mechanisms!
         for (HikariDataSource ds : hikariDataSources.values()) {
-            // reminder: username or password may be null!
-            if (ds.getDriverClassName().equals(config.getDriverClassName()) &&
-                    ds.getJdbcUrl().equals(config.getJdbcUrl()) &&
+            // reminder: driver class, username or password may be null!
+            if (Objects.equals(ds.getDriverClassName(), config.getDriverClassName()) &&
+                    Objects.equals(ds.getJdbcUrl(), config.getJdbcUrl()) &&
                     Objects.equals(ds.getUsername(), config.getUsername()) &&
                     Objects.equals(ds.getPassword(), config.getPassword())) {
 
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq.r2dbc;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.persistence.jooq.DialectSupport;
+import com.coyotesong.examples.persistence.jooq.I18nLanguageQueries;
+import com.coyotesong.examples.persistence.jooq.LookupKeys;
+import com.coyotesong.examples.persistence.jooq.TruncateStatements;
+import com.coyotesong.examples.persistence.jooq.generated.tables.records.I18nLanguageRecord;
+import com.coyotesong.examples.persistence.jooq.mapping.I18nLanguageRecordMapper;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import com.coyotesong.examples.repository.Page;
+import com.coyotesong.examples.repository.reactive.ReactiveI18nLanguageRepository;
+import org.jooq.Configuration;
+import org.jooq.DSLContext;
+import org.jooq.InsertValuesStep3;
+import org.jooq.ResultQuery;
+import org.jooq.SelectSeekStep1;
+import org.jooq.impl.DSL;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static com.coyotesong.examples.persistence.jooq.generated.tables.I18nLanguage.I18N_LANGUAGE;
+
+/**
+ * Reactive implementation of I18nLanguageRepository using jOOQ's R2DBC support
+ *
+ * The jOOQ configuration must use an R2DBC `ConnectionFactory`, normally a pool created
+ * by {@link R2dbcConnectionPools}. The statements are shared with the JDBC implementation
+ * and are subscribed to directly, so no thread is blocked while waiting for the database.
+ */
+@Repository
+@SuppressWarnings("JavadocBlankLines")
+public class I18nLanguageRepositoryR2dbc implements ReactiveI18nLanguageRepository {
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private final DSLContext ctx;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+
+    @Autowired
+    public I18nLanguageRepositoryR2dbc(Configuration configuration) {
+        this.ctx = DSL.using(configuration);
+    }
+
+    /**
+     * Set the number of rows sent in each multi-row INSERT
+     *
+     * @param batchSize maximum number of rows per statement
+     */
+    @Value("${jooq.bulk-insert.batch-size:" + DEFAULT_BATCH_SIZE + "}")
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Set the number of rows requested from the server at a time
+     *
+     * @param fetchSize number of rows fetched per round trip
+     */
+    @Value("${jooq.fetch-size:" + DEFAULT_FETCH_SIZE + "}")
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("fetchSize must be positive");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public Mono<Void> delete() {
+        return Mono.from(ctx.deleteFrom(I18N_LANGUAGE)).then();
+    }
+
+    /**
+     * Remove all languages with `TRUNCATE`
+     *
+     * Unlike `delete()` this doesn't touch individual rows, so the cost doesn't grow with
+     * the size of the table. PostgreSQL-family servers also restart the key sequence.
+     * See {@link TruncateStatements} for the other dialects.
+     */
+    @Override
+    public Mono<Void> truncate() {
+        final boolean db2 = DialectSupport.isDb2(ctx.configuration().connectionFactory().getMetadata().getName());
+        return Mono.from(TruncateStatements.truncate(ctx, I18N_LANGUAGE, db2)).then();
+    }
+
+    /**
+     * Insert a single language
+     *
+     * @param language language to insert
+     * @return the language, with its generated key if the dialect can return it
+     */
+    @Override
+    public Mono<I18nLanguage> insert(I18nLanguage language) {
+        final List<I18nLanguage> chunk = List.of(language);
+        final boolean returning = DialectSupport.supportsInsertReturning(ctx.dialect());
+        return insertChunk(chunk, returning).thenReturn(language);
+    }
+
+    /**
+     * Insert languages using multi-row `INSERT ... VALUES` statements
+     *
+     * The languages are sent in chunks of at most `batchSize` rows, and only one chunk is
+     * requested from the source at a time. On dialects that support `INSERT ... RETURNING`
+     * the generated keys are set on the objects.
+     *
+     * @param languages languages to insert
+     * @return number of rows inserted
+     */
+    @Override
+    public Mono<Long> insert(Publisher<I18nLanguage> languages) {
+        final boolean returning = DialectSupport.supportsInsertReturning(ctx.dialect());
+        return Flux.from(languages)
+                .buffer(batchSize)
+                .concatMap(chunk -> insertChunk(chunk, returning), 1)
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * Insert a single chunk of languages in one statement
+     *
+     * @param chunk     languages to insert
+     * @param returning true if generated keys should be returned
+     * @return number of rows inserted
+     */
+    private Mono<Long> insertChunk(List<I18nLanguage> chunk, boolean returning) {
+        final InsertValuesStep3<I18nLanguageRecord, String, String, String> insert =
+                I18nLanguageQueries.insert(ctx, chunk);
+        if (returning) {
+            return Flux.from(insert.returningResult(I18N_LANGUAGE.KEY))
+                    .index()
+                    .doOnNext(key -> chunk.get(key.getT1().intValue()).setKey(key.getT2().value1()))
+                    .count();
+        }
+        return Mono.from(insert).map(Integer::longValue);
+    }
+
+    /**
+     * Insert or update languages, keyed on `(code, hl)`
+     *
+     * @param languages languages to insert or update
+     * @return number of languages processed
+     */
+    @Override
+    public Mono<Long> upsert(Publisher<I18nLanguage> languages) {
+        return Flux.from(languages)
+                .buffer(batchSize)
+                .concatMap(chunk -> Mono.from(I18nLanguageQueries.upsert(ctx, chunk))
+                        .thenReturn((long) chunk.size()), 1)
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * Find all languages
+     *
+     * Demand is propagated to the server so a slow subscriber does not cause the
+     * results to be buffered in memory.
+     *
+     * @return languages
+     */
+    @Override
+    public Flux<I18nLanguage> findAll() {
+        return Flux.from(ctx.selectFrom(I18N_LANGUAGE).fetchSize(fetchSize))
+                .limitRate(fetchSize)
+                .map(I18nLanguageRecordMapper.INSTANCE::map);
+    }
+
+    @Override
+    public Mono<I18nLanguage> findByCodeAndLocale(String code, String locale) {
+        return Mono.from(ctx.selectFrom(I18N_LANGUAGE)
+                        .where(I18N_LANGUAGE.CODE.eq(code).and(I18N_LANGUAGE.HL.eq(locale))))
+                .map(I18nLanguageRecordMapper.INSTANCE::map);
+    }
+
+    /**
+     * Find languages for many `(code, hl)` pairs
+     *
+     * Each chunk of up to `LookupKeys.MAX_LOOKUP_KEYS` keys is a single round trip.
+     *
+     * @param keys keys
+     * @return matching languages, keyed by `(code, hl)`. Keys without a match are omitted.
+     */
+    @Override
+    public Mono<Map<CodeAndLocale, I18nLanguage>> findByCodesAndLocales(Collection<CodeAndLocale> keys) {
+        return Flux.fromIterable(LookupKeys.partition(keys))
+                .concatMap(chunk -> Flux.from(I18nLanguageQueries.findByCodesAndLocales(ctx, chunk)), 1)
+                .map(I18nLanguageRecordMapper.INSTANCE::map)
+                .collectMap(value -> new CodeAndLocale(value.getCode(), value.getHl()));
+    }
+
+    @Override
+    public Flux<I18nLanguage> findAllForLocale(String locale) {
+        return Flux.from(ctx.selectFrom(I18N_LANGUAGE).where(I18N_LANGUAGE.HL.eq(locale)).fetchSize(fetchSize))
+                .limitRate(fetchSize)
+                .map(I18nLanguageRecordMapper.INSTANCE::map);
+    }
+
+    /**
+     * Find one page of languages for a locale, in key order
+     *
+     * @param locale   locale
+     * @param afterKey continuation token from the previous page, or null for the first page
+     * @param limit    maximum number of languages
+     * @return page
+     */
+    @Override
+    public Mono<Page<I18nLanguage>> findAllForLocale(String locale, Integer afterKey, int limit) {
+        if (limit < 1) {
+            return Mono.error(new IllegalArgumentException("limit must be positive"));
+        }
+
+        final SelectSeekStep1<I18nLanguageRecord, Integer> ordered = ctx.selectFrom(I18N_LANGUAGE)
+                .where(I18N_LANGUAGE.HL.eq(locale))
+                .orderBy(I18N_LANGUAGE.KEY);
+
+        // fetch one extra row to learn whether there is another page
+        final ResultQuery<I18nLanguageRecord> query = (afterKey == null)
+                ? ordered.limit(limit + 1)
+                : ordered.seek(afterKey).limit(limit + 1);
+
+        return Flux.from(query)
+                .map(I18nLanguageRecordMapper.INSTANCE::map)
+                .collectList()
+                .map(rows -> Page.of(rows, limit, I18nLanguage::getKey));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq.r2dbc;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.jooq.Configuration;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DefaultConfiguration;
+
+import java.time.Duration;
+
+/**
+ * Helpers for R2DBC connection pools
+ *
+ * The pool is the reactive counterpart of the Hikari pool used by the JDBC
+ * implementations. It must be disposed when it is no longer needed.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class R2dbcConnectionPools {
+    public static final int DEFAULT_MAX_SIZE = 10;
+    public static final Duration DEFAULT_MAX_IDLE_TIME = Duration.ofMinutes(10);
+
+    private R2dbcConnectionPools() {
+    }
+
+    /**
+     * Create a connection pool
+     *
+     * @param options connection options
+     * @param maxSize maximum number of connections
+     * @return connection pool
+     */
+    public static ConnectionPool create(ConnectionFactoryOptions options, int maxSize) {
+        final ConnectionPoolConfiguration configuration =
+                ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                        .initialSize(Math.min(2, maxSize))
+                        .maxSize(maxSize)
+                        .maxIdleTime(DEFAULT_MAX_IDLE_TIME)
+                        .build();
+        return new ConnectionPool(configuration);
+    }
+
+    /**
+     * Convert JDBC connection details into R2DBC connection options
+     *
+     * The driver-specific JDBC query parameters are dropped.
+     *
+     * @param jdbcUrl  JDBC URL, e.g., `jdbc:postgresql://localhost:5432/test`
+     * @param username username
+     * @param password password
+     * @return R2DBC connection options
+     */
+    public static ConnectionFactoryOptions fromJdbcUrl(String jdbcUrl, String username, String password) {
+        if (!jdbcUrl.startsWith("jdbc:")) {
+            throw new IllegalArgumentException("not a JDBC URL: " + jdbcUrl);
+        }
+
+        final int idx = jdbcUrl.indexOf('?');
+        final String url = "r2dbc:" + ((idx < 0) ? jdbcUrl.substring(5) : jdbcUrl.substring(5, idx));
+        return ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+    }
+
+    /**
+     * Create a jOOQ configuration that executes statements via R2DBC
+     *
+     * @param connectionFactory connection factory (normally a pool)
+     * @param dialect           jOOQ SQLDialect
+     * @return jOOQ configuration
+     */
+    public static Configuration configuration(ConnectionFactory connectionFactory, SQLDialect dialect) {
+        final DefaultConfiguration configuration = new DefaultConfiguration();
+        configuration.set(connectionFactory);
+        configuration.set(dialect);
+        return configuration;
+    }
+}
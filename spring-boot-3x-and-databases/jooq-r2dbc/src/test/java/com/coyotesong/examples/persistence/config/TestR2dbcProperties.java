@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.config;
+
+import com.coyotesong.examples.persistence.jooq.r2dbc.BlockingI18nLanguageRepository;
+import com.coyotesong.examples.persistence.jooq.r2dbc.BlockingI18nRegionRepository;
+import com.coyotesong.examples.persistence.jooq.r2dbc.I18nLanguageRepositoryR2dbc;
+import com.coyotesong.examples.persistence.jooq.r2dbc.I18nRegionRepositoryR2dbc;
+import com.coyotesong.examples.persistence.jooq.r2dbc.R2dbcConnectionPools;
+import com.coyotesong.examples.repository.I18nLanguageRepository;
+import com.coyotesong.examples.repository.I18nRegionRepository;
+import com.coyotesong.examples.repository.reactive.ReactiveI18nLanguageRepository;
+import com.coyotesong.examples.repository.reactive.ReactiveI18nRegionRepository;
+import io.r2dbc.pool.ConnectionPool;
+import org.jooq.SQLDialect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Configure R2DBC-related properties
+ *
+ * The R2DBC connection options are derived from the JDBC connection details provided
+ * by the test container. The blocking adapters allow the shared tests to be reused.
+ */
+@Configuration
+@Import({
+        I18nLanguageRepositoryR2dbc.class,
+        I18nRegionRepositoryR2dbc.class
+})
+@Profile("jooq-r2dbc")
+@SuppressWarnings("JavadocBlankLines")
+public class TestR2dbcProperties {
+
+    /**
+     * Get jOOQ SQLDialect based on connection info
+     *
+     * @param connectionDetails connection info
+     * @return jOOQ SQLDialect
+     */
+    @Bean
+    public SQLDialect dialect(@Autowired JdbcConnectionDetails connectionDetails) {
+        final String url = connectionDetails.getJdbcUrl();
+        if (url.startsWith("jdbc:postgresql:")) {
+            return SQLDialect.POSTGRES;
+        } else if (url.startsWith("jdbc:mariadb:")) {
+            return SQLDialect.MARIADB;
+        } else if (url.startsWith("jdbc:mysql:")) {
+            return SQLDialect.MYSQL;
+        }
+
+        // catchall
+        return SQLDialect.DEFAULT;
+    }
+
+    /**
+     * R2DBC connection pool
+     *
+     * @param connectionDetails connection info
+     * @return connection pool
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionPool(@Autowired JdbcConnectionDetails connectionDetails) {
+        return R2dbcConnectionPools.create(
+                R2dbcConnectionPools.fromJdbcUrl(connectionDetails.getJdbcUrl(),
+                        connectionDetails.getUsername(), connectionDetails.getPassword()),
+                R2dbcConnectionPools.DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * jOOQ configuration
+     *
+     * @param connectionPool R2DBC connection pool
+     * @param dialect        jOOQ SQLDialect
+     * @return jOOQ configuration
+     */
+    @Bean
+    public org.jooq.Configuration jooqConfiguration(@Autowired ConnectionPool connectionPool, @Autowired SQLDialect dialect) {
+        return R2dbcConnectionPools.configuration(connectionPool, dialect);
+    }
+
+    /**
+     * Blocking adapter for the reactive language repository
+     *
+     * @param repository reactive repository
+     * @return blocking repository
+     */
+    @Bean
+    public I18nLanguageRepository languageRepository(@Autowired ReactiveI18nLanguageRepository repository) {
+        return new BlockingI18nLanguageRepository(repository);
+    }
+
+    /**
+     * Blocking adapter for the reactive region repository
+     *
+     * @param repository reactive repository
+     * @return blocking repository
+     */
+    @Bean
+    public I18nRegionRepository regionRepository(@Autowired ReactiveI18nRegionRepository repository) {
+        return new BlockingI18nRegionRepository(repository);
+    }
+}
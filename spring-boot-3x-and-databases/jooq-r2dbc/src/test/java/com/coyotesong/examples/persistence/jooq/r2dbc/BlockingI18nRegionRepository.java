@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq.r2dbc;
+
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import com.coyotesong.examples.repository.I18nRegionRepository;
+import com.coyotesong.examples.repository.Page;
+import com.coyotesong.examples.repository.reactive.ReactiveI18nRegionRepository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Blocking adapter that lets the shared I18nRegionRepository tests run against the
+ * reactive implementation
+ *
+ * This is only intended for tests. Production code should subscribe to the reactive
+ * repository directly.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class BlockingI18nRegionRepository implements I18nRegionRepository {
+    private final ReactiveI18nRegionRepository repository;
+
+    public BlockingI18nRegionRepository(ReactiveI18nRegionRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void delete() {
+        repository.delete().block();
+    }
+
+    @Override
+    public void truncate() {
+        repository.truncate().block();
+    }
+
+    @Override
+    public void insert(Collection<I18nRegion> regions) {
+        repository.insert(Flux.fromIterable(regions)).block();
+    }
+
+    @Override
+    public void bulkInsert(Collection<I18nRegion> regions) {
+        repository.insert(Flux.fromIterable(regions)).block();
+    }
+
+    @Override
+    public long load(Iterable<I18nRegion> regions) {
+        return Objects.requireNonNullElse(repository.insert(Flux.fromIterable(regions)).block(), 0L);
+    }
+
+    @Override
+    public void upsert(Collection<I18nRegion> regions) {
+        repository.upsert(Flux.fromIterable(regions)).block();
+    }
+
+    @Override
+    public List<I18nRegion> findAll() {
+        return repository.findAll().collectList().block();
+    }
+
+    @Override
+    public Stream<I18nRegion> streamAll() {
+        return repository.findAll().toStream();
+    }
+
+    @Override
+    public I18nRegion findByCodeAndLocale(String code, String locale) {
+        return repository.findByCodeAndLocale(code, locale).block();
+    }
+
+    @Override
+    public Map<CodeAndLocale, I18nRegion> findByCodesAndLocales(Collection<CodeAndLocale> keys) {
+        return repository.findByCodesAndLocales(keys).block();
+    }
+
+    @Override
+    public List<I18nRegion> findAllForLocale(String locale) {
+        return repository.findAllForLocale(locale).collectList().block();
+    }
+
+    @Override
+    public Page<I18nRegion> findAllForLocale(String locale, Integer afterKey, int limit) {
+        return repository.findAllForLocale(locale, afterKey, limit).block();
+    }
+
+    @Override
+    public Stream<I18nRegion> streamAllForLocale(String locale) {
+        return repository.findAllForLocale(locale).toStream();
+    }
+}
@@ -34,11 +34,14 @@ import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
 
 /**
  * Configure jooq-related properties (default profile)
+ *
+ * This is also used by the `replicas` and `shards` profiles unless they're combined with `dev`.
  */
 @Configuration
 @PropertySource("file:///etc/youtube/youtube.properties")
 @ConfigurationPropertiesScan
-@Profile("default")
+@Profile({"default", "replicas & !dev", "shards & !dev"})
+@SuppressWarnings("JavadocBlankLines")
 public class JooqProperties {
     private static final Logger LOG = LoggerFactory.getLogger(JooqProperties.class);
 
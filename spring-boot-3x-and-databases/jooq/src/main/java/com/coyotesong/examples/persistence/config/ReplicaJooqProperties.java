@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.coyotesong.examples.persistence.config;
+
+import com.coyotesong.examples.persistence.jooq.I18nLanguageRepositoryJooq;
+import com.coyotesong.examples.persistence.jooq.I18nRegionRepositoryJooq;
+import com.coyotesong.examples.repository.replica.ReadReplicaI18nLanguageRepository;
+import com.coyotesong.examples.repository.replica.ReadReplicaI18nRegionRepository;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Repositories that read from the replicas
+ *
+ * This is used together with `ReplicaJdbcProperties`. The jOOQ repositories are wrapped
+ * so their finders go to a replica. Without this profile the repositories are used as-is
+ * and every call goes to the primary, with no extra transactions.
+ *
+ * This can't be combined with the `shards` profile since both provide the `@Primary`
+ * region repository.
+ */
+@Configuration
+@Profile("replicas")
+@SuppressWarnings("JavadocBlankLines")
+public class ReplicaJooqProperties {
+
+    /**
+     * Language repository that reads from the replicas
+     *
+     * @param repository jOOQ repository
+     * @return decorated repository
+     */
+    @Bean
+    @Primary
+    @NotNull
+    public ReadReplicaI18nLanguageRepository readReplicaLanguageRepository(
+            @Autowired I18nLanguageRepositoryJooq repository) {
+        return new ReadReplicaI18nLanguageRepository(repository);
+    }
+
+    /**
+     * Region repository that reads from the replicas
+     *
+     * @param repository jOOQ repository
+     * @return decorated repository
+     */
+    @Bean
+    @Primary
+    @NotNull
+    public ReadReplicaI18nRegionRepository readReplicaRegionRepository(
+            @Autowired I18nRegionRepositoryJooq repository) {
+        return new ReadReplicaI18nRegionRepository(repository);
+    }
+}
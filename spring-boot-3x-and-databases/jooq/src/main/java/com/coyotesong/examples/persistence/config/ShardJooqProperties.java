@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.config;
+
+import com.coyotesong.examples.containers.enhancements.HikariConnectionPoolHelper;
+import com.coyotesong.examples.persistence.jooq.I18nRegionRepositoryJooq;
+import com.coyotesong.examples.repository.I18nRegionRepository;
+import com.coyotesong.examples.repository.shard.ShardedI18nRegionRepository;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.impl.DataSourceConnectionProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * Sharded region repository
+ *
+ * Each URL in `spring.datasource.shard-urls` is a shard, named by its position, with the
+ * credentials of the primary dataSource. The order must not change once data has been
+ * loaded since the names decide which shard owns a locale.
+ *
+ * The shard pools are created here, so they are closed with this class, after the
+ * repository that uses them.
+ */
+@Configuration
+@Profile("shards")
+@SuppressWarnings("JavadocBlankLines")
+public class ShardJooqProperties implements AutoCloseable {
+
+    @Value("${spring.datasource.shard-urls}")
+    private String[] shardUrls;
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    /**
+     * Region repository that spreads the locales across the shards
+     *
+     * @param jooqConfiguration    jOOQ configuration - each shard gets a derived copy
+     * @param dataSourceProperties connection details, shared by the shards
+     * @return sharded repository
+     */
+    @Bean(destroyMethod = "close")
+    @Primary
+    @NotNull
+    public ShardedI18nRegionRepository shardedRegionRepository(@Autowired org.jooq.Configuration jooqConfiguration,
+                                                               @Autowired DataSourceProperties dataSourceProperties) {
+        final Map<String, I18nRegionRepository> shards = new LinkedHashMap<>();
+        for (int i = 0; i < shardUrls.length; i++) {
+            final HikariConfig config = new HikariConfig();
+            config.setPoolName("shard-" + i);
+            config.setJdbcUrl(shardUrls[i].trim());
+            config.setUsername(dataSourceProperties.getUsername());
+            config.setPassword(dataSourceProperties.getPassword());
+
+            if (isNotBlank(dataSourceProperties.getDriverClassName())) {
+                config.setDriverClassName(dataSourceProperties.getDriverClassName());
+            }
+
+            // the helper returns the existing pool if this shard was already configured
+            final HikariDataSource pool = HikariConnectionPoolHelper.INSTANCE.getDataSource(config);
+            if (config.getPoolName().equals(pool.getPoolName())) {
+                pools.add(pool);
+            }
+
+            final DataSourceConnectionProvider connectionProvider = new DataSourceConnectionProvider(pool);
+            shards.put(config.getPoolName(),
+                    new I18nRegionRepositoryJooq(jooqConfiguration.derive(connectionProvider)));
+        }
+
+        return new ShardedI18nRegionRepository(shards);
+    }
+
+    /**
+     * Close the shard pools
+     */
+    @Override
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+        pools.clear();
+    }
+}
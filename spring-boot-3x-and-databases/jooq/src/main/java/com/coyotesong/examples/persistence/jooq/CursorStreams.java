@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq;
+
+import org.jooq.Configuration;
+import org.jooq.ConnectionProvider;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.RecordMapper;
+import org.jooq.ResultQuery;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultConnectionProvider;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Helper for cursor-backed streams
+ *
+ * The stream holds a dedicated connection until it is closed. Callers MUST close the
+ * stream, e.g., with try-with-resources.
+ *
+ * pgjdbc only uses a server-side cursor (and honors the fetch size) when autocommit is
+ * disabled. If the connection is in autocommit mode we disable it for the lifetime of
+ * the stream and restore it when the stream is closed. If the connection is already part
+ * of a transaction it is left alone.
+ *
+ * MySQL requires `useCursorFetch=true` in the JDBC URL for the fetch size to be used.
+ */
+@SuppressWarnings("JavadocBlankLines")
+final class CursorStreams {
+
+    private CursorStreams() {
+    }
+
+    /**
+     * Execute a query and return a lazily-fetched stream of results
+     *
+     * @param configuration jOOQ configuration
+     * @param fetchSize     JDBC fetch size
+     * @param query         function that creates the query
+     * @param mapper        record mapper
+     * @param <R>           jOOQ record type
+     * @param <E>           model type
+     * @return stream that must be closed by the caller
+     */
+    static <R extends Record, E> Stream<E> stream(Configuration configuration, int fetchSize,
+                                                  Function<DSLContext, ? extends ResultQuery<R>> query,
+                                                  RecordMapper<? super R, E> mapper) {
+        final ConnectionProvider provider = configuration.connectionProvider();
+        final Connection conn = provider.acquire();
+        boolean restoreAutoCommit = false;
+        try {
+            if (DialectSupport.isPostgres(configuration.dialect()) && conn.getAutoCommit()) {
+                conn.setAutoCommit(false);
+                restoreAutoCommit = true;
+            }
+
+            final boolean restore = restoreAutoCommit;
+            final DSLContext dsl = DSL.using(configuration.derive(new DefaultConnectionProvider(conn)));
+            return query.apply(dsl)
+                    .fetchSize(fetchSize)
+                    .fetchStream()
+                    .map(mapper::map)
+                    .onClose(() -> release(provider, conn, restore));
+        } catch (SQLException e) {
+            release(provider, conn, restoreAutoCommit);
+            throw new DataAccessException("unable to prepare connection for streaming", e);
+        } catch (RuntimeException e) {
+            release(provider, conn, restoreAutoCommit);
+            throw e;
+        }
+    }
+
+    /**
+     * Restore the connection and return it to the pool
+     *
+     * @param provider          connection provider
+     * @param conn              connection
+     * @param restoreAutoCommit true if autocommit was disabled by us
+     */
+    private static void release(ConnectionProvider provider, Connection conn, boolean restoreAutoCommit) {
+        try {
+            if (restoreAutoCommit) {
+                // nothing was modified - just end the implicit transaction
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("unable to restore autocommit", e);
+        } finally {
+            provider.release(conn);
+        }
+    }
+}
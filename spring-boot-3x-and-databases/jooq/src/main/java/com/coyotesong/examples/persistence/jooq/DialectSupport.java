@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq;
+
+import org.jooq.SQLDialect;
+
+import java.util.Locale;
+
+/**
+ * Dialect-specific capabilities
+ *
+ * The community edition of jOOQ only knows about a handful of dialects. Everything
+ * else (Db2, Oracle, SQL Server, etc.) is reported as `DEFAULT` so these checks are
+ * deliberately conservative. CockroachDB is reported as `POSTGRES`.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class DialectSupport {
+
+    private DialectSupport() {
+    }
+
+    /**
+     * Is this a member of the PostgreSQL family? (PostgreSQL, YugabyteDB)
+     *
+     * @param dialect jOOQ SQLDialect
+     * @return true if the server speaks the PostgreSQL wire protocol and SQL
+     */
+    public static boolean isPostgres(SQLDialect dialect) {
+        final SQLDialect family = dialect.family();
+        return (family == SQLDialect.POSTGRES) || (family == SQLDialect.YUGABYTEDB);
+    }
+
+    /**
+     * Is this a member of the MySQL family? (MySQL, MariaDB)
+     *
+     * @param dialect jOOQ SQLDialect
+     * @return true if the server speaks MySQL-flavored SQL
+     */
+    public static boolean isMySQL(SQLDialect dialect) {
+        final SQLDialect family = dialect.family();
+        return (family == SQLDialect.MYSQL) || (family == SQLDialect.MARIADB);
+    }
+
+    /**
+     * Can a multi-row INSERT return all generated keys in the same round trip?
+     *
+     * @param dialect jOOQ SQLDialect
+     * @return true if `INSERT ... RETURNING` is supported
+     */
+    public static boolean supportsInsertReturning(SQLDialect dialect) {
+        return isPostgres(dialect);
+    }
+
+    /**
+     * Is `COPY ... FROM STDIN` available via the pgjdbc CopyManager?
+     *
+     * @param dialect jOOQ SQLDialect
+     * @return true if `COPY` is supported
+     */
+    public static boolean supportsCopy(SQLDialect dialect) {
+        return isPostgres(dialect);
+    }
+
+    /**
+     * Can the server push change notifications via `LISTEN/NOTIFY`?
+     *
+     * YugabyteDB accepts the syntax but does not deliver notifications. CockroachDB
+     * is reported as PostgreSQL so callers must still be prepared for `LISTEN` to fail.
+     *
+     * @param dialect jOOQ SQLDialect
+     * @return true if `LISTEN/NOTIFY` should be available
+     */
+    public static boolean supportsListenNotify(SQLDialect dialect) {
+        return dialect.family() == SQLDialect.POSTGRES;
+    }
+
+    /**
+     * Is `INSERT ... ON CONFLICT ... DO UPDATE` available? (PostgreSQL, CockroachDB, YugabyteDB)
+     *
+     * @param dialect jOOQ SQLDialect
+     * @return true if `ON CONFLICT` is supported
+     */
+    public static boolean supportsOnConflict(SQLDialect dialect) {
+        return isPostgres(dialect);
+    }
+
+    /**
+     * Is `INSERT ... ON DUPLICATE KEY UPDATE` available? (MySQL, MariaDB, TiDB, OceanBase)
+     *
+     * @param dialect jOOQ SQLDialect
+     * @return true if `ON DUPLICATE KEY UPDATE` is supported
+     */
+    public static boolean supportsOnDuplicateKeyUpdate(SQLDialect dialect) {
+        return isMySQL(dialect);
+    }
+
+    /**
+     * Can array parameters be expanded with a multi-argument `unnest()`?
+     *
+     * This lets a lookup on many keys use two bind parameters instead of two per key.
+     *
+     * @param dialect jOOQ SQLDialect
+     * @return true if `unnest(?::text[], ?::text[])` is supported
+     */
+    public static boolean supportsUnnest(SQLDialect dialect) {
+        return isPostgres(dialect);
+    }
+
+    /**
+     * Is this Db2?
+     *
+     * The community edition reports Db2 as `DEFAULT`, so this uses the product name from
+     * the driver metadata, e.g., "DB2/LINUXX8664".
+     *
+     * @param productName database product name
+     * @return true if this is a Db2 server
+     */
+    public static boolean isDb2(String productName) {
+        return (productName != null) && productName.toUpperCase(Locale.ROOT).startsWith("DB2");
+    }
+
+    /**
+     * Can `TRUNCATE` restart the table's identity columns in the same statement?
+     *
+     * MySQL-family servers and SQL Server always reset the identity so they don't need it.
+     *
+     * @param dialect jOOQ SQLDialect
+     * @return true if `TRUNCATE ... RESTART IDENTITY` is supported
+     */
+    public static boolean supportsTruncateRestartIdentity(SQLDialect dialect) {
+        return isPostgres(dialect);
+    }
+
+    /**
+     * Does the driver support the JDBC 4.2 `java.time` mappings for `TIMESTAMP`?
+     *
+     * That is, `getObject(index, LocalDateTime.class)` and `setObject(index, LocalDateTime)`.
+     * Other dialects may support them as well but must be checked at runtime.
+     *
+     * @param dialect jOOQ SQLDialect
+     * @return true if the mappings are known to be supported
+     */
+    public static boolean supportsJavaTime(SQLDialect dialect) {
+        final SQLDialect family = dialect.family();
+        return isPostgres(dialect) || isMySQL(dialect) || (family == SQLDialect.H2) || (family == SQLDialect.HSQLDB);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.persistence.jooq.generated.tables.records.I18nLanguageRecord;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.InsertValuesStep3;
+import org.jooq.Record3;
+import org.jooq.ResultQuery;
+import org.jooq.Row2;
+import org.jooq.Row3;
+import org.jooq.RowCountQuery;
+import org.jooq.SQLDialect;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+
+import java.util.Collection;
+import java.util.List;
+
+import static com.coyotesong.examples.persistence.jooq.generated.tables.I18nLanguage.I18N_LANGUAGE;
+
+/**
+ * Language statements shared by the JDBC and R2DBC repositories
+ *
+ * The statements are only built here. They are executed by the caller, either directly
+ * (JDBC) or by subscribing to them (R2DBC).
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class I18nLanguageQueries {
+
+    private I18nLanguageQueries() {
+    }
+
+    /**
+     * Create a multi-row `INSERT ... VALUES` statement
+     *
+     * @param ctx       jOOQ DSLContext
+     * @param languages languages to insert
+     * @return insert statement
+     */
+    public static InsertValuesStep3<I18nLanguageRecord, String, String, String> insert(DSLContext ctx, List<I18nLanguage> languages) {
+        InsertValuesStep3<I18nLanguageRecord, String, String, String> insert =
+                ctx.insertInto(I18N_LANGUAGE, I18N_LANGUAGE.CODE, I18N_LANGUAGE.HL, I18N_LANGUAGE.NAME);
+        for (I18nLanguage language : languages) {
+            insert = insert.values(language.getCode(), language.getHl(), language.getName());
+        }
+        return insert;
+    }
+
+    /**
+     * Create a multi-row upsert statement, keyed on `(code, hl)`
+     *
+     * PostgreSQL-family servers use `INSERT ... ON CONFLICT DO UPDATE`, MySQL-family
+     * servers use `INSERT ... ON DUPLICATE KEY UPDATE`, and everything else uses `MERGE`.
+     *
+     * If the same `(code, hl)` appears more than once only the last value is used, since
+     * a single statement can't update a row twice.
+     *
+     * @param ctx       jOOQ DSLContext
+     * @param languages languages to insert or update
+     * @return upsert statement
+     */
+    public static RowCountQuery upsert(DSLContext ctx, List<I18nLanguage> languages) {
+        final List<I18nLanguage> distinct = LookupKeys.lastByKey(languages, I18nLanguageQueries::key);
+        final SQLDialect dialect = ctx.dialect();
+        if (DialectSupport.supportsOnConflict(dialect)) {
+            return insert(ctx, distinct)
+                    .onConflict(I18N_LANGUAGE.CODE, I18N_LANGUAGE.HL)
+                    .doUpdate()
+                    .set(I18N_LANGUAGE.NAME, DSL.excluded(I18N_LANGUAGE.NAME));
+        }
+
+        if (DialectSupport.supportsOnDuplicateKeyUpdate(dialect)) {
+            return insert(ctx, distinct)
+                    .onDuplicateKeyUpdate()
+                    .set(I18N_LANGUAGE.NAME, DSL.excluded(I18N_LANGUAGE.NAME));
+        }
+
+        return merge(ctx, distinct);
+    }
+
+    private static CodeAndLocale key(I18nLanguage language) {
+        return new CodeAndLocale(language.getCode(), language.getHl());
+    }
+
+    /**
+     * Create a `MERGE` statement with a `VALUES` source
+     *
+     * @param ctx       jOOQ DSLContext
+     * @param languages languages to insert or update
+     * @return merge statement
+     */
+    @SuppressWarnings("unchecked")
+    private static RowCountQuery merge(DSLContext ctx, List<I18nLanguage> languages) {
+        final Row3<String, String, String>[] rows = languages.stream()
+                .map(value -> DSL.row(value.getCode(), value.getHl(), value.getName()))
+                .toArray(Row3[]::new);
+        final Table<Record3<String, String, String>> src =
+                DSL.values(rows).as("src", "code", "hl", "name");
+        final Field<String> code = src.field("code", String.class);
+        final Field<String> hl = src.field("hl", String.class);
+        final Field<String> name = src.field("name", String.class);
+
+        return ctx.mergeInto(I18N_LANGUAGE)
+                .using(src)
+                .on(I18N_LANGUAGE.CODE.eq(code).and(I18N_LANGUAGE.HL.eq(hl)))
+                .whenMatchedThenUpdate()
+                .set(I18N_LANGUAGE.NAME, name)
+                .whenNotMatchedThenInsert(I18N_LANGUAGE.CODE, I18N_LANGUAGE.HL, I18N_LANGUAGE.NAME)
+                .values(code, hl, name);
+    }
+
+    /**
+     * Create a query that finds the languages matching any of the `(code, hl)` pairs
+     *
+     * PostgreSQL-family servers receive the keys as two array parameters that are expanded
+     * with `unnest()`. Other dialects use a row-value IN list, emulated by jOOQ where
+     * necessary. This is a semi-join so duplicate keys can't produce duplicate rows.
+     *
+     * @param ctx  jOOQ DSLContext
+     * @param keys distinct, complete keys - see {@link LookupKeys#partition(Collection)}
+     * @return query
+     */
+    public static ResultQuery<I18nLanguageRecord> findByCodesAndLocales(DSLContext ctx, List<CodeAndLocale> keys) {
+        final Row2<String, String> key = DSL.row(I18N_LANGUAGE.CODE, I18N_LANGUAGE.HL);
+        if (DialectSupport.supportsUnnest(ctx.dialect())) {
+            final String[] codes = keys.stream().map(CodeAndLocale::code).toArray(String[]::new);
+            final String[] locales = keys.stream().map(CodeAndLocale::locale).toArray(String[]::new);
+            final Table<?> k = DSL.table("unnest({0}, {1})",
+                            DSL.val(codes, SQLDataType.CLOB.array()),
+                            DSL.val(locales, SQLDataType.CLOB.array()))
+                    .as("k", "code", "hl");
+            return ctx.selectFrom(I18N_LANGUAGE)
+                    .where(key.in(DSL.select(
+                                    DSL.field(DSL.name("k", "code"), String.class),
+                                    DSL.field(DSL.name("k", "hl"), String.class))
+                            .from(k)));
+        }
+
+        final List<Row2<String, String>> rows = keys.stream()
+                .map(k -> DSL.row(k.code(), k.locale()))
+                .toList();
+        return ctx.selectFrom(I18N_LANGUAGE).where(key.in(rows));
+    }
+}
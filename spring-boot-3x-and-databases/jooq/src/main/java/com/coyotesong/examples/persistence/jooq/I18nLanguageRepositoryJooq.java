@@ -18,17 +18,39 @@
 package com.coyotesong.examples.persistence.jooq;
 
 import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.persistence.jooq.copy.CopyProgressListener;
+import com.coyotesong.examples.persistence.jooq.copy.PostgresCopyLoader;
 import com.coyotesong.examples.persistence.jooq.generated.tables.records.I18nLanguageRecord;
+import com.coyotesong.examples.persistence.jooq.mapping.I18nLanguageRecordMapper;
+import com.coyotesong.examples.repository.CodeAndLocale;
 import com.coyotesong.examples.repository.I18nLanguageRepository;
+import com.coyotesong.examples.repository.Page;
 import org.jooq.Configuration;
+import org.jooq.DSLContext;
+import org.jooq.InsertValuesStep3;
+import org.jooq.Record1;
+import org.jooq.RecordMapper;
+import org.jooq.Result;
+import org.jooq.ResultQuery;
+import org.jooq.SelectSeekStep1;
 import org.jooq.impl.DAOImpl;
+import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultConnectionProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 import static com.coyotesong.examples.persistence.jooq.generated.tables.I18nLanguage.I18N_LANGUAGE;
@@ -40,22 +62,119 @@ import static com.coyotesong.examples.persistence.jooq.generated.tables.I18nLang
 public class I18nLanguageRepositoryJooq extends DAOImpl<I18nLanguageRecord, I18nLanguage, Integer> implements I18nLanguageRepository {
     private static final Logger LOG = LoggerFactory.getLogger(I18nLanguageRepositoryJooq.class);
 
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private static final List<PostgresCopyLoader.Column<I18nLanguage>> COPY_COLUMNS = List.of(
+            new PostgresCopyLoader.Column<>(I18N_LANGUAGE.CODE, I18nLanguage::getCode),
+            new PostgresCopyLoader.Column<>(I18N_LANGUAGE.HL, I18nLanguage::getHl),
+            new PostgresCopyLoader.Column<>(I18N_LANGUAGE.NAME, I18nLanguage::getName));
+
+    private static final RecordMapper<I18nLanguageRecord, I18nLanguage> MAPPER = I18nLanguageRecordMapper.INSTANCE::map;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+    private boolean keepStatement;
+
+    private final QueryTemplate byCodeAndLocale = new QueryTemplate(dsl -> dsl.selectFrom(I18N_LANGUAGE)
+            .where(I18N_LANGUAGE.CODE.eq(DSL.param("code", String.class))
+                    .and(I18N_LANGUAGE.HL.eq(DSL.param("hl", String.class)))));
+
+    private final QueryTemplate allForLocale = new QueryTemplate(dsl -> dsl.selectFrom(I18N_LANGUAGE)
+            .where(I18N_LANGUAGE.HL.eq(DSL.param("hl", String.class))));
+
     @Autowired
     public I18nLanguageRepositoryJooq(Configuration configuration) {
         super(I18N_LANGUAGE, I18nLanguage.class, configuration);
     }
 
+    /**
+     * Use the reflection-free mapper for the DAO methods, e.g., `findAll()`
+     *
+     * @return record mapper
+     */
+    @Override
+    public RecordMapper<I18nLanguageRecord, I18nLanguage> mapper() {
+        return MAPPER;
+    }
+
     @Override
     public Integer getId(I18nLanguage language) {
         return language.getKey();
     }
 
+    /**
+     * Set the number of rows sent in each multi-row INSERT by {@link #bulkInsert(Collection)}
+     *
+     * @param batchSize maximum number of rows per statement
+     */
+    @Value("${jooq.bulk-insert.batch-size:" + DEFAULT_BATCH_SIZE + "}")
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Set the JDBC fetch size used by the streaming queries
+     *
+     * @param fetchSize number of rows fetched per round trip
+     */
+    @Value("${jooq.fetch-size:" + DEFAULT_FETCH_SIZE + "}")
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("fetchSize must be positive");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Keep the `PreparedStatement` open between the lookups made by {@link #withLookup(Function)}
+     *
+     * @param keepStatement true to reuse a single statement
+     */
+    @Value("${jooq.keep-statement:false}")
+    public void setKeepStatement(boolean keepStatement) {
+        this.keepStatement = keepStatement;
+    }
+
+    /**
+     * Get the number of times a query template's rendered SQL was reused
+     *
+     * @return render cache hits
+     */
+    public long getRenderCacheHits() {
+        return byCodeAndLocale.getRenderCacheHits() + allForLocale.getRenderCacheHits();
+    }
+
+    /**
+     * Get the number of times a query template had to be rendered
+     *
+     * @return render cache misses
+     */
+    public long getRenderCacheMisses() {
+        return byCodeAndLocale.getRenderCacheMisses() + allForLocale.getRenderCacheMisses();
+    }
+
     @Override
     public void delete() {
         ctx().deleteFrom(I18N_LANGUAGE).execute();
         // super.delete();
     }
 
+    /**
+     * Remove all languages with `TRUNCATE`
+     *
+     * Unlike `delete()` this doesn't touch individual rows, so the cost doesn't grow with
+     * the size of the table. PostgreSQL-family servers also restart the key sequence.
+     * See {@link TruncateStatements} for the other dialects.
+     */
+    @Override
+    public void truncate() {
+        TruncateStatements.truncate(ctx(), I18N_LANGUAGE).execute();
+    }
+
     @Override
     public void insert(I18nLanguage language) {
         LOG.info("insert: {}", language);
@@ -69,15 +188,248 @@ public class I18nLanguageRepositoryJooq extends DAOImpl<I18nLanguageRecord, I18n
         super.insert(languages);
     }
 
+    /**
+     * Insert languages using multi-row `INSERT ... VALUES` statements
+     *
+     * The languages are sent in chunks of at most `batchSize` rows. On dialects that
+     * support `INSERT ... RETURNING` the generated keys are set on the objects from the
+     * same round trip. Other dialects leave the keys unset.
+     *
+     * @param languages languages to insert
+     */
+    @Override
+    public void bulkInsert(Collection<I18nLanguage> languages) {
+        LOG.debug("bulkInsert: {} languages", languages.size());
+        insertInChunks(languages);
+    }
+
+    /**
+     * Load languages using the fastest mechanism available
+     *
+     * PostgreSQL uses a streaming `COPY ... FROM STDIN`. Other dialects fall back to
+     * multi-row inserts. In both cases memory use is bounded.
+     *
+     * @param languages languages to load
+     * @return number of rows loaded
+     */
+    @Override
+    public long load(Iterable<I18nLanguage> languages) {
+        return load(languages, null);
+    }
+
+    /**
+     * Load languages using the fastest mechanism available, reporting progress
+     *
+     * Generated keys are not returned.
+     *
+     * @param languages languages to load
+     * @param listener  progress listener (may be null)
+     * @return number of rows loaded
+     */
+    public long load(Iterable<I18nLanguage> languages, CopyProgressListener listener) {
+        if (DialectSupport.supportsCopy(ctx().dialect())) {
+            final PostgresCopyLoader<I18nLanguage> loader = new PostgresCopyLoader<>(I18N_LANGUAGE, COPY_COLUMNS);
+            if (listener != null) {
+                loader.withProgressListener(listener);
+            }
+            return ctx().connectionResult(conn -> loader.load(conn, languages));
+        }
+
+        final long count = insertInChunks(languages);
+        if (listener != null) {
+            listener.progress(count, -1L);
+        }
+        return count;
+    }
+
+    /**
+     * Insert languages in chunks of at most `batchSize` rows
+     *
+     * @param languages languages to insert
+     * @return number of rows inserted
+     */
+    private long insertInChunks(Iterable<I18nLanguage> languages) {
+        final boolean returning = DialectSupport.supportsInsertReturning(ctx().dialect());
+        return inChunks(languages, chunk -> insertChunk(chunk, returning));
+    }
+
+    /**
+     * Apply an action to chunks of at most `batchSize` languages
+     *
+     * @param languages languages
+     * @param action    action applied to each chunk
+     * @return number of languages processed
+     */
+    private long inChunks(Iterable<I18nLanguage> languages, Consumer<List<I18nLanguage>> action) {
+        final List<I18nLanguage> chunk = new ArrayList<>(batchSize);
+        long count = 0;
+        for (I18nLanguage language : languages) {
+            chunk.add(language);
+            if (chunk.size() == batchSize) {
+                action.accept(chunk);
+                count += chunk.size();
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            action.accept(chunk);
+            count += chunk.size();
+        }
+
+        return count;
+    }
+
+    /**
+     * Insert or update languages, keyed on `(code, hl)`
+     *
+     * PostgreSQL-family servers use `INSERT ... ON CONFLICT DO UPDATE`, MySQL-family
+     * servers use `INSERT ... ON DUPLICATE KEY UPDATE`, and everything else uses `MERGE`.
+     * The languages are sent in chunks of at most `batchSize` rows. Generated keys are not
+     * returned.
+     *
+     * This requires the unique `(code, hl)` constraint.
+     *
+     * @param languages languages to insert or update
+     */
+    @Override
+    public void upsert(Collection<I18nLanguage> languages) {
+        LOG.debug("upsert: {} languages", languages.size());
+        inChunks(languages, chunk -> I18nLanguageQueries.upsert(ctx(), chunk).execute());
+    }
+
+    /**
+     * Insert a single chunk of languages in one statement
+     *
+     * @param chunk     languages to insert
+     * @param returning true if generated keys should be returned
+     */
+    private void insertChunk(List<I18nLanguage> chunk, boolean returning) {
+        final InsertValuesStep3<I18nLanguageRecord, String, String, String> insert =
+                I18nLanguageQueries.insert(ctx(), chunk);
+
+        if (returning) {
+            final Result<Record1<Integer>> keys = insert.returningResult(I18N_LANGUAGE.KEY).fetch();
+            for (int i = 0; i < keys.size(); i++) {
+                chunk.get(i).setKey(keys.get(i).value1());
+            }
+        } else {
+            insert.execute();
+        }
+    }
 
     @Override
     public I18nLanguage findByCodeAndLocale(String code, String locale) {
-        return ctx().selectFrom(I18N_LANGUAGE).where(I18N_LANGUAGE.CODE.eq(code).and(I18N_LANGUAGE.HL.eq(locale)))
-                .fetchOneInto(I18nLanguage.class);
+        return byCodeAndLocale.query(ctx(), code, locale).fetchOne(I18nLanguageRecordMapper.INSTANCE);
+    }
+
+    /**
+     * Look up languages one at a time on a single connection
+     *
+     * When `keepStatement` is enabled the `PreparedStatement` is prepared once and re-executed
+     * for every lookup. Otherwise each lookup prepares its own statement and relies on the
+     * driver's statement cache. Either way the SQL is only rendered once.
+     *
+     * @param action action that receives a `(code, locale) -> language` function. The function
+     *               returns null if there is no match.
+     * @param <T>    result type
+     * @return value returned by the action
+     */
+    public <T> T withLookup(Function<BiFunction<String, String, I18nLanguage>, T> action) {
+        return ctx().connectionResult(conn -> {
+            final DSLContext dsl = DSL.using(configuration().derive(new DefaultConnectionProvider(conn)));
+            if (!keepStatement) {
+                return action.apply((code, locale) ->
+                        byCodeAndLocale.query(dsl, code, locale).fetchOne(I18nLanguageRecordMapper.INSTANCE));
+            }
+
+            try (QueryTemplate.Prepared prepared = byCodeAndLocale.prepare(dsl)) {
+                return action.apply((code, locale) ->
+                        prepared.bind(code, locale).fetchOne(I18nLanguageRecordMapper.INSTANCE));
+            }
+        });
+    }
+
+    /**
+     * Find languages for many `(code, hl)` pairs
+     *
+     * Each chunk of up to `LookupKeys.MAX_LOOKUP_KEYS` keys is a single round trip.
+     * PostgreSQL-family servers pass the keys as two arrays, so the statement text and the
+     * number of bind parameters don't depend on the number of keys.
+     *
+     * @param keys keys
+     * @return matching languages, keyed by `(code, hl)`. Keys without a match are omitted.
+     */
+    @Override
+    public Map<CodeAndLocale, I18nLanguage> findByCodesAndLocales(Collection<CodeAndLocale> keys) {
+        final Map<CodeAndLocale, I18nLanguage> results = new HashMap<>();
+        for (List<CodeAndLocale> chunk : LookupKeys.partition(keys)) {
+            I18nLanguageQueries.findByCodesAndLocales(ctx(), chunk)
+                    .fetch(I18nLanguageRecordMapper.INSTANCE)
+                    .forEach(value -> results.put(new CodeAndLocale(value.getCode(), value.getHl()), value));
+        }
+        return results;
     }
 
     @Override
     public List<I18nLanguage> findAllForLocale(String locale) {
-        return ctx().selectFrom(I18N_LANGUAGE).where(I18N_LANGUAGE.HL.eq(locale)).fetchInto(I18nLanguage.class);
+        return allForLocale.query(ctx(), locale).fetch(I18nLanguageRecordMapper.INSTANCE);
+    }
+
+    /**
+     * Find one page of languages for a locale, in key order
+     *
+     * This uses keyset pagination (`WHERE hl = ? AND key > ? ORDER BY key`) so the cost of
+     * a page does not grow with its position. It is backed by the `(hl, key)` index.
+     *
+     * @param locale   locale
+     * @param afterKey continuation token from the previous page, or null for the first page
+     * @param limit    maximum number of languages
+     * @return page
+     */
+    @Override
+    public Page<I18nLanguage> findAllForLocale(String locale, Integer afterKey, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+
+        final SelectSeekStep1<I18nLanguageRecord, Integer> ordered = ctx().selectFrom(I18N_LANGUAGE)
+                .where(I18N_LANGUAGE.HL.eq(locale))
+                .orderBy(I18N_LANGUAGE.KEY);
+
+        // fetch one extra row to learn whether there is another page
+        final ResultQuery<I18nLanguageRecord> query = (afterKey == null)
+                ? ordered.limit(limit + 1)
+                : ordered.seek(afterKey).limit(limit + 1);
+
+        return Page.of(query.fetch(I18nLanguageRecordMapper.INSTANCE), limit, I18nLanguage::getKey);
+    }
+
+    /**
+     * Stream all languages using a server-side cursor where available
+     *
+     * The stream holds a database connection until it is closed.
+     *
+     * @return stream that must be closed by the caller
+     */
+    @Override
+    public Stream<I18nLanguage> streamAll() {
+        return CursorStreams.stream(configuration(), fetchSize,
+                dsl -> dsl.selectFrom(I18N_LANGUAGE), I18nLanguageRecordMapper.INSTANCE);
+    }
+
+    /**
+     * Stream all languages for a locale using a server-side cursor where available
+     *
+     * The stream holds a database connection until it is closed.
+     *
+     * @param locale locale
+     * @return stream that must be closed by the caller
+     */
+    @Override
+    public Stream<I18nLanguage> streamAllForLocale(String locale) {
+        return CursorStreams.stream(configuration(), fetchSize,
+                dsl -> dsl.selectFrom(I18N_LANGUAGE).where(I18N_LANGUAGE.HL.eq(locale)),
+                I18nLanguageRecordMapper.INSTANCE);
     }
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq;
+
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.persistence.jooq.generated.tables.records.I18nRegionRecord;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.InsertValuesStep4;
+import org.jooq.Record4;
+import org.jooq.ResultQuery;
+import org.jooq.Row2;
+import org.jooq.Row4;
+import org.jooq.RowCountQuery;
+import org.jooq.SQLDialect;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+
+import java.util.Collection;
+import java.util.List;
+
+import static com.coyotesong.examples.persistence.jooq.generated.tables.I18nRegion.I18N_REGION;
+
+/**
+ * Region statements shared by the JDBC and R2DBC repositories
+ *
+ * The statements are only built here. They are executed by the caller, either directly
+ * (JDBC) or by subscribing to them (R2DBC).
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class I18nRegionQueries {
+
+    private I18nRegionQueries() {
+    }
+
+    /**
+     * Create a multi-row `INSERT ... VALUES` statement
+     *
+     * @param ctx     jOOQ DSLContext
+     * @param regions regions to insert
+     * @return insert statement
+     */
+    public static InsertValuesStep4<I18nRegionRecord, String, String, String, String> insert(DSLContext ctx, List<I18nRegion> regions) {
+        InsertValuesStep4<I18nRegionRecord, String, String, String, String> insert =
+                ctx.insertInto(I18N_REGION, I18N_REGION.CODE, I18N_REGION.HL, I18N_REGION.NAME, I18N_REGION.GL);
+        for (I18nRegion region : regions) {
+            insert = insert.values(region.getCode(), region.getHl(), region.getName(), region.getGl());
+        }
+        return insert;
+    }
+
+    /**
+     * Create a multi-row upsert statement, keyed on `(code, hl)`
+     *
+     * PostgreSQL-family servers use `INSERT ... ON CONFLICT DO UPDATE`, MySQL-family
+     * servers use `INSERT ... ON DUPLICATE KEY UPDATE`, and everything else uses `MERGE`.
+     *
+     * If the same `(code, hl)` appears more than once only the last value is used, since
+     * a single statement can't update a row twice.
+     *
+     * @param ctx     jOOQ DSLContext
+     * @param regions regions to insert or update
+     * @return upsert statement
+     */
+    public static RowCountQuery upsert(DSLContext ctx, List<I18nRegion> regions) {
+        final List<I18nRegion> distinct = LookupKeys.lastByKey(regions, I18nRegionQueries::key);
+        final SQLDialect dialect = ctx.dialect();
+        if (DialectSupport.supportsOnConflict(dialect)) {
+            return insert(ctx, distinct)
+                    .onConflict(I18N_REGION.CODE, I18N_REGION.HL)
+                    .doUpdate()
+                    .set(I18N_REGION.NAME, DSL.excluded(I18N_REGION.NAME))
+                    .set(I18N_REGION.GL, DSL.excluded(I18N_REGION.GL));
+        }
+
+        if (DialectSupport.supportsOnDuplicateKeyUpdate(dialect)) {
+            return insert(ctx, distinct)
+                    .onDuplicateKeyUpdate()
+                    .set(I18N_REGION.NAME, DSL.excluded(I18N_REGION.NAME))
+                    .set(I18N_REGION.GL, DSL.excluded(I18N_REGION.GL));
+        }
+
+        return merge(ctx, distinct);
+    }
+
+    private static CodeAndLocale key(I18nRegion region) {
+        return new CodeAndLocale(region.getCode(), region.getHl());
+    }
+
+    /**
+     * Create a `MERGE` statement with a `VALUES` source
+     *
+     * @param ctx     jOOQ DSLContext
+     * @param regions regions to insert or update
+     * @return merge statement
+     */
+    @SuppressWarnings("unchecked")
+    private static RowCountQuery merge(DSLContext ctx, List<I18nRegion> regions) {
+        final Row4<String, String, String, String>[] rows = regions.stream()
+                .map(value -> DSL.row(value.getCode(), value.getHl(), value.getName(), value.getGl()))
+                .toArray(Row4[]::new);
+        final Table<Record4<String, String, String, String>> src =
+                DSL.values(rows).as("src", "code", "hl", "name", "gl");
+        final Field<String> code = src.field("code", String.class);
+        final Field<String> hl = src.field("hl", String.class);
+        final Field<String> name = src.field("name", String.class);
+        final Field<String> gl = src.field("gl", String.class);
+
+        return ctx.mergeInto(I18N_REGION)
+                .using(src)
+                .on(I18N_REGION.CODE.eq(code).and(I18N_REGION.HL.eq(hl)))
+                .whenMatchedThenUpdate()
+                .set(I18N_REGION.NAME, name)
+                .set(I18N_REGION.GL, gl)
+                .whenNotMatchedThenInsert(I18N_REGION.CODE, I18N_REGION.HL, I18N_REGION.NAME, I18N_REGION.GL)
+                .values(code, hl, name, gl);
+    }
+
+    /**
+     * Create a query that finds the regions matching any of the `(code, hl)` pairs
+     *
+     * PostgreSQL-family servers receive the keys as two array parameters that are expanded
+     * with `unnest()`. Other dialects use a row-value IN list, emulated by jOOQ where
+     * necessary. This is a semi-join so duplicate keys can't produce duplicate rows.
+     *
+     * @param ctx  jOOQ DSLContext
+     * @param keys distinct, complete keys - see {@link LookupKeys#partition(Collection)}
+     * @return query
+     */
+    public static ResultQuery<I18nRegionRecord> findByCodesAndLocales(DSLContext ctx, List<CodeAndLocale> keys) {
+        final Row2<String, String> key = DSL.row(I18N_REGION.CODE, I18N_REGION.HL);
+        if (DialectSupport.supportsUnnest(ctx.dialect())) {
+            final String[] codes = keys.stream().map(CodeAndLocale::code).toArray(String[]::new);
+            final String[] locales = keys.stream().map(CodeAndLocale::locale).toArray(String[]::new);
+            final Table<?> k = DSL.table("unnest({0}, {1})",
+                            DSL.val(codes, SQLDataType.CLOB.array()),
+                            DSL.val(locales, SQLDataType.CLOB.array()))
+                    .as("k", "code", "hl");
+            return ctx.selectFrom(I18N_REGION)
+                    .where(key.in(DSL.select(
+                                    DSL.field(DSL.name("k", "code"), String.class),
+                                    DSL.field(DSL.name("k", "hl"), String.class))
+                            .from(k)));
+        }
+
+        final List<Row2<String, String>> rows = keys.stream()
+                .map(k -> DSL.row(k.code(), k.locale()))
+                .toList();
+        return ctx.selectFrom(I18N_REGION).where(key.in(rows));
+    }
+}
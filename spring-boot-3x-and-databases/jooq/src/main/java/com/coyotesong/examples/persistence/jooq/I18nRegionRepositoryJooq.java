@@ -17,15 +17,42 @@
 
 package com.coyotesong.examples.persistence.jooq;
 
+import com.coyotesong.examples.containers.enhancements.GuestOSDetailsHelper;
 import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.persistence.jooq.copy.CopyProgressListener;
+import com.coyotesong.examples.persistence.jooq.copy.ParallelLoader;
+import com.coyotesong.examples.persistence.jooq.copy.PostgresCopyLoader;
 import com.coyotesong.examples.persistence.jooq.generated.tables.records.I18nRegionRecord;
+import com.coyotesong.examples.persistence.jooq.mapping.I18nRegionRecordMapper;
+import com.coyotesong.examples.repository.CodeAndLocale;
 import com.coyotesong.examples.repository.I18nRegionRepository;
+import com.coyotesong.examples.repository.Page;
 import org.jooq.Configuration;
+import org.jooq.DSLContext;
+import org.jooq.InsertValuesStep4;
+import org.jooq.Record1;
+import org.jooq.RecordMapper;
+import org.jooq.Result;
+import org.jooq.ResultQuery;
+import org.jooq.SelectSeekStep1;
 import org.jooq.impl.DAOImpl;
+import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultConnectionProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static com.coyotesong.examples.persistence.jooq.generated.tables.I18nRegion.I18N_REGION;
 
@@ -34,30 +61,403 @@ import static com.coyotesong.examples.persistence.jooq.generated.tables.I18nRegi
  */
 @Repository
 public class I18nRegionRepositoryJooq extends DAOImpl<I18nRegionRecord, I18nRegion, Integer> implements I18nRegionRepository {
+    private static final Logger LOG = LoggerFactory.getLogger(I18nRegionRepositoryJooq.class);
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private static final List<PostgresCopyLoader.Column<I18nRegion>> COPY_COLUMNS = List.of(
+            new PostgresCopyLoader.Column<>(I18N_REGION.CODE, I18nRegion::getCode),
+            new PostgresCopyLoader.Column<>(I18N_REGION.HL, I18nRegion::getHl),
+            new PostgresCopyLoader.Column<>(I18N_REGION.NAME, I18nRegion::getName),
+            new PostgresCopyLoader.Column<>(I18N_REGION.GL, I18nRegion::getGl));
+
+    private static final RecordMapper<I18nRegionRecord, I18nRegion> MAPPER = I18nRegionRecordMapper.INSTANCE::map;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+    private boolean keepStatement;
+
+    private final QueryTemplate byCodeAndLocale = new QueryTemplate(dsl -> dsl.selectFrom(I18N_REGION)
+            .where(I18N_REGION.CODE.eq(DSL.param("code", String.class))
+                    .and(I18N_REGION.HL.eq(DSL.param("hl", String.class)))));
+
+    private final QueryTemplate allForLocale = new QueryTemplate(dsl -> dsl.selectFrom(I18N_REGION)
+            .where(I18N_REGION.HL.eq(DSL.param("hl", String.class))));
 
     @Autowired
     public I18nRegionRepositoryJooq(Configuration configuration) {
         super(I18N_REGION, I18nRegion.class, configuration);
     }
 
+    /**
+     * Use the reflection-free mapper for the DAO methods, e.g., `findAll()`
+     *
+     * @return record mapper
+     */
+    @Override
+    public RecordMapper<I18nRegionRecord, I18nRegion> mapper() {
+        return MAPPER;
+    }
+
     @Override
     public Integer getId(I18nRegion region) {
         return region.getKey();
     }
 
+    /**
+     * Set the number of rows sent in each multi-row INSERT by {@link #bulkInsert(Collection)}
+     *
+     * @param batchSize maximum number of rows per statement
+     */
+    @Value("${jooq.bulk-insert.batch-size:" + DEFAULT_BATCH_SIZE + "}")
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Set the JDBC fetch size used by the streaming queries
+     *
+     * @param fetchSize number of rows fetched per round trip
+     */
+    @Value("${jooq.fetch-size:" + DEFAULT_FETCH_SIZE + "}")
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("fetchSize must be positive");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Keep the `PreparedStatement` open between the lookups made by {@link #withLookup(Function)}
+     *
+     * @param keepStatement true to reuse a single statement
+     */
+    @Value("${jooq.keep-statement:false}")
+    public void setKeepStatement(boolean keepStatement) {
+        this.keepStatement = keepStatement;
+    }
+
+    /**
+     * Get the number of times a query template's rendered SQL was reused
+     *
+     * @return render cache hits
+     */
+    public long getRenderCacheHits() {
+        return byCodeAndLocale.getRenderCacheHits() + allForLocale.getRenderCacheHits();
+    }
+
+    /**
+     * Get the number of times a query template had to be rendered
+     *
+     * @return render cache misses
+     */
+    public long getRenderCacheMisses() {
+        return byCodeAndLocale.getRenderCacheMisses() + allForLocale.getRenderCacheMisses();
+    }
+
     @Override
     public void delete() {
         ctx().deleteFrom(I18N_REGION).execute();
     }
 
+    /**
+     * Remove all regions with `TRUNCATE`
+     *
+     * Unlike `delete()` this doesn't touch individual rows, so the cost doesn't grow with
+     * the size of the table. PostgreSQL-family servers also restart the key sequence.
+     * See {@link TruncateStatements} for the other dialects.
+     */
+    @Override
+    public void truncate() {
+        TruncateStatements.truncate(ctx(), I18N_REGION).execute();
+    }
+
+    /**
+     * Insert regions using multi-row `INSERT ... VALUES` statements
+     *
+     * The regions are sent in chunks of at most `batchSize` rows. On dialects that
+     * support `INSERT ... RETURNING` the generated keys are set on the objects from the
+     * same round trip. Other dialects leave the keys unset.
+     *
+     * @param regions regions to insert
+     */
+    @Override
+    public void bulkInsert(Collection<I18nRegion> regions) {
+        LOG.debug("bulkInsert: {} regions", regions.size());
+        insertInChunks(regions);
+    }
+
+    /**
+     * Load regions using the fastest mechanism available
+     *
+     * PostgreSQL uses a streaming `COPY ... FROM STDIN`. Other dialects fall back to
+     * multi-row inserts. In both cases memory use is bounded.
+     *
+     * @param regions regions to load
+     * @return number of rows loaded
+     */
+    @Override
+    public long load(Iterable<I18nRegion> regions) {
+        return load(regions, null);
+    }
+
+    /**
+     * Load regions using the fastest mechanism available, reporting progress
+     *
+     * Generated keys are not returned.
+     *
+     * @param regions  regions to load
+     * @param listener progress listener (may be null)
+     * @return number of rows loaded
+     */
+    public long load(Iterable<I18nRegion> regions, CopyProgressListener listener) {
+        if (DialectSupport.supportsCopy(ctx().dialect())) {
+            final PostgresCopyLoader<I18nRegion> loader = new PostgresCopyLoader<>(I18N_REGION, COPY_COLUMNS);
+            if (listener != null) {
+                loader.withProgressListener(listener);
+            }
+            return ctx().connectionResult(conn -> loader.load(conn, regions));
+        }
+
+        final long count = insertInChunks(regions);
+        if (listener != null) {
+            listener.progress(count, -1L);
+        }
+        return count;
+    }
+
+    /**
+     * Load regions over several connections at once
+     *
+     * The regions are partitioned by locale and each partition is loaded with
+     * {@link #load(Iterable, CopyProgressListener)} on its own connection, so PostgreSQL
+     * runs one `COPY` per partition. The connection pool must allow `parallelism`
+     * connections.
+     *
+     * @param regions        regions to load
+     * @param guestOSDetails details about the database server - there is one partition per server CPU
+     * @return per-partition report
+     * @throws ParallelLoader.ParallelLoadException one or more partitions failed
+     */
+    public ParallelLoader.Report loadInParallel(Iterable<I18nRegion> regions, GuestOSDetailsHelper<?> guestOSDetails) {
+        return newParallelLoader().withParallelism(guestOSDetails).load(regions);
+    }
+
+    /**
+     * Load regions over several connections at once
+     *
+     * @param regions     regions to load
+     * @param parallelism number of partitions, e.g., `ParallelLoader.defaultParallelism(guestOSDetails)`
+     * @return per-partition report
+     * @throws ParallelLoader.ParallelLoadException one or more partitions failed
+     * @see #loadInParallel(Iterable, GuestOSDetailsHelper)
+     */
+    public ParallelLoader.Report loadInParallel(Iterable<I18nRegion> regions, int parallelism) {
+        return newParallelLoader().withParallelism(parallelism).load(regions);
+    }
+
+    private ParallelLoader<I18nRegion> newParallelLoader() {
+        return new ParallelLoader<>(configuration().connectionProvider(),
+                (conn, partition, listener) -> {
+                    final I18nRegionRepositoryJooq repository =
+                            new I18nRegionRepositoryJooq(configuration().derive(new DefaultConnectionProvider(conn)));
+                    repository.setBatchSize(batchSize);
+                    return repository.load(partition, listener);
+                },
+                ParallelLoader.Partitioner.byKey(I18nRegion::getHl));
+    }
+
+    /**
+     * Insert regions in chunks of at most `batchSize` rows
+     *
+     * @param regions regions to insert
+     * @return number of rows inserted
+     */
+    private long insertInChunks(Iterable<I18nRegion> regions) {
+        final boolean returning = DialectSupport.supportsInsertReturning(ctx().dialect());
+        return inChunks(regions, chunk -> insertChunk(chunk, returning));
+    }
+
+    /**
+     * Apply an action to chunks of at most `batchSize` regions
+     *
+     * @param regions regions
+     * @param action  action applied to each chunk
+     * @return number of regions processed
+     */
+    private long inChunks(Iterable<I18nRegion> regions, Consumer<List<I18nRegion>> action) {
+        final List<I18nRegion> chunk = new ArrayList<>(batchSize);
+        long count = 0;
+        for (I18nRegion region : regions) {
+            chunk.add(region);
+            if (chunk.size() == batchSize) {
+                action.accept(chunk);
+                count += chunk.size();
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            action.accept(chunk);
+            count += chunk.size();
+        }
+
+        return count;
+    }
+
+    /**
+     * Insert or update regions, keyed on `(code, hl)`
+     *
+     * PostgreSQL-family servers use `INSERT ... ON CONFLICT DO UPDATE`, MySQL-family
+     * servers use `INSERT ... ON DUPLICATE KEY UPDATE`, and everything else uses `MERGE`.
+     * The regions are sent in chunks of at most `batchSize` rows. Generated keys are not
+     * returned.
+     *
+     * This requires the unique `(code, hl)` constraint.
+     *
+     * @param regions regions to insert or update
+     */
+    @Override
+    public void upsert(Collection<I18nRegion> regions) {
+        LOG.debug("upsert: {} regions", regions.size());
+        inChunks(regions, chunk -> I18nRegionQueries.upsert(ctx(), chunk).execute());
+    }
+
+    /**
+     * Insert a single chunk of regions in one statement
+     *
+     * @param chunk     regions to insert
+     * @param returning true if generated keys should be returned
+     */
+    private void insertChunk(List<I18nRegion> chunk, boolean returning) {
+        final InsertValuesStep4<I18nRegionRecord, String, String, String, String> insert =
+                I18nRegionQueries.insert(ctx(), chunk);
+
+        if (returning) {
+            final Result<Record1<Integer>> keys = insert.returningResult(I18N_REGION.KEY).fetch();
+            for (int i = 0; i < keys.size(); i++) {
+                chunk.get(i).setKey(keys.get(i).value1());
+            }
+        } else {
+            insert.execute();
+        }
+    }
+
     @Override
     public I18nRegion findByCodeAndLocale(String code, String locale) {
-        return ctx().selectFrom(I18N_REGION).where(I18N_REGION.CODE.eq(code).and(I18N_REGION.HL.eq(locale)))
-                .fetchSingleInto(I18nRegion.class);
+        return byCodeAndLocale.query(ctx(), code, locale).fetchSingle(I18nRegionRecordMapper.INSTANCE);
+    }
+
+    /**
+     * Look up regions one at a time on a single connection
+     *
+     * When `keepStatement` is enabled the `PreparedStatement` is prepared once and re-executed
+     * for every lookup. Otherwise each lookup prepares its own statement and relies on the
+     * driver's statement cache. Either way the SQL is only rendered once.
+     *
+     * @param action action that receives a `(code, locale) -> region` function. The function
+     *               returns null if there is no match.
+     * @param <T>    result type
+     * @return value returned by the action
+     */
+    public <T> T withLookup(Function<BiFunction<String, String, I18nRegion>, T> action) {
+        return ctx().connectionResult(conn -> {
+            final DSLContext dsl = DSL.using(configuration().derive(new DefaultConnectionProvider(conn)));
+            if (!keepStatement) {
+                return action.apply((code, locale) ->
+                        byCodeAndLocale.query(dsl, code, locale).fetchOne(I18nRegionRecordMapper.INSTANCE));
+            }
+
+            try (QueryTemplate.Prepared prepared = byCodeAndLocale.prepare(dsl)) {
+                return action.apply((code, locale) ->
+                        prepared.bind(code, locale).fetchOne(I18nRegionRecordMapper.INSTANCE));
+            }
+        });
+    }
+
+    /**
+     * Find regions for many `(code, hl)` pairs
+     *
+     * Each chunk of up to `LookupKeys.MAX_LOOKUP_KEYS` keys is a single round trip.
+     * PostgreSQL-family servers pass the keys as two arrays, so the statement text and the
+     * number of bind parameters don't depend on the number of keys.
+     *
+     * @param keys keys
+     * @return matching regions, keyed by `(code, hl)`. Keys without a match are omitted.
+     */
+    @Override
+    public Map<CodeAndLocale, I18nRegion> findByCodesAndLocales(Collection<CodeAndLocale> keys) {
+        final Map<CodeAndLocale, I18nRegion> results = new HashMap<>();
+        for (List<CodeAndLocale> chunk : LookupKeys.partition(keys)) {
+            I18nRegionQueries.findByCodesAndLocales(ctx(), chunk)
+                    .fetch(I18nRegionRecordMapper.INSTANCE)
+                    .forEach(value -> results.put(new CodeAndLocale(value.getCode(), value.getHl()), value));
+        }
+        return results;
     }
 
     @Override
     public List<I18nRegion> findAllForLocale(String locale) {
-        return ctx().selectFrom(I18N_REGION).where(I18N_REGION.HL.eq(locale)).fetchInto(I18nRegion.class);
+        return allForLocale.query(ctx(), locale).fetch(I18nRegionRecordMapper.INSTANCE);
+    }
+
+    /**
+     * Find one page of regions for a locale, in key order
+     *
+     * This uses keyset pagination (`WHERE hl = ? AND key > ? ORDER BY key`) so the cost of
+     * a page does not grow with its position. It is backed by the `(hl, key)` index.
+     *
+     * @param locale   locale
+     * @param afterKey continuation token from the previous page, or null for the first page
+     * @param limit    maximum number of regions
+     * @return page
+     */
+    @Override
+    public Page<I18nRegion> findAllForLocale(String locale, Integer afterKey, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+
+        final SelectSeekStep1<I18nRegionRecord, Integer> ordered = ctx().selectFrom(I18N_REGION)
+                .where(I18N_REGION.HL.eq(locale))
+                .orderBy(I18N_REGION.KEY);
+
+        // fetch one extra row to learn whether there is another page
+        final ResultQuery<I18nRegionRecord> query = (afterKey == null)
+                ? ordered.limit(limit + 1)
+                : ordered.seek(afterKey).limit(limit + 1);
+
+        return Page.of(query.fetch(I18nRegionRecordMapper.INSTANCE), limit, I18nRegion::getKey);
+    }
+
+    /**
+     * Stream all regions using a server-side cursor where available
+     *
+     * The stream holds a database connection until it is closed.
+     *
+     * @return stream that must be closed by the caller
+     */
+    @Override
+    public Stream<I18nRegion> streamAll() {
+        return CursorStreams.stream(configuration(), fetchSize,
+                dsl -> dsl.selectFrom(I18N_REGION), I18nRegionRecordMapper.INSTANCE);
+    }
+
+    /**
+     * Stream all regions for a locale using a server-side cursor where available
+     *
+     * The stream holds a database connection until it is closed.
+     *
+     * @param locale locale
+     * @return stream that must be closed by the caller
+     */
+    @Override
+    public Stream<I18nRegion> streamAllForLocale(String locale) {
+        return CursorStreams.stream(configuration(), fetchSize,
+                dsl -> dsl.selectFrom(I18N_REGION).where(I18N_REGION.HL.eq(locale)), I18nRegionRecordMapper.INSTANCE);
     }
 }
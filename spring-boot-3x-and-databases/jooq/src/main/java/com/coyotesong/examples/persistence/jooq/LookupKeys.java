@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq;
+
+import com.coyotesong.examples.repository.CodeAndLocale;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Helpers for multi-key lookups and upserts
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class LookupKeys {
+
+    /**
+     * Maximum number of keys in a single lookup
+     *
+     * A row-value IN list uses two bind parameters per key, and some servers limit both the
+     * number of parameters (SQL Server: 2100) and the length of an IN list (Oracle: 1000).
+     */
+    public static final int MAX_LOOKUP_KEYS = 1000;
+
+    private LookupKeys() {
+    }
+
+    /**
+     * Split keys into chunks of at most `MAX_LOOKUP_KEYS`
+     *
+     * Duplicate keys and keys with a null code or locale are dropped since they can't
+     * match anything.
+     *
+     * @param keys keys
+     * @return chunks of distinct keys, in their original order
+     */
+    public static List<List<CodeAndLocale>> partition(Collection<CodeAndLocale> keys) {
+        final Set<CodeAndLocale> distinct = new LinkedHashSet<>();
+        for (CodeAndLocale key : keys) {
+            if (key != null && key.code() != null && key.locale() != null) {
+                distinct.add(key);
+            }
+        }
+
+        final List<CodeAndLocale> values = List.copyOf(distinct);
+        final List<List<CodeAndLocale>> chunks = new ArrayList<>();
+        for (int i = 0; i < values.size(); i += MAX_LOOKUP_KEYS) {
+            chunks.add(values.subList(i, Math.min(i + MAX_LOOKUP_KEYS, values.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Keep only the last value for each key
+     *
+     * A single upsert statement can't change the same row twice. PostgreSQL rejects it
+     * with "ON CONFLICT DO UPDATE command cannot affect row a second time" and `MERGE`
+     * fails or raises a unique violation. Keeping the last value gives the same result
+     * as separate statements.
+     *
+     * @param values values
+     * @param key    function that extracts the key
+     * @param <T>    model type
+     * @return distinct values, in the order each key was first seen
+     */
+    public static <T> List<T> lastByKey(List<T> values, Function<? super T, CodeAndLocale> key) {
+        final Map<CodeAndLocale, T> distinct = new LinkedHashMap<>();
+        for (T value : values) {
+            distinct.put(key.apply(value), value);
+        }
+        return (distinct.size() == values.size()) ? values : List.copyOf(distinct.values());
+    }
+}
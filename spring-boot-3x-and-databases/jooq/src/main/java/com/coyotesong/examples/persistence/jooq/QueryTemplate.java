@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq;
+
+import org.jooq.CloseableResultQuery;
+import org.jooq.DSLContext;
+import org.jooq.Query;
+import org.jooq.Record;
+import org.jooq.ResultQuery;
+import org.jooq.SQLDialect;
+import org.jooq.conf.ParamType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Parameterized query that is built and rendered once per dialect
+ *
+ * Building a jOOQ query tree and rendering it costs far more than executing a plain SQL
+ * string with bind values. The template is built with placeholder parameters, e.g.,
+ * `DSL.param("code", String.class)`, rendered with `?` markers and cached. Each execution
+ * only supplies the bind values, in the order the parameters appear in the SQL.
+ *
+ * Instances are thread-safe. The queries they return are not.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class QueryTemplate {
+
+    /**
+     * Rendered SQL
+     *
+     * @param sql        SQL with `?` bind markers
+     * @param parameters number of bind markers
+     */
+    private record Rendered(String sql, int parameters) {
+    }
+
+    private final Function<DSLContext, ? extends Query> builder;
+    private final Map<SQLDialect, Rendered> rendered = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor
+     *
+     * @param builder function that builds the query with placeholder parameters
+     */
+    public QueryTemplate(Function<DSLContext, ? extends Query> builder) {
+        this.builder = builder;
+    }
+
+    /**
+     * Get the rendered SQL for the context's dialect, rendering it on first use
+     *
+     * @param ctx jOOQ DSLContext
+     * @return rendered SQL
+     */
+    private Rendered render(DSLContext ctx) {
+        final Rendered cached = rendered.get(ctx.dialect());
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        return rendered.computeIfAbsent(ctx.dialect(), dialect -> {
+            final Query query = builder.apply(ctx);
+            return new Rendered(query.getSQL(ParamType.INDEXED), query.getBindValues().size());
+        });
+    }
+
+    /**
+     * Get the rendered SQL
+     *
+     * @param ctx jOOQ DSLContext
+     * @return SQL with `?` bind markers
+     */
+    public String getSQL(DSLContext ctx) {
+        return render(ctx).sql();
+    }
+
+    /**
+     * Create a query from the rendered SQL
+     *
+     * @param ctx      jOOQ DSLContext
+     * @param bindings bind values, in the order they appear in the SQL
+     * @return query
+     */
+    public ResultQuery<Record> query(DSLContext ctx, Object... bindings) {
+        return ctx.resultQuery(render(ctx).sql(), bindings);
+    }
+
+    /**
+     * Prepare a statement that is kept open and re-executed with new bind values
+     *
+     * The context must be bound to a single connection, and the statement must be closed
+     * before that connection is released.
+     *
+     * @param ctx jOOQ DSLContext
+     * @return prepared statement
+     */
+    public Prepared prepare(DSLContext ctx) {
+        final Rendered value = render(ctx);
+        return new Prepared(ctx.resultQuery(value.sql(), new Object[value.parameters()]).keepStatement(true));
+    }
+
+    /**
+     * Get the number of times the rendered SQL was reused
+     *
+     * @return render cache hits
+     */
+    public long getRenderCacheHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of times the SQL had to be rendered
+     *
+     * This is normally one per dialect, but may be a little higher if several threads
+     * use a new template at the same time.
+     *
+     * @return render cache misses
+     */
+    public long getRenderCacheMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Query that keeps its `PreparedStatement` between executions
+     */
+    public static final class Prepared implements AutoCloseable {
+        private final CloseableResultQuery<Record> query;
+
+        private Prepared(CloseableResultQuery<Record> query) {
+            this.query = query;
+        }
+
+        /**
+         * Set new bind values
+         *
+         * @param bindings bind values, in the order they appear in the SQL
+         * @return query, ready to be fetched
+         */
+        public ResultQuery<Record> bind(Object... bindings) {
+            for (int i = 0; i < bindings.length; i++) {
+                query.bind(i + 1, bindings[i]);
+            }
+            return query;
+        }
+
+        @Override
+        public void close() {
+            query.close();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq;
+
+import org.jooq.DSLContext;
+import org.jooq.RowCountQuery;
+import org.jooq.SQLDialect;
+import org.jooq.Table;
+
+/**
+ * Dialect-specific `TRUNCATE` statements
+ *
+ * | Server                          | Statement                           |
+ * |---------------------------------|-------------------------------------|
+ * | PostgreSQL, YugabyteDB          | `TRUNCATE TABLE t RESTART IDENTITY` |
+ * | MySQL, MariaDB                  | `TRUNCATE TABLE t`                  |
+ * | Db2                             | `TRUNCATE TABLE t IMMEDIATE`        |
+ * | SQL Server, Oracle, ClickHouse  | `TRUNCATE TABLE t`                  |
+ *
+ * `TRUNCATE` is not transactional on MySQL and Oracle - it commits implicitly.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class TruncateStatements {
+
+    private TruncateStatements() {
+    }
+
+    /**
+     * Create a `TRUNCATE` statement for a JDBC connection
+     *
+     * Db2 is only detected (via the driver metadata) when the dialect is `DEFAULT`.
+     *
+     * @param ctx   jOOQ DSLContext
+     * @param table table to truncate
+     * @return truncate statement
+     */
+    public static RowCountQuery truncate(DSLContext ctx, Table<?> table) {
+        final boolean db2 = (ctx.dialect() == SQLDialect.DEFAULT)
+                && ctx.connectionResult(conn -> DialectSupport.isDb2(conn.getMetaData().getDatabaseProductName()));
+        return truncate(ctx, table, db2);
+    }
+
+    /**
+     * Create a `TRUNCATE` statement
+     *
+     * @param ctx   jOOQ DSLContext
+     * @param table table to truncate
+     * @param db2   true if the server is Db2
+     * @return truncate statement. It is also a `Publisher` for R2DBC.
+     */
+    public static RowCountQuery truncate(DSLContext ctx, Table<?> table, boolean db2) {
+        if (db2) {
+            return ctx.query("truncate table {0} immediate", table);
+        }
+
+        if (DialectSupport.supportsTruncateRestartIdentity(ctx.dialect())) {
+            return ctx.truncate(table).restartIdentity();
+        }
+
+        return ctx.truncate(table);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq.bindings;
+
+import com.coyotesong.examples.persistence.jooq.DialectSupport;
+import org.jooq.SQLDialect;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLInput;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.sql.Wrapper;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read and write `TIMESTAMP` values as `LocalDateTime`
+ *
+ * JDBC 4.2 drivers should support `getObject(index, LocalDateTime.class)`, which avoids
+ * both `java.sql.Timestamp` and the time zone arithmetic that goes with it. Not every
+ * driver does, so:
+ *
+ * - dialects that are known to support it (see {@link DialectSupport#supportsJavaTime})
+ *   use it directly
+ * - everything else tries it once per driver class. If it fails and the `Timestamp`
+ *   method works then that driver uses `Timestamp` from then on.
+ *
+ * The `Timestamp` fallback passes a UTC `Calendar` and converts via `Instant` at UTC. UTC
+ * has no DST gaps, so the wall-clock value is preserved in every JVM time zone. Going
+ * through the default time zone would move a value in a spring-forward gap by an hour.
+ */
+@SuppressWarnings("JavadocBlankLines")
+final class JavaTimeAccess {
+    // keyed by the driver's class, not the pool's proxy
+    private static final Map<Class<?>, Boolean> SUPPORTED = new ConcurrentHashMap<>();
+
+    // never given to a driver - drivers may modify the Calendar they're passed
+    private static final Calendar UTC = Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC));
+
+    private JavaTimeAccess() {
+    }
+
+    /**
+     * Find the driver's implementation class
+     *
+     * @param wrapper JDBC object, possibly a connection pool proxy
+     * @param iface   JDBC interface
+     * @return driver class
+     */
+    private static Class<?> driverClass(Wrapper wrapper, Class<?> iface) {
+        try {
+            return wrapper.unwrap(iface).getClass();
+        } catch (SQLException e) {
+            return wrapper.getClass();
+        }
+    }
+
+    private static boolean useJavaTime(Class<?> driver) {
+        return SUPPORTED.getOrDefault(driver, Boolean.TRUE);
+    }
+
+    static LocalDateTime get(SQLDialect dialect, ResultSet resultSet, int index) throws SQLException {
+        if (DialectSupport.supportsJavaTime(dialect)) {
+            return resultSet.getObject(index, LocalDateTime.class);
+        }
+
+        final Class<?> driver = driverClass(resultSet, ResultSet.class);
+        if (useJavaTime(driver)) {
+            try {
+                return resultSet.getObject(index, LocalDateTime.class);
+            } catch (SQLException | AbstractMethodError | UnsupportedOperationException e) {
+                final LocalDateTime value = toLocalDateTime(resultSet.getTimestamp(index, utc()));
+                SUPPORTED.put(driver, Boolean.FALSE);
+                return value;
+            }
+        }
+        return toLocalDateTime(resultSet.getTimestamp(index, utc()));
+    }
+
+    static LocalDateTime get(SQLDialect dialect, CallableStatement statement, int index) throws SQLException {
+        if (DialectSupport.supportsJavaTime(dialect)) {
+            return statement.getObject(index, LocalDateTime.class);
+        }
+
+        final Class<?> driver = driverClass(statement, CallableStatement.class);
+        if (useJavaTime(driver)) {
+            try {
+                return statement.getObject(index, LocalDateTime.class);
+            } catch (SQLException | AbstractMethodError | UnsupportedOperationException e) {
+                final LocalDateTime value = toLocalDateTime(statement.getTimestamp(index, utc()));
+                SUPPORTED.put(driver, Boolean.FALSE);
+                return value;
+            }
+        }
+        return toLocalDateTime(statement.getTimestamp(index, utc()));
+    }
+
+    static void set(SQLDialect dialect, PreparedStatement statement, int index, LocalDateTime value)
+            throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.TIMESTAMP);
+            return;
+        }
+        if (DialectSupport.supportsJavaTime(dialect)) {
+            statement.setObject(index, value);
+            return;
+        }
+
+        final Class<?> driver = driverClass(statement, PreparedStatement.class);
+        if (useJavaTime(driver)) {
+            try {
+                statement.setObject(index, value);
+                return;
+            } catch (SQLException | AbstractMethodError | UnsupportedOperationException e) {
+                statement.setTimestamp(index, toTimestamp(value), utc());
+                SUPPORTED.put(driver, Boolean.FALSE);
+                return;
+            }
+        }
+        statement.setTimestamp(index, toTimestamp(value), utc());
+    }
+
+    static LocalDateTime get(SQLInput input) throws SQLException {
+        // SQLInput has no Calendar variant, so the driver uses the default time zone
+        final Timestamp timestamp = input.readTimestamp();
+        return (timestamp == null) ? null : timestamp.toLocalDateTime();
+    }
+
+    private static Calendar utc() {
+        return (Calendar) UTC.clone();
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return Timestamp.from(value.toInstant(ZoneOffset.UTC));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return (timestamp == null) ? null : LocalDateTime.ofInstant(timestamp.toInstant(), ZoneOffset.UTC);
+    }
+}
@@ -20,30 +20,24 @@ package com.coyotesong.examples.persistence.jooq.bindings;
 import org.jetbrains.annotations.NotNull;
 import org.jooq.*;
 import org.jooq.impl.DefaultBinding;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.io.Serial;
 import java.sql.*;
 import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.time.ZoneOffset;
-import java.util.Calendar;
-import java.util.TimeZone;
 
 /**
  * jOOQ binding between LocalDateTime (jooq database type) and Instant (java type)
+ *
+ * The database value is the UTC wall-clock time. It's read and written as a `LocalDateTime`
+ * with the JDBC 4.2 `getObject()` and `setObject()` methods where the driver supports
+ * them, and via `Timestamp` otherwise. See {@link JavaTimeAccess}.
  */
 public class LocalDateTimeToInstantBinding implements Binding<LocalDateTime, Instant> {
     @Serial
     private static final long serialVersionUID = 1L;
 
-    private static final Logger LOG = LoggerFactory.getLogger(LocalDateTimeToInstantBinding.class);
-
-    private static final ZoneId ZONE_ID_UTC = ZoneOffset.UTC;
-    private static final TimeZone TIMEZONE_UTC = TimeZone.getTimeZone(ZONE_ID_UTC);
-
     private final Converter<LocalDateTime, Instant> converter;
     private final Binding<LocalDateTime, Instant> delegate;
 
@@ -56,9 +50,7 @@ public class LocalDateTimeToInstantBinding implements Binding<LocalDateTime, Ins
             if (localDateTime == null) {
                 return null;
             }
-            Instant instant = localDateTime.atZone(ZONE_ID_UTC).toInstant();
-            LOG.info("from: {} -> {}", localDateTime, instant);
-            return instant;
+            return localDateTime.toInstant(ZoneOffset.UTC);
         }
 
         @Override
@@ -71,9 +63,7 @@ public class LocalDateTimeToInstantBinding implements Binding<LocalDateTime, Ins
             if (instant == null) {
                 return null;
             }
-            LocalDateTime date = LocalDateTime.ofInstant(instant, ZONE_ID_UTC);
-            LOG.info("to: {} -> {}", instant, date);
-            return date;
+            return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
         }
 
         @Override
@@ -121,14 +111,7 @@ public class LocalDateTimeToInstantBinding implements Binding<LocalDateTime, Ins
     @SuppressWarnings("all") // we shouldn't close CallableStatement!
     public void get(BindingGetResultSetContext<Instant> ctx) throws SQLException {
         final ResultSet resultSet = ctx.resultSet();
-        final Calendar calendar = Calendar.getInstance(TIMEZONE_UTC);
-        final Timestamp timestamp = resultSet.getTimestamp(ctx.index(), calendar);
-
-        if (timestamp == null) {
-            ctx.value(null);
-        } else {
-            ctx.value(converter.from(timestamp.toLocalDateTime()));
-        }
+        ctx.value(converter.from(JavaTimeAccess.get(ctx.dialect(), resultSet, ctx.index())));
     }
 
     // Getting a TIMESTAMP value from a JDBC CallableStatement and converting that to an Instant
@@ -136,42 +119,22 @@ public class LocalDateTimeToInstantBinding implements Binding<LocalDateTime, Ins
     @SuppressWarnings("all") // we shouldn't close CallableStatement!
     public void get(BindingGetStatementContext<Instant> ctx) throws SQLException {
         final CallableStatement statement = ctx.statement();
-        final Calendar calendar = Calendar.getInstance(TIMEZONE_UTC);
-        final Timestamp timestamp = statement.getTimestamp(ctx.index(), calendar);
-
-        if (timestamp == null) {
-            ctx.value(null);
-        } else {
-            ctx.value(converter.from(timestamp.toLocalDateTime()));
-        }
+        ctx.value(converter.from(JavaTimeAccess.get(ctx.dialect(), statement, ctx.index())));
     }
 
     // Converting the Instant to a TIMESTAMP value and setting that on a JDBC PreparedStatement
     @Override
     @SuppressWarnings("all") // we shouldn't close PreparedStatement!
     public void set(BindingSetStatementContext<Instant> ctx) throws SQLException {
-        final Instant instant = ctx.value();
         final PreparedStatement statement = ctx.statement();
-
-        if (instant == null) {
-            statement.setNull(ctx.index(), Types.TIMESTAMP);
-        } else {
-            final Calendar calendar = Calendar.getInstance(TIMEZONE_UTC);
-            statement.setTimestamp(ctx.index(), Timestamp.valueOf(converter.to(instant)), calendar);
-        }
+        JavaTimeAccess.set(ctx.dialect(), statement, ctx.index(), converter.to(ctx.value()));
     }
 
     // Getting a value from a JDBC SQLInput
     @Override
     public void get(BindingGetSQLInputContext<Instant> ctx) throws SQLException {
         final SQLInput input = ctx.input();
-        final Timestamp timestamp = input.readTimestamp();
-
-        if (timestamp == null) {
-            ctx.value(null);
-        } else {
-            ctx.value(converter.from(timestamp.toLocalDateTime()));
-        }
+        ctx.value(converter.from(JavaTimeAccess.get(input)));
     }
 
     // Setting a value on a JDBC SQLOutput
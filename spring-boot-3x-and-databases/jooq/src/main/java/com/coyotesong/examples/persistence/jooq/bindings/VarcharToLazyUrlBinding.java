@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq.bindings;
+
+import com.coyotesong.examples.model.LazyUrl;
+import com.coyotesong.examples.repository.cache.UrlCache;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.*;
+import org.jooq.impl.DefaultBinding;
+
+import java.io.Serial;
+import java.net.URL;
+import java.sql.*;
+import java.util.function.Function;
+
+/**
+ * jOOQ binding between String (database type) and LazyUrl (java type)
+ *
+ * The values aren't parsed when they're read, so a row whose URL is never inspected
+ * costs no more than the string. See {@link LazyUrl}.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class VarcharToLazyUrlBinding implements Binding<String, LazyUrl> {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Converter<String, LazyUrl> converter;
+    private final Binding<String, LazyUrl> delegate;
+
+    public static class VarcharToLazyUrlConverter implements ContextConverter<String, LazyUrl> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient Function<String, URL> parser;
+
+        public VarcharToLazyUrlConverter() {
+            this(null);
+        }
+
+        /**
+         * Constructor
+         *
+         * @param cache cache used when the URLs are parsed (may be null)
+         */
+        public VarcharToLazyUrlConverter(UrlCache cache) {
+            // the model doesn't know about the cache, only about a parser
+            this.parser = (cache == null) ? null : cache::get;
+        }
+
+        /**
+         * Convert from {@code String} to {@code LazyUrl}
+         */
+        @Override
+        public LazyUrl from(String url) {
+            return LazyUrl.of(url, parser);
+        }
+
+        @Override
+        public LazyUrl from(String url, ConverterContext converterContext) {
+            return from(url);
+        }
+
+        /**
+         * Convert from {@code LazyUrl} to {@code String}
+         */
+        @Override
+        public String to(LazyUrl userObject) {
+            if (userObject == null) {
+                return null;
+            }
+            return userObject.toString();
+        }
+
+        @Override
+        public String to(LazyUrl url, ConverterContext converterContext) {
+            return to(url);
+        }
+
+        /**
+         * Return the 'from' Type Class (Database Type Class)
+         */
+        @Override
+        @NotNull
+        public Class<String> fromType() {
+            return String.class;
+        }
+
+        /**
+         * Return the 'to' Type Class (User type Class)
+         */
+        @Override
+        @NotNull
+        public Class<LazyUrl> toType() {
+            return LazyUrl.class;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public VarcharToLazyUrlBinding() {
+        this(null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param cache cache used when the URLs are parsed (may be null)
+     */
+    public VarcharToLazyUrlBinding(UrlCache cache) {
+        this.converter = new VarcharToLazyUrlConverter(cache);
+        this.delegate = DefaultBinding.binding(converter);
+    }
+
+    // The converter does all the work
+    @Override
+    @NotNull
+    public Converter<String, LazyUrl> converter() {
+        return converter;
+    }
+
+    // Rending a bind variable for the binding context's value and casting it to the user type
+    @Override
+    public void sql(BindingSQLContext<LazyUrl> ctx) throws SQLException {
+        delegate.sql(ctx);
+    }
+
+    // Registering VARCHAR types for JDBC CallableStatement OUT parameters
+    @Override
+    public void register(BindingRegisterContext<LazyUrl> ctx) throws SQLException {
+        delegate.register(ctx);
+    }
+
+    // Getting a VARCHAR value from a JDBC ResultSet and converting that to a LazyUrl
+    @Override
+    @SuppressWarnings("all") // we shouldn't close resultSet!
+    public void get(BindingGetResultSetContext<LazyUrl> ctx) throws SQLException {
+        final ResultSet resultSet = ctx.resultSet();
+        final String value = resultSet.getString(ctx.index());
+
+        if (value == null) {
+            ctx.value(null);
+        } else {
+            ctx.value(converter.from(value));
+        }
+    }
+
+    // Getting a VARCHAR value from a JDBC CallableStatement and converting that to a LazyUrl
+    @Override
+    @SuppressWarnings("all") // we shouldn't close callableStatement!
+    public void get(BindingGetStatementContext<LazyUrl> ctx) throws SQLException {
+        final CallableStatement statement = ctx.statement();
+        final String value = statement.getString(ctx.index());
+
+        if (value == null) {
+            ctx.value(null);
+        } else {
+            ctx.value(converter.from(value));
+        }
+    }
+
+    // Converting the LazyUrl to a VARCHAR value and setting that on a JDBC PreparedStatement
+    @Override
+    @SuppressWarnings("all") // we shouldn't close preparedStatement!
+    public void set(BindingSetStatementContext<LazyUrl> ctx) throws SQLException {
+        final LazyUrl value = ctx.value();
+        final PreparedStatement statement = ctx.statement();
+
+        if (value == null) {
+            statement.setNull(ctx.index(), Types.VARCHAR);
+        } else {
+            statement.setString(ctx.index(), converter.to(value));
+        }
+    }
+
+    // Getting a value from a JDBC SQLInput
+    @Override
+    public void get(BindingGetSQLInputContext<LazyUrl> ctx) throws SQLException {
+        final SQLInput input = ctx.input();
+        final String value = input.readString();
+
+        if (value == null) {
+            ctx.value(null);
+        } else {
+            ctx.value(converter.from(value));
+        }
+    }
+
+    // Setting a value on a JDBC SQLOutput
+    @Override
+    public void set(BindingSetSQLOutputContext<LazyUrl> ctx) throws SQLException {
+        final SQLOutput output = ctx.output();
+        final LazyUrl url = ctx.value();
+
+        if (url == null) {
+            output.writeString(null);
+        } else {
+            output.writeString(converter.to(url));
+        }
+    }
+}
@@ -17,20 +17,24 @@
 
 package com.coyotesong.examples.persistence.jooq.bindings;
 
+import com.coyotesong.examples.model.LazyUrl;
+import com.coyotesong.examples.repository.cache.UrlCache;
 import org.jetbrains.annotations.NotNull;
 import org.jooq.*;
 import org.jooq.exception.DataTypeException;
 import org.jooq.impl.DefaultBinding;
 
 import java.io.Serial;
-import java.net.MalformedURLException;
-import java.net.URI;
 import java.net.URL;
 import java.sql.*;
 
 /**
  * jOOQ binding between String (database type) and URL (java type)
+ *
+ * Every value is parsed as it's read. Use a {@link UrlCache} if the same URLs appear in
+ * many rows, or {@link VarcharToLazyUrlBinding} if most values are never inspected.
  */
+@SuppressWarnings("JavadocBlankLines")
 public class VarcharToUrlBinding implements Binding<String, URL> {
     @Serial
     private static final long serialVersionUID = 1L;
@@ -42,6 +46,21 @@ public class VarcharToUrlBinding implements Binding<String, URL> {
         @Serial
         private static final long serialVersionUID = 1L;
 
+        private final transient UrlCache cache;
+
+        public VarcharToUrlConverter() {
+            this(null);
+        }
+
+        /**
+         * Constructor
+         *
+         * @param cache cache of parsed URLs (may be null)
+         */
+        public VarcharToUrlConverter(UrlCache cache) {
+            this.cache = cache;
+        }
+
         /**
          * Convert from {@code String} to {@code URL}
          */
@@ -51,8 +70,8 @@ public class VarcharToUrlBinding implements Binding<String, URL> {
                 return null;
             }
             try {
-                return URI.create(url).toURL();
-            } catch (MalformedURLException e) {
+                return (cache == null) ? LazyUrl.parse(url) : cache.get(url);
+            } catch (IllegalArgumentException e) {
                 throw new DataTypeException(String.format(
                         "Content is mot a valid URL: '%s' : %s", url, e.getMessage()));
             }
@@ -100,7 +119,16 @@ public class VarcharToUrlBinding implements Binding<String, URL> {
 
     @SuppressWarnings("unused")
     public VarcharToUrlBinding() {
-        this.converter = new VarcharToUrlConverter();
+        this(null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param cache cache of parsed URLs (may be null)
+     */
+    public VarcharToUrlBinding(UrlCache cache) {
+        this.converter = new VarcharToUrlConverter(cache);
         this.delegate = DefaultBinding.binding(converter);
     }
 
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq.copy;
+
+/**
+ * PostgreSQL `COPY` formats
+ *
+ * See [COPY](https://www.postgresql.org/docs/current/sql-copy.html)
+ */
+@SuppressWarnings("JavadocLinkAsPlainText")
+public enum CopyFormat {
+    TEXT("text"),
+    CSV("csv"),
+    BINARY("binary");
+
+    private final String option;
+
+    CopyFormat(String option) {
+        this.option = option;
+    }
+
+    /**
+     * Get the value used in the `COPY ... WITH (FORMAT ...)` clause
+     *
+     * @return format option
+     */
+    public String getOption() {
+        return option;
+    }
+}
@@ -0,0 +1,564 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq.copy;
+
+import com.coyotesong.examples.containers.enhancements.GuestOSDetailsHelper;
+import org.jooq.ConnectionProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Bulk loader that loads partitions of the input concurrently
+ *
+ * A single `COPY` is limited by one server backend, so a large load can't saturate the
+ * server. This class splits the input into `parallelism` partitions and gives each one
+ * its own connection and worker thread. Each worker makes a single call to the
+ * {@link PartitionLoader}, e.g., the repository's `load()`, so each partition uses the
+ * fastest path available for the dialect.
+ *
+ * The input is only read once, by the calling thread. Rows are handed to the workers in
+ * chunks through bounded queues, so memory use is bounded and a slow partition slows down
+ * the reader instead of filling the heap.
+ *
+ * Each partition is loaded in its own transaction. If a partition fails the others are
+ * stopped and rolled back, but partitions that have already committed are not. The failures
+ * are reported in partition order.
+ *
+ * @param <T> model type
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class ParallelLoader<T> {
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelLoader.class);
+
+    public static final int DEFAULT_CHUNK_SIZE = 1_000;
+    public static final int DEFAULT_QUEUE_DEPTH = 4;
+
+    // how often a blocked reader or worker checks whether the load has been abandoned
+    private static final long POLL_MILLIS = 100L;
+
+    /**
+     * Loads a single partition on the supplied connection
+     *
+     * @param <T> model type
+     */
+    @FunctionalInterface
+    public interface PartitionLoader<T> {
+
+        /**
+         * Load a partition
+         *
+         * @param conn     connection reserved for this partition
+         * @param rows     rows in the partition. This can only be iterated once.
+         * @param listener progress listener
+         * @return number of rows loaded
+         * @throws Exception a problem occurred
+         */
+        long load(Connection conn, Iterable<T> rows, CopyProgressListener listener) throws Exception;
+    }
+
+    /**
+     * Picks the partition for a row
+     *
+     * @param <T> model type
+     */
+    @FunctionalInterface
+    public interface Partitioner<T> {
+
+        /**
+         * Pick a partition
+         *
+         * @param row        row
+         * @param partitions number of partitions
+         * @return partition, in `[0, partitions)`
+         */
+        int partition(T row, int partitions);
+
+        /**
+         * Keep rows with the same key (e.g., `hl`) in the same partition
+         *
+         * @param key key extractor
+         * @param <T> model type
+         * @return partitioner
+         */
+        static <T> Partitioner<T> byKey(Function<? super T, ?> key) {
+            return (row, partitions) -> Math.floorMod(spread(Objects.hashCode(key.apply(row))), partitions);
+        }
+
+        /**
+         * Spread rows by their hash code
+         *
+         * @param <T> model type
+         * @return partitioner
+         */
+        static <T> Partitioner<T> byHash() {
+            return (row, partitions) -> Math.floorMod(spread(row.hashCode()), partitions);
+        }
+
+        /**
+         * Mix the bits of a hash code so similar keys land in different partitions
+         *
+         * @param h hash code
+         * @return mixed hash code
+         */
+        private static int spread(int h) {
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            return h;
+        }
+    }
+
+    /**
+     * Results for a single partition
+     *
+     * @param partition partition number
+     * @param rows      number of rows loaded, or sent before the failure
+     * @param bytes     number of bytes sent, or -1 if the loader doesn't report it
+     * @param elapsed   time spent loading
+     * @param failure   failure, or null
+     */
+    public record WorkerReport(int partition, long rows, long bytes, Duration elapsed, Throwable failure) {
+
+        /**
+         * Get the throughput
+         *
+         * @return rows per second
+         */
+        public double rowsPerSecond() {
+            final long nanos = elapsed.toNanos();
+            return (nanos == 0L) ? 0.0 : rows * 1_000_000_000.0 / nanos;
+        }
+    }
+
+    /**
+     * Results for the whole load
+     *
+     * @param workers results for each partition, in partition order
+     * @param elapsed total time
+     */
+    public record Report(List<WorkerReport> workers, Duration elapsed) {
+
+        /**
+         * Get the total number of rows loaded
+         *
+         * @return number of rows
+         */
+        public long rows() {
+            return workers.stream().mapToLong(WorkerReport::rows).sum();
+        }
+
+        /**
+         * Get the overall throughput
+         *
+         * @return rows per second
+         */
+        public double rowsPerSecond() {
+            final long nanos = elapsed.toNanos();
+            return (nanos == 0L) ? 0.0 : rows() * 1_000_000_000.0 / nanos;
+        }
+    }
+
+    /**
+     * One or more partitions failed
+     *
+     * The cause is the failure of the lowest-numbered partition. The other failures are
+     * suppressed exceptions, in partition order. Partitions that were stopped because of
+     * these failures are only listed in the report.
+     */
+    public static class ParallelLoadException extends RuntimeException {
+        private final transient Report report;
+
+        ParallelLoadException(Report report, List<WorkerReport> failures) {
+            super(String.format("%d of %d partitions failed, first failure in partition %d",
+                    failures.size(), report.workers().size(), failures.get(0).partition()),
+                    failures.get(0).failure());
+            this.report = report;
+            for (int i = 1; i < failures.size(); i++) {
+                addSuppressed(failures.get(i).failure());
+            }
+        }
+
+        public Report getReport() {
+            return report;
+        }
+    }
+
+    /**
+     * Thrown to a worker when another partition (or the source) has failed
+     */
+    private static final class PartitionAbandonedException extends IllegalStateException {
+        PartitionAbandonedException(int partition) {
+            super("partition " + partition + " abandoned");
+        }
+    }
+
+    private final ConnectionProvider connectionProvider;
+    private final PartitionLoader<T> loader;
+    private final Partitioner<? super T> partitioner;
+
+    // this machine's CPUs - see withParallelism(GuestOSDetailsHelper) for the server's
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int queueDepth = DEFAULT_QUEUE_DEPTH;
+
+    /**
+     * Constructor
+     *
+     * @param connectionProvider source of connections, normally backed by a pool with at
+     *                           least `parallelism` connections
+     * @param loader             loads a single partition
+     * @param partitioner        picks the partition for each row
+     */
+    public ParallelLoader(ConnectionProvider connectionProvider, PartitionLoader<T> loader,
+                          Partitioner<? super T> partitioner) {
+        this.connectionProvider = connectionProvider;
+        this.loader = loader;
+        this.partitioner = partitioner;
+    }
+
+    /**
+     * Get the default parallelism - the number of CPUs on the database server
+     *
+     * @param guestOSDetails details about the database server
+     * @return number of CPUs on the server, or on this machine if the server's is unknown
+     */
+    public static int defaultParallelism(GuestOSDetailsHelper<?> guestOSDetails) {
+        final int cpus = (guestOSDetails == null) ? 0 : guestOSDetails.getCpuCount();
+        return (cpus > 0) ? cpus : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Set the number of partitions to the number of CPUs on the database server
+     *
+     * @param guestOSDetails details about the database server
+     * @return this object
+     * @see #defaultParallelism(GuestOSDetailsHelper)
+     */
+    public ParallelLoader<T> withParallelism(GuestOSDetailsHelper<?> guestOSDetails) {
+        return withParallelism(defaultParallelism(guestOSDetails));
+    }
+
+    /**
+     * Set the number of partitions, each with its own connection
+     *
+     * @param parallelism number of partitions
+     * @return this object
+     */
+    public ParallelLoader<T> withParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Set the number of rows handed to a worker at a time
+     *
+     * @param chunkSize number of rows
+     * @return this object
+     */
+    public ParallelLoader<T> withChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Set the number of chunks that may wait for each worker
+     *
+     * @param queueDepth number of chunks
+     * @return this object
+     */
+    public ParallelLoader<T> withQueueDepth(int queueDepth) {
+        if (queueDepth < 1) {
+            throw new IllegalArgumentException("queueDepth must be positive");
+        }
+        this.queueDepth = queueDepth;
+        return this;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Load the rows
+     *
+     * @param rows rows to load
+     * @return report
+     * @throws ParallelLoadException one or more partitions failed
+     */
+    public Report load(Iterable<? extends T> rows) {
+        final long start = System.nanoTime();
+        final AtomicBoolean abandoned = new AtomicBoolean();
+        final List<Worker> workers = new ArrayList<>(parallelism);
+        final List<Future<WorkerReport>> futures = new ArrayList<>(parallelism);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+            for (int i = 0; i < parallelism; i++) {
+                final Worker worker = new Worker(i, abandoned);
+                workers.add(worker);
+                futures.add(executor.submit(worker::run));
+            }
+
+            try {
+                distribute(rows, workers, abandoned);
+            } catch (RuntimeException e) {
+                // the source failed - stop the workers and report it
+                abandoned.set(true);
+                throw e;
+            }
+        }
+
+        final List<WorkerReport> reports = new ArrayList<>(parallelism);
+        for (Future<WorkerReport> future : futures) {
+            try {
+                reports.add(future.get());
+            } catch (ExecutionException e) {
+                // Worker.run() doesn't throw
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+
+        final Report report = new Report(List.copyOf(reports), Duration.ofNanos(System.nanoTime() - start));
+        // workers that were stopped because of another failure are in the report but aren't failures
+        final List<WorkerReport> failures = reports.stream()
+                .filter(r -> (r.failure() != null) && !isAbandoned(r.failure()))
+                .toList();
+        if (!failures.isEmpty()) {
+            throw new ParallelLoadException(report, failures);
+        }
+
+        for (WorkerReport worker : reports) {
+            LOG.debug("partition {}: {} rows, {} bytes, {} ms, {} rows/s", worker.partition(), worker.rows(),
+                    worker.bytes(), worker.elapsed().toMillis(), Math.round(worker.rowsPerSecond()));
+        }
+        return report;
+    }
+
+    /**
+     * Check whether a worker was stopped because of a failure elsewhere
+     *
+     * @param failure worker's failure, possibly wrapped by the partition loader
+     * @return true if the worker was abandoned
+     */
+    private static boolean isAbandoned(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof PartitionAbandonedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Read the source and hand the rows to the workers
+     *
+     * @param rows      rows to load
+     * @param workers   workers, indexed by partition
+     * @param abandoned set when a worker fails
+     */
+    private void distribute(Iterable<? extends T> rows, List<Worker> workers, AtomicBoolean abandoned) {
+        final List<List<T>> chunks = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            chunks.add(new ArrayList<>(chunkSize));
+        }
+
+        for (T row : rows) {
+            final int partition = partitioner.partition(row, parallelism);
+            final List<T> chunk = chunks.get(partition);
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                if (!workers.get(partition).offer(List.copyOf(chunk))) {
+                    break;
+                }
+                chunk.clear();
+            }
+        }
+
+        for (int i = 0; i < parallelism; i++) {
+            final List<T> chunk = chunks.get(i);
+            if (!abandoned.get() && !chunk.isEmpty()) {
+                workers.get(i).offer(List.copyOf(chunk));
+            }
+            workers.get(i).offer(List.of());
+        }
+    }
+
+    /**
+     * Loads one partition from its queue
+     *
+     * An empty chunk marks the end of the partition.
+     */
+    private final class Worker implements Iterable<T> {
+        private final int partition;
+        private final AtomicBoolean abandoned;
+        private final BlockingQueue<List<T>> queue = new ArrayBlockingQueue<>(queueDepth);
+
+        private volatile long rows;
+        private volatile long bytes = -1L;
+
+        Worker(int partition, AtomicBoolean abandoned) {
+            this.partition = partition;
+            this.abandoned = abandoned;
+        }
+
+        /**
+         * Hand a chunk to the worker, waiting for space in the queue
+         *
+         * @param chunk chunk
+         * @return false if the load has been abandoned
+         */
+        boolean offer(List<T> chunk) {
+            try {
+                while (!abandoned.get()) {
+                    if (queue.offer(chunk, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abandoned.set(true);
+            }
+            return false;
+        }
+
+        WorkerReport run() {
+            final long start = System.nanoTime();
+            Throwable failure = null;
+            Connection conn = null;
+            try {
+                conn = connectionProvider.acquire();
+                rows = loadInTransaction(conn);
+            } catch (Throwable e) {
+                failure = e;
+                abandoned.set(true);
+            } finally {
+                if (conn != null) {
+                    connectionProvider.release(conn);
+                }
+                queue.clear();
+            }
+            return new WorkerReport(partition, rows, bytes, Duration.ofNanos(System.nanoTime() - start), failure);
+        }
+
+        /**
+         * Load the partition in a single transaction
+         *
+         * @param conn connection
+         * @return number of rows loaded
+         * @throws Exception a problem occurred
+         */
+        private long loadInTransaction(Connection conn) throws Exception {
+            final boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                final long count = loader.load(conn, this, (sent, size) -> {
+                    rows = sent;
+                    bytes = size;
+                });
+                conn.commit();
+                return count;
+            } catch (Exception e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+
+        /**
+         * Iterate over the rows handed to this worker
+         *
+         * The iterator throws an exception if the load is abandoned so the partition
+         * loader rolls back instead of committing a partial partition.
+         *
+         * @return iterator
+         */
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<>() {
+                private Iterator<T> current = List.<T>of().iterator();
+                private boolean done;
+
+                @Override
+                public boolean hasNext() {
+                    while (!done && !current.hasNext()) {
+                        final List<T> chunk = take();
+                        if (chunk.isEmpty()) {
+                            done = true;
+                        } else {
+                            current = chunk.iterator();
+                        }
+                    }
+                    return !done;
+                }
+
+                @Override
+                public T next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return current.next();
+                }
+            };
+        }
+
+        private List<T> take() {
+            try {
+                while (!abandoned.get()) {
+                    final List<T> chunk = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (chunk != null) {
+                        return chunk;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new PartitionAbandonedException(partition);
+        }
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq.copy;
+
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.SQLDialect;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming bulk loader using PostgreSQL's `COPY ... FROM STDIN`
+ *
+ * The rows are encoded into a fixed-size buffer that is flushed to the server as it
+ * fills so memory use is bounded by the buffer size, not the number of rows. The
+ * objects can be sent in text, csv, or binary format. Pre-formatted sources (e.g.,
+ * a CSV file) can also be sent as-is.
+ *
+ * This class is not thread-safe but it can be reused.
+ *
+ * See [COPY](https://www.postgresql.org/docs/current/sql-copy.html)
+ *
+ * @param <T> model type
+ */
+@SuppressWarnings({"JavadocBlankLines", "JavadocLinkAsPlainText"})
+public class PostgresCopyLoader<T> {
+    private static final Logger LOG = LoggerFactory.getLogger(PostgresCopyLoader.class);
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    public static final long DEFAULT_PROGRESS_INTERVAL = 10_000L;
+
+    // used to render identifiers
+    private static final DSLContext POSTGRES = DSL.using(SQLDialect.POSTGRES);
+
+    // 'PGCOPY\n\377\r\n\0' followed by 32-bit flags and 32-bit header extension length
+    private static final byte[] BINARY_SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+
+    /**
+     * Database column and the function that extracts its value from the model
+     *
+     * @param field database column
+     * @param value value extractor
+     * @param <T>   model type
+     */
+    public record Column<T>(Field<String> field, Function<? super T, String> value) {
+    }
+
+    private final Table<?> table;
+    private final List<Column<T>> columns;
+
+    private CopyFormat format = CopyFormat.TEXT;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private long progressInterval = DEFAULT_PROGRESS_INTERVAL;
+    private CopyProgressListener listener = (rows, bytes) -> LOG.debug("copy: {} rows, {} bytes", rows, bytes);
+
+    /**
+     * Constructor
+     *
+     * @param table   target table
+     * @param columns target columns, in the order they are sent
+     */
+    public PostgresCopyLoader(Table<?> table, List<Column<T>> columns) {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("at least one column is required");
+        }
+        this.table = table;
+        this.columns = List.copyOf(columns);
+    }
+
+    /**
+     * Set the COPY format (default: text)
+     *
+     * @param format COPY format
+     * @return this object
+     */
+    public PostgresCopyLoader<T> withFormat(CopyFormat format) {
+        this.format = format;
+        return this;
+    }
+
+    /**
+     * Set the size of the buffer flushed to the server
+     *
+     * @param bufferSize buffer size, in bytes
+     * @return this object
+     */
+    public PostgresCopyLoader<T> withBufferSize(int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be positive");
+        }
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * Set the number of rows between progress reports
+     *
+     * @param progressInterval number of rows
+     * @return this object
+     */
+    public PostgresCopyLoader<T> withProgressInterval(long progressInterval) {
+        if (progressInterval < 1) {
+            throw new IllegalArgumentException("progressInterval must be positive");
+        }
+        this.progressInterval = progressInterval;
+        return this;
+    }
+
+    /**
+     * Set the progress listener
+     *
+     * @param listener progress listener
+     * @return this object
+     */
+    public PostgresCopyLoader<T> withProgressListener(CopyProgressListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Get the `COPY` statement
+     *
+     * @return SQL statement
+     */
+    public String getCopySql() {
+        return String.format("COPY %s (%s) FROM STDIN WITH (FORMAT %s)",
+                POSTGRES.render(table),
+                columns.stream()
+                        .map(column -> POSTGRES.render(column.field().getUnqualifiedName()))
+                        .collect(Collectors.joining(", ")),
+                format.getOption());
+    }
+
+    /**
+     * Stream objects to the database
+     *
+     * The connection must be a PostgreSQL connection, or a pool wrapper around one.
+     *
+     * @param conn database connection
+     * @param rows objects to load
+     * @return number of rows copied
+     * @throws SQLException a database problem occurred
+     * @throws IOException  a problem occurred while encoding the objects
+     */
+    public long load(Connection conn, Iterable<? extends T> rows) throws SQLException, IOException {
+        final PGCopyOutputStream out = new PGCopyOutputStream(conn.unwrap(PGConnection.class), getCopySql(), bufferSize);
+        try {
+            final RowWriter writer = (format == CopyFormat.BINARY) ? new BinaryRowWriter(out) : new TextRowWriter(out);
+
+            writer.begin();
+            long count = 0;
+            for (T row : rows) {
+                writer.write(row);
+                count++;
+                if ((count % progressInterval) == 0) {
+                    listener.progress(count, writer.bytes());
+                }
+            }
+            writer.end();
+
+            final long copied = out.endCopy();
+            listener.progress(copied, writer.bytes());
+            return copied;
+        } catch (IOException | SQLException | RuntimeException e) {
+            cancel(out, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Stream a pre-formatted source (e.g., a CSV file) to the database
+     *
+     * The source must already be in the configured format.
+     *
+     * @param conn   database connection
+     * @param source pre-formatted data
+     * @return number of rows copied
+     * @throws SQLException a database problem occurred
+     * @throws IOException  a problem occurred while reading the source
+     */
+    public long load(Connection conn, InputStream source) throws SQLException, IOException {
+        final CountingInputStream counter = new CountingInputStream(source);
+        final long copied = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(getCopySql(), counter, bufferSize);
+        listener.progress(copied, counter.bytes);
+        return copied;
+    }
+
+    /**
+     * Cancel an active copy, retaining the original exception
+     *
+     * @param out copy stream
+     * @param e   original exception
+     */
+    private static void cancel(PGCopyOutputStream out, Exception e) {
+        if (out.isActive()) {
+            try {
+                out.cancelCopy();
+            } catch (SQLException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+        }
+    }
+
+    /**
+     * Encoder for a single COPY format
+     */
+    private abstract class RowWriter {
+        protected long bytes;
+
+        void begin() throws IOException {
+        }
+
+        abstract void write(T row) throws IOException;
+
+        void end() throws IOException {
+        }
+
+        long bytes() {
+            return bytes;
+        }
+    }
+
+    /**
+     * Encoder for the text and csv formats
+     */
+    private final class TextRowWriter extends RowWriter {
+        private final PGCopyOutputStream out;
+        private final StringBuilder sb = new StringBuilder(256);
+
+        TextRowWriter(PGCopyOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        void write(T row) throws IOException {
+            sb.setLength(0);
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    sb.append((format == CopyFormat.CSV) ? ',' : '\t');
+                }
+                final String value = columns.get(i).value().apply(row);
+                if (format == CopyFormat.CSV) {
+                    appendCsv(value);
+                } else {
+                    appendText(value);
+                }
+            }
+            sb.append('\n');
+
+            final byte[] encoded = sb.toString().getBytes(StandardCharsets.UTF_8);
+            out.write(encoded);
+            bytes += encoded.length;
+        }
+
+        private void appendText(String value) {
+            if (value == null) {
+                sb.append("\\N");
+                return;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                switch (c) {
+                    case '\\' -> sb.append("\\\\");
+                    case '\n' -> sb.append("\\n");
+                    case '\r' -> sb.append("\\r");
+                    case '\t' -> sb.append("\\t");
+                    default -> sb.append(c);
+                }
+            }
+        }
+
+        private void appendCsv(String value) {
+            // an unquoted empty value is NULL
+            if (value != null) {
+                sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+            }
+        }
+    }
+
+    /**
+     * Encoder for the binary format
+     *
+     * All columns are sent as text so the value is the UTF-8 encoded string.
+     */
+    private final class BinaryRowWriter extends RowWriter {
+        private final DataOutputStream out;
+
+        BinaryRowWriter(PGCopyOutputStream out) {
+            this.out = new DataOutputStream(out);
+        }
+
+        @Override
+        void begin() throws IOException {
+            out.write(BINARY_SIGNATURE);
+            out.writeInt(0);    // flags
+            out.writeInt(0);    // header extension length
+            bytes += BINARY_SIGNATURE.length + 8;
+        }
+
+        @Override
+        void write(T row) throws IOException {
+            out.writeShort(columns.size());
+            bytes += 2;
+            for (Column<T> column : columns) {
+                final String value = column.value().apply(row);
+                if (value == null) {
+                    out.writeInt(-1);
+                    bytes += 4;
+                } else {
+                    final byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(encoded.length);
+                    out.write(encoded);
+                    bytes += 4 + encoded.length;
+                }
+            }
+        }
+
+        @Override
+        void end() throws IOException {
+            out.writeShort(-1);
+            out.flush();
+            bytes += 2;
+        }
+    }
+
+    /**
+     * InputStream that counts the bytes read
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long bytes;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b >= 0) {
+                bytes++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int n = super.read(b, off, len);
+            if (n > 0) {
+                bytes += n;
+            }
+            return n;
+        }
+    }
+}
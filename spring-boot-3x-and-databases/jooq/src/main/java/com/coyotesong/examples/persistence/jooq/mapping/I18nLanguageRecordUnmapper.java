@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq.mapping;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.persistence.jooq.generated.tables.records.I18nLanguageRecord;
+import org.jooq.RecordUnmapper;
+
+/**
+ * Reflection-free RecordUnmapper for I18nLanguage
+ */
+public final class I18nLanguageRecordUnmapper implements RecordUnmapper<I18nLanguage, I18nLanguageRecord> {
+    public static final I18nLanguageRecordUnmapper INSTANCE = new I18nLanguageRecordUnmapper();
+
+    private I18nLanguageRecordUnmapper() {
+    }
+
+    @Override
+    public I18nLanguageRecord unmap(I18nLanguage language) {
+        return new I18nLanguageRecord(language.getKey(), language.getCode(), language.getHl(), language.getName());
+    }
+}
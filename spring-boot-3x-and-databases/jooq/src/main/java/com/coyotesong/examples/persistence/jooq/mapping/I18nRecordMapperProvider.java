@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq.mapping;
+
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.model.I18nRegion;
+import org.jooq.Configuration;
+import org.jooq.Record;
+import org.jooq.RecordMapper;
+import org.jooq.RecordMapperProvider;
+import org.jooq.RecordType;
+import org.jooq.RecordUnmapper;
+import org.jooq.RecordUnmapperProvider;
+import org.jooq.impl.DefaultRecordMapperProvider;
+import org.jooq.impl.DefaultRecordUnmapperProvider;
+
+/**
+ * Provide the reflection-free mappers to jOOQ
+ *
+ * Registering this with the jOOQ configuration means that `fetchInto(I18nLanguage.class)`,
+ * the DAO methods, etc., also avoid the reflective `DefaultRecordMapper`. Everything else
+ * is passed to jOOQ's default providers.
+ *
+ * ```java
+ * final I18nRecordMapperProvider provider = new I18nRecordMapperProvider(config);
+ * config.set((RecordMapperProvider) provider);
+ * config.set((RecordUnmapperProvider) provider);
+ * ```
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class I18nRecordMapperProvider implements RecordMapperProvider, RecordUnmapperProvider {
+    private final RecordMapperProvider mappers;
+    private final RecordUnmapperProvider unmappers;
+
+    /**
+     * Constructor
+     *
+     * @param configuration jOOQ configuration used by the default providers
+     */
+    public I18nRecordMapperProvider(Configuration configuration) {
+        // the constructors that take a configuration are protected
+        this.mappers = new DefaultRecordMapperProvider(configuration) {
+        };
+        this.unmappers = new DefaultRecordUnmapperProvider(configuration) {
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R extends Record, E> RecordMapper<R, E> provide(RecordType<R> recordType, Class<? extends E> type) {
+        if ((type == I18nLanguage.class) && I18nLanguageRecordMapper.supports(recordType)) {
+            return (RecordMapper<R, E>) I18nLanguageRecordMapper.INSTANCE;
+        }
+        if ((type == I18nRegion.class) && I18nRegionRecordMapper.supports(recordType)) {
+            return (RecordMapper<R, E>) I18nRegionRecordMapper.INSTANCE;
+        }
+        return mappers.provide(recordType, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <E, R extends Record> RecordUnmapper<E, R> provide(Class<? extends E> type, RecordType<R> recordType) {
+        if ((type == I18nLanguage.class) && I18nLanguageRecordMapper.supports(recordType)) {
+            return (RecordUnmapper<E, R>) I18nLanguageRecordUnmapper.INSTANCE;
+        }
+        if ((type == I18nRegion.class) && I18nRegionRecordMapper.supports(recordType)) {
+            return (RecordUnmapper<E, R>) I18nRegionRecordUnmapper.INSTANCE;
+        }
+        return unmappers.provide(type, recordType);
+    }
+}
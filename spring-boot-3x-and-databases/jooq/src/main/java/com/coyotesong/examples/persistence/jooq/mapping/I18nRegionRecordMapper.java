@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq.mapping;
+
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.repository.cache.StringPool;
+import org.jooq.Record;
+import org.jooq.RecordMapper;
+import org.jooq.RecordType;
+
+import static com.coyotesong.examples.persistence.jooq.generated.tables.I18nRegion.I18N_REGION;
+
+/**
+ * Reflection-free RecordMapper for I18nRegion
+ *
+ * The values are read by field index, so the record must have the same fields in the same
+ * order as the `i18n_region` table, e.g., from `selectFrom(I18N_REGION)`. Use
+ * {@link #supports(RecordType)} to check other records.
+ *
+ * The `code`, `hl` and `gl` values are passed through a {@link StringPool} so rows share
+ * one instance of each value instead of holding their own copies.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class I18nRegionRecordMapper implements RecordMapper<Record, I18nRegion> {
+    public static final I18nRegionRecordMapper INSTANCE = new I18nRegionRecordMapper(StringPool.CODES);
+
+    private static final int KEY = I18N_REGION.indexOf(I18N_REGION.KEY);
+    private static final int CODE = I18N_REGION.indexOf(I18N_REGION.CODE);
+    private static final int HL = I18N_REGION.indexOf(I18N_REGION.HL);
+    private static final int NAME = I18N_REGION.indexOf(I18N_REGION.NAME);
+    private static final int GL = I18N_REGION.indexOf(I18N_REGION.GL);
+
+    private final StringPool codes;
+
+    private I18nRegionRecordMapper(StringPool codes) {
+        this.codes = codes;
+    }
+
+    /**
+     * Create a mapper that uses a specific pool
+     *
+     * @param codes pool for the codes, or `StringPool.NONE` to keep each row's own copies
+     * @return record mapper
+     */
+    public static I18nRegionRecordMapper using(StringPool codes) {
+        return new I18nRegionRecordMapper(codes);
+    }
+
+    /**
+     * Can records of this type be mapped by index?
+     *
+     * @param recordType record type
+     * @return true if the fields have the same names, in the same order, as the table
+     */
+    public static boolean supports(RecordType<?> recordType) {
+        return RecordTypes.matches(recordType, I18N_REGION);
+    }
+
+    @Override
+    public I18nRegion map(Record record) {
+        final I18nRegion region = new I18nRegion();
+        region.setKey(record.get(KEY, Integer.class));
+        region.setCode(codes.canonicalize(record.get(CODE, String.class)));
+        region.setHl(codes.canonicalize(record.get(HL, String.class)));
+        region.setName(record.get(NAME, String.class));
+        region.setGl(codes.canonicalize(record.get(GL, String.class)));
+        return region;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq.mapping;
+
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.persistence.jooq.generated.tables.records.I18nRegionRecord;
+import org.jooq.RecordUnmapper;
+
+/**
+ * Reflection-free RecordUnmapper for I18nRegion
+ */
+public final class I18nRegionRecordUnmapper implements RecordUnmapper<I18nRegion, I18nRegionRecord> {
+    public static final I18nRegionRecordUnmapper INSTANCE = new I18nRegionRecordUnmapper();
+
+    private I18nRegionRecordUnmapper() {
+    }
+
+    @Override
+    public I18nRegionRecord unmap(I18nRegion region) {
+        return new I18nRegionRecord(region.getKey(), region.getCode(), region.getHl(), region.getName(), region.getGl());
+    }
+}
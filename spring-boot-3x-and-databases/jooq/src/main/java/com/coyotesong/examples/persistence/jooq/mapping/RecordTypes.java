@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq.mapping;
+
+import org.jooq.Field;
+import org.jooq.RecordType;
+import org.jooq.Table;
+
+/**
+ * Record type checks for the index-based mappers
+ */
+final class RecordTypes {
+
+    private RecordTypes() {
+    }
+
+    /**
+     * Does the record type have the table's fields, in the same order?
+     *
+     * @param recordType record type
+     * @param table      table
+     * @return true if the field names match
+     */
+    static boolean matches(RecordType<?> recordType, Table<?> table) {
+        final Field<?>[] fields = table.fields();
+        if (recordType.size() != fields.length) {
+            return false;
+        }
+
+        for (int i = 0; i < fields.length; i++) {
+            if (!fields[i].getName().equalsIgnoreCase(recordType.field(i).getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
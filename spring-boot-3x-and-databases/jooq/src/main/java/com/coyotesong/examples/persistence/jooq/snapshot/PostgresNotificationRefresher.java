@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq.snapshot;
+
+import com.coyotesong.examples.repository.snapshot.Refreshable;
+import org.jooq.ConnectionProvider;
+import org.jooq.exception.DataAccessException;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Refresh snapshots when PostgreSQL sends a change notification
+ *
+ * The triggers added in `V5__postgres-yt-notify-triggers.sql` send a `NOTIFY` on
+ * {@link #CHANNEL} with the table name as the payload. This object holds a dedicated
+ * connection that `LISTEN`s on that channel and refreshes the matching targets.
+ *
+ * If the connection is lost it is reacquired with exponential backoff and every target
+ * is refreshed, since notifications sent while we were disconnected are lost.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class PostgresNotificationRefresher implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(PostgresNotificationRefresher.class);
+
+    public static final String CHANNEL = "i18n_changed";
+
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+    private static final long MIN_BACKOFF_MILLIS = 500L;
+    private static final long MAX_BACKOFF_MILLIS = 30_000L;
+
+    private final ConnectionProvider provider;
+    private final Map<String, Refreshable> targets;
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    private Connection connection;
+    private PGConnection pgConnection;
+
+    /**
+     * Constructor. Starts listening immediately.
+     *
+     * @param provider connection provider
+     * @param targets  objects to refresh, keyed by table name
+     * @throws DataAccessException if the server does not support `LISTEN`
+     */
+    public PostgresNotificationRefresher(ConnectionProvider provider, Map<String, ? extends Refreshable> targets) {
+        this.provider = provider;
+        this.targets = Map.copyOf(targets);
+
+        try {
+            connect();
+        } catch (SQLException e) {
+            disconnect();
+            throw new DataAccessException("unable to LISTEN on " + CHANNEL, e);
+        }
+
+        this.thread = Thread.ofPlatform().name("i18n-snapshot-listener").daemon().start(this::run);
+    }
+
+    private void connect() throws SQLException {
+        connection = provider.acquire();
+        // required since the NOTIFY is only received outside of a transaction
+        connection.setAutoCommit(true);
+        pgConnection = connection.unwrap(PGConnection.class);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("LISTEN " + CHANNEL);
+        }
+    }
+
+    private void disconnect() {
+        if (connection != null) {
+            try {
+                provider.release(connection);
+            } catch (DataAccessException e) {
+                LOG.debug("unable to release connection: {}", e.getMessage());
+            }
+            connection = null;
+            pgConnection = null;
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                try {
+                    final PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        dispatch(notifications);
+                    }
+                } catch (SQLException e) {
+                    if (running) {
+                        LOG.warn("lost notification connection: {}", e.getMessage());
+                        reconnect();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            disconnect();
+        }
+    }
+
+    /**
+     * Refresh each affected target once, no matter how many notifications it received
+     *
+     * @param notifications notifications
+     */
+    private void dispatch(PGNotification[] notifications) {
+        final Set<String> tables = new LinkedHashSet<>();
+        for (PGNotification notification : notifications) {
+            if (CHANNEL.equals(notification.getName())) {
+                tables.add(notification.getParameter());
+            }
+        }
+
+        for (String table : tables) {
+            final Refreshable target = targets.get(table);
+            if (target != null) {
+                refresh(target);
+            }
+        }
+    }
+
+    private void reconnect() throws InterruptedException {
+        disconnect();
+        long backoff = MIN_BACKOFF_MILLIS;
+        while (running) {
+            Thread.sleep(backoff);
+            try {
+                connect();
+                targets.values().forEach(PostgresNotificationRefresher::refresh);
+                return;
+            } catch (SQLException | DataAccessException e) {
+                LOG.debug("unable to reconnect: {}", e.getMessage());
+                disconnect();
+                backoff = Math.min(2 * backoff, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    private static void refresh(Refreshable target) {
+        try {
+            target.refresh();
+        } catch (RuntimeException e) {
+            LOG.warn("snapshot refresh failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(2L * POLL_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
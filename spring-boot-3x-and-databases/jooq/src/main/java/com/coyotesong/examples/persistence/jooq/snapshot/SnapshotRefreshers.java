@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.jooq.snapshot;
+
+import com.coyotesong.examples.persistence.jooq.DialectSupport;
+import com.coyotesong.examples.repository.snapshot.PollingRefresher;
+import com.coyotesong.examples.repository.snapshot.Refreshable;
+import org.jooq.Configuration;
+import org.jooq.exception.DataAccessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static com.coyotesong.examples.persistence.jooq.generated.tables.I18nLanguage.I18N_LANGUAGE;
+import static com.coyotesong.examples.persistence.jooq.generated.tables.I18nRegion.I18N_REGION;
+
+/**
+ * Choose the best available mechanism for keeping snapshots current
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class SnapshotRefreshers {
+    private static final Logger LOG = LoggerFactory.getLogger(SnapshotRefreshers.class);
+
+    private SnapshotRefreshers() {
+    }
+
+    /**
+     * Start refreshing the i18n snapshots
+     *
+     * PostgreSQL pushes change notifications. Everything else (including servers that
+     * reject `LISTEN`) falls back to polling.
+     *
+     * @param configuration jOOQ configuration
+     * @param pollInterval  polling interval if notifications are unavailable
+     * @param languages     language snapshot
+     * @param regions       region snapshot
+     * @return object that stops the refreshes when closed
+     */
+    public static AutoCloseable start(Configuration configuration, Duration pollInterval,
+                                      Refreshable languages, Refreshable regions) {
+        final Map<String, Refreshable> targets = Map.of(
+                I18N_LANGUAGE.getName(), languages,
+                I18N_REGION.getName(), regions);
+
+        if (DialectSupport.supportsListenNotify(configuration.dialect())) {
+            try {
+                return new PostgresNotificationRefresher(configuration.connectionProvider(), targets);
+            } catch (DataAccessException e) {
+                LOG.info("LISTEN/NOTIFY is unavailable, falling back to polling: {}", e.getMessage());
+            }
+        }
+
+        return new PollingRefresher(pollInterval, targets.values());
+    }
+}
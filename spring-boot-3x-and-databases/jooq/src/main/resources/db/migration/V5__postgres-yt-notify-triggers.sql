@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+--
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--    http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+--
+-- Send a notification on 'i18n_changed' whenever an i18n table is modified. The payload
+-- is the table name.
+--
+-- These are statement-level triggers so a bulk load or COPY only sends a single
+-- notification. PostgreSQL also folds identical notifications within a transaction.
+--
+
+create or replace function i18n_notify_changed() returns trigger as
+$$
+begin
+    perform pg_notify('i18n_changed', tg_table_name);
+    return null;
+end;
+$$ language plpgsql;
+
+create trigger i18n_language_notify_changed
+    after insert or update or delete or truncate
+    on i18n_language
+    for each statement
+execute function i18n_notify_changed();
+
+create trigger i18n_region_notify_changed
+    after insert or update or delete or truncate
+    on i18n_region
+    for each statement
+execute function i18n_notify_changed();
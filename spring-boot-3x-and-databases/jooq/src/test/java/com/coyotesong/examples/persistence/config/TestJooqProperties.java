@@ -19,6 +19,9 @@ package com.coyotesong.examples.persistence.config;
 
 import com.coyotesong.examples.persistence.jooq.I18nLanguageRepositoryJooq;
 import com.coyotesong.examples.persistence.jooq.I18nRegionRepositoryJooq;
+import com.coyotesong.examples.persistence.jooq.mapping.I18nRecordMapperProvider;
+import org.jooq.RecordMapperProvider;
+import org.jooq.RecordUnmapperProvider;
 import org.jooq.SQLDialect;
 import org.jooq.conf.Settings;
 import org.jooq.impl.*;
@@ -104,6 +107,11 @@ public class TestJooqProperties {
         config.set(new DefaultExecuteListenerProvider(exceptionTransformer()));
         config.set(settings());
 
+        // reflection-free mapping for the i18n model classes
+        final I18nRecordMapperProvider mapperProvider = new I18nRecordMapperProvider(config);
+        config.set((RecordMapperProvider) mapperProvider);
+        config.set((RecordUnmapperProvider) mapperProvider);
+
         // config.set(new DefaultTransactionProvider(connectionProvider));
 
         // config.set(new ThreadLocalTransactionProvider(connectionProvider));
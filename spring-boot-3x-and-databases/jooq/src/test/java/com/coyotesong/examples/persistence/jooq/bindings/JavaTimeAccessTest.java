@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.coyotesong.examples.persistence.jooq.bindings;
+
+import org.jooq.SQLDialect;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * JavaTimeAccess tests, using a fake driver that only supports `Timestamp`
+ */
+public class JavaTimeAccessTest {
+    // 02:30 doesn't exist in New York on this date - the clocks jump from 02:00 to 03:00
+    private static final LocalDateTime DST_GAP = LocalDateTime.of(2024, 3, 10, 2, 30);
+
+    private TimeZone defaultTimeZone;
+
+    @BeforeEach
+    public void setDefaultTimeZone() {
+        defaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+    }
+
+    @AfterEach
+    public void restoreDefaultTimeZone() {
+        TimeZone.setDefault(defaultTimeZone);
+    }
+
+    @Test
+    public void testSetPreservesValueInDstGap() throws Exception {
+        final AtomicReference<LocalDateTime> column = new AtomicReference<>();
+        JavaTimeAccess.set(SQLDialect.DEFAULT, fake(PreparedStatement.class, column), 1, DST_GAP);
+        assertEquals(DST_GAP, column.get());
+    }
+
+    @Test
+    public void testGetPreservesValueInDstGap() throws Exception {
+        final AtomicReference<LocalDateTime> column = new AtomicReference<>(DST_GAP);
+        assertEquals(DST_GAP, JavaTimeAccess.get(SQLDialect.DEFAULT, fake(ResultSet.class, column), 1));
+    }
+
+    /**
+     * Fake JDBC object with a single TIMESTAMP (without time zone) column. It converts
+     * between `Timestamp` and the column's wall-clock value the way drivers do - using
+     * the `Calendar`'s time zone, or the default time zone when there isn't one.
+     */
+    private static <T> T fake(Class<T> iface, AtomicReference<LocalDateTime> column) {
+        return iface.cast(Proxy.newProxyInstance(iface.getClassLoader(), new Class<?>[]{iface},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "unwrap" -> proxy;
+                    case "getObject", "setObject" -> throw new SQLFeatureNotSupportedException();
+                    case "getTimestamp" -> Timestamp.from(column.get().atZone(zone(args)).toInstant());
+                    case "setTimestamp" -> {
+                        column.set(LocalDateTime.ofInstant(((Timestamp) args[1]).toInstant(), zone(args)));
+                        yield null;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }));
+    }
+
+    private static ZoneId zone(Object[] args) {
+        return (args[args.length - 1] instanceof Calendar calendar)
+                ? calendar.getTimeZone().toZoneId() : ZoneId.systemDefault();
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.persistence.routing;
+
+import com.coyotesong.examples.containers.EnhancedPostgreSQLContainer;
+import com.coyotesong.examples.containers.actions.FlywayMigrationAction;
+import com.coyotesong.examples.persistence.config.PersistenceTestConfiguration;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.JdbcDatabaseContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verify that read-only transactions go to a streaming replica
+ *
+ * The replica is created with `pg_basebackup -R` from the primary after the schema has
+ * been migrated, then started as a hot standby. `pg_is_in_recovery()` tells us which
+ * server answered.
+ *
+ * The containers are started by hand since the container enhancements are thread-local
+ * and must be reset between the primary and the replica.
+ */
+@SuppressWarnings({"JavadocBlankLines", "SqlNoDataSourceInspection", "SqlResolve"})
+public class TestContainerReadWriteRouting {
+    private static final String REPLICATION_PASSWORD = "replicator";
+
+    private static final String PRIMARY_INIT = """
+            #!/bin/bash
+            set -e
+            psql -v ON_ERROR_STOP=1 --username "$POSTGRES_USER" --dbname "$POSTGRES_DB" \\
+                -c "create role replicator with replication login password '%s'"
+            echo "host replication replicator all scram-sha-256" >> "$PGDATA/pg_hba.conf"
+            """.formatted(REPLICATION_PASSWORD);
+
+    private static final String REPLICA_ENTRYPOINT = """
+            #!/bin/bash
+            set -e
+            export PGPASSWORD='%s'
+            until pg_basebackup -h primary -U replicator -D "$PGDATA" -R -X stream -c fast; do
+                rm -rf "${PGDATA:?}"/*
+                sleep 1
+            done
+            exec docker-entrypoint.sh "$@"
+            """.formatted(REPLICATION_PASSWORD);
+
+    private static final Network NETWORK = Network.newNetwork();
+
+    static EnhancedPostgreSQLContainer<?> primary = new EnhancedPostgreSQLContainer<>(
+            PersistenceTestConfiguration.postgresqlDockerImageName);
+
+    static EnhancedPostgreSQLContainer<?> replica = new EnhancedPostgreSQLContainer<>(
+            PersistenceTestConfiguration.postgresqlDockerImageName);
+
+    static {
+        primary.withNetwork(NETWORK);
+        primary.withNetworkAliases("primary");
+        primary.withCopyToContainer(Transferable.of(PRIMARY_INIT, 0755),
+                "/docker-entrypoint-initdb.d/10-replication.sh");
+
+        replica.withNetwork(NETWORK);
+        replica.withCopyToContainer(Transferable.of(REPLICA_ENTRYPOINT, 0755),
+                "/usr/local/bin/replica-entrypoint.sh");
+        replica.withCreateContainerCmdModifier(cmd -> cmd.withEntrypoint("/usr/local/bin/replica-entrypoint.sh"));
+        replica.waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*\\s", 1)
+                .withStartupTimeout(Duration.ofMinutes(2)));
+    }
+
+    private static HikariDataSource primaryPool;
+    private static HikariDataSource replicaPool;
+
+    @BeforeAll
+    public static void start() {
+        // must follow both constructors since they reset the (shared) enhancements
+        primary.addPostConstructAction(new FlywayMigrationAction());
+        primary.start();
+
+        replica.resetEnhancements(PersistenceTestConfiguration.postgresqlDockerImageName);
+        replica.start();
+
+        primaryPool = pool(primary, "primary");
+        replicaPool = pool(replica, "replica");
+    }
+
+    @AfterAll
+    public static void stop() {
+        primaryPool.close();
+        replicaPool.close();
+        replica.stop();
+        primary.stop();
+        NETWORK.close();
+    }
+
+    /**
+     * Create a connection pool for a container
+     *
+     * @param container container
+     * @param name      pool name
+     * @return connection pool
+     */
+    private static HikariDataSource pool(JdbcDatabaseContainer<?> container, String name) {
+        final HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(container.getJdbcUrl());
+        config.setUsername(container.getUsername());
+        config.setPassword(container.getPassword());
+        config.setMaximumPoolSize(4);
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Create a connection pool for a server that isn't there
+     *
+     * @return connection pool
+     */
+    private static HikariDataSource unreachable() {
+        final HikariConfig config = new HikariConfig();
+        config.setPoolName("unreachable");
+        config.setJdbcUrl("jdbc:postgresql://localhost:1/test");
+        config.setUsername(primary.getUsername());
+        config.setPassword(primary.getPassword());
+        config.setConnectionTimeout(250);
+        config.setInitializationFailTimeout(-1);
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Run a callback in a transaction, the way `@Transactional` would
+     *
+     * @param dataSource lazy proxy for the routing dataSource
+     * @param readOnly   true for a read-only transaction
+     * @param action     action
+     * @param <T>        result type
+     * @return result
+     */
+    private static <T> T inTransaction(DataSource dataSource, boolean readOnly, TransactionCallback<T> action) {
+        final TransactionTemplate template = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        template.setReadOnly(readOnly);
+        return template.execute(action);
+    }
+
+    /**
+     * Check which server answers in a transaction
+     *
+     * @param routing  routing dataSource
+     * @param readOnly true for a read-only transaction
+     * @return true if the server is a replica
+     */
+    private static boolean inRecovery(ReadWriteRoutingDataSource routing, boolean readOnly) {
+        final DataSource lazy = new LazyConnectionDataSourceProxy(routing);
+        final JdbcTemplate jdbc = new JdbcTemplate(lazy);
+        return Boolean.TRUE.equals(inTransaction(lazy, readOnly, status ->
+                jdbc.queryForObject("select pg_is_in_recovery()", Boolean.class)));
+    }
+
+    @Test
+    public void testReadWriteTransactionsUsePrimary() {
+        final ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primaryPool,
+                List.of(new ReadWriteRoutingDataSource.Replica("replica", replicaPool)));
+
+        assertFalse(inRecovery(routing, false));
+        assertEquals(0L, routing.getReplicaConnections());
+    }
+
+    @Test
+    public void testReadOnlyTransactionsUseReplica() {
+        final ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primaryPool,
+                List.of(new ReadWriteRoutingDataSource.Replica("replica", replicaPool)));
+
+        assertTrue(inRecovery(routing, true));
+        assertEquals(1L, routing.getReplicaConnections());
+        assertEquals(0L, routing.getPrimaryFallbacks());
+    }
+
+    @Test
+    public void testWritesAreReadFromReplica() throws InterruptedException {
+        final ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primaryPool,
+                List.of(new ReadWriteRoutingDataSource.Replica("replica", replicaPool)));
+        final DataSource lazy = new LazyConnectionDataSourceProxy(routing);
+        final JdbcTemplate jdbc = new JdbcTemplate(lazy);
+
+        inTransaction(lazy, false, status ->
+                jdbc.update("insert into i18n_language(code, hl, name) values ('rw', 'routing', 'Routing')"));
+
+        // streaming replication is asynchronous
+        final long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        Integer count = 0;
+        while (count == 0 && System.nanoTime() < deadline) {
+            count = inTransaction(lazy, true, status ->
+                    jdbc.queryForObject("select count(*) from i18n_language where hl = 'routing'", Integer.class));
+            if (count == 0) {
+                Thread.sleep(100);
+            }
+        }
+        assertEquals(1, count);
+        assertTrue(routing.getReplicaConnections() > 0);
+    }
+
+    @Test
+    public void testUnreachableReplicaIsEjected() {
+        try (HikariDataSource unreachable = unreachable()) {
+            final ReadWriteRoutingDataSource.Replica dead =
+                    new ReadWriteRoutingDataSource.Replica("unreachable", unreachable);
+            final ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primaryPool,
+                    List.of(dead, new ReadWriteRoutingDataSource.Replica("replica", replicaPool)));
+            routing.setEjectionPeriod(Duration.ZERO);
+
+            for (int i = 0; i < 4; i++) {
+                assertTrue(inRecovery(routing, true));
+            }
+            assertTrue(dead.isEjected());
+            assertEquals(1, dead.getFailures());
+
+            // still unreachable, so it stays out of rotation
+            routing.checkReplicas();
+            assertTrue(dead.isEjected());
+            assertEquals(2, dead.getFailures());
+        }
+    }
+
+    @Test
+    public void testFallbackToPrimary() {
+        try (HikariDataSource unreachable = unreachable()) {
+            final ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primaryPool,
+                    List.of(new ReadWriteRoutingDataSource.Replica("unreachable", unreachable)));
+
+            assertFalse(inRecovery(routing, true));
+            assertEquals(1L, routing.getPrimaryFallbacks());
+        }
+    }
+
+    @Test
+    public void testHealthyReplicaPassesCheck() {
+        final ReadWriteRoutingDataSource.Replica replica =
+                new ReadWriteRoutingDataSource.Replica("replica", replicaPool);
+        final ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primaryPool, List.of(replica));
+
+        routing.checkReplicas();
+        assertFalse(replica.isEjected());
+        assertEquals(0, replica.getFailures());
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.coyotesong.examples.persistence.routing;
+
+import com.coyotesong.examples.containers.EnhancedPostgreSQLContainer;
+import com.coyotesong.examples.containers.actions.FlywayMigrationAction;
+import com.coyotesong.examples.containers.enhancements.HikariConnectionPoolHelper;
+import com.coyotesong.examples.persistence.config.PersistenceTestConfiguration;
+import com.coyotesong.examples.persistence.config.ReplicaJdbcProperties;
+import com.coyotesong.examples.persistence.config.ReplicaJooqProperties;
+import com.coyotesong.examples.persistence.config.TestJooqProperties;
+import com.coyotesong.examples.persistence.config.TransactionProperties;
+import com.coyotesong.examples.repository.I18nLanguageRepository;
+import com.coyotesong.examples.repository.I18nRegionRepository;
+import com.coyotesong.examples.repository.replica.ReadReplicaI18nLanguageRepository;
+import com.coyotesong.examples.repository.replica.ReadReplicaI18nRegionRepository;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verify the `replicas` profile wiring
+ *
+ * The primary pool is registered with the `HikariConnectionPoolHelper` without a driver
+ * class, the way `JdbcProperties` does it, before `ReplicaJdbcProperties` registers the
+ * replica pools. The primary doubles as its own replica since the routing itself is
+ * covered by `TestContainerReadWriteRouting`.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        classes = {
+                TestContainerReplicasProfile.PrimaryJdbcProperties.class,
+                TransactionProperties.class,
+                ReplicaJdbcProperties.class,
+                TestJooqProperties.class,
+                ReplicaJooqProperties.class
+        })
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles({"jooq", "replicas"})
+@SuppressWarnings("JavadocBlankLines")
+public class TestContainerReplicasProfile {
+
+    @Container
+    @ServiceConnection
+    static EnhancedPostgreSQLContainer<?> postgres = new EnhancedPostgreSQLContainer<>(
+            PersistenceTestConfiguration.postgresqlDockerImageName);
+
+    static {
+        postgres.addPostConstructAction(new FlywayMigrationAction());
+    }
+
+    @DynamicPropertySource
+    static void replicaUrls(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.replica-urls", () -> postgres.getJdbcUrl() + "&ApplicationName=replica");
+    }
+
+    /**
+     * Primary dataSource, configured like `JdbcProperties`
+     */
+    @Configuration
+    static class PrimaryJdbcProperties {
+
+        @Bean
+        @NotNull
+        public DataSourceProperties dataSourceProperties(@Autowired JdbcConnectionDetails connectionDetails) {
+            final DataSourceProperties props = new DataSourceProperties();
+            // the migration's pool has the same URL and has been closed
+            props.setUrl(connectionDetails.getJdbcUrl() + "&ApplicationName=primary");
+            props.setUsername(connectionDetails.getUsername());
+            props.setPassword(connectionDetails.getPassword());
+            return props;
+        }
+
+        @Bean(destroyMethod = "close")
+        @NotNull
+        public HikariDataSource dataSource(@Autowired DataSourceProperties dataSourceProperties) {
+            final HikariConfig config = new HikariConfig();
+            config.setJdbcUrl(dataSourceProperties.getUrl());
+            config.setUsername(dataSourceProperties.getUsername());
+            config.setPassword(dataSourceProperties.getPassword());
+            return HikariConnectionPoolHelper.INSTANCE.getDataSource(config);
+        }
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    private I18nLanguageRepository languageRepository;
+
+    @Autowired
+    private I18nRegionRepository regionRepository;
+
+    @Test
+    public void testPrimaryBeans() {
+        assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+        assertInstanceOf(ReadReplicaI18nLanguageRepository.class, languageRepository);
+        assertInstanceOf(ReadReplicaI18nRegionRepository.class, regionRepository);
+    }
+
+    @Test
+    public void testFindersUseReplica() {
+        final long before = routingDataSource.getReplicaConnections();
+        languageRepository.findAll();
+        regionRepository.findAllForLocale("en");
+        assertTrue(routingDataSource.getReplicaConnections() >= before + 2);
+    }
+}
@@ -24,9 +24,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.test.context.NestedTestConfiguration;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * I18nLanguageRepository tests
@@ -56,7 +61,7 @@ public abstract class I18nLanguageRepositoryTests {
 
     @BeforeEach
     public void setup() {
-        this.languageRepository.delete();
+        this.languageRepository.truncate();
         this.expected1.setKey(null);
         this.expected2.setKey(null);
         LOG.info(this.expected1.toString());
@@ -102,4 +107,121 @@ public abstract class I18nLanguageRepositoryTests {
         assertEquals(expected1, actual1);
         assertEquals(expected2, actual2);
     }
+
+    @Test
+    public void testBulkInsert() {
+        languageRepository.bulkInsert(List.of(expected1, expected2));
+
+        final I18nLanguage actual1 = languageRepository.findByCodeAndLocale(expected1.getCode(), expected1.getHl());
+        final I18nLanguage actual2 = languageRepository.findByCodeAndLocale(expected2.getCode(), expected2.getHl());
+
+        assertEquals(expected1, actual1);
+        assertEquals(expected2, actual2);
+        assertEquals(2, languageRepository.findAll().size());
+    }
+
+    @Test
+    public void testLoad() {
+        assertEquals(2L, languageRepository.load(List.of(expected1, expected2)));
+
+        final List<I18nLanguage> actual1 = languageRepository.findAllForLocale(expected1.getHl());
+        assertEquals(1, actual1.size());
+        assertEquals(expected1, actual1.get(0));
+
+        final List<I18nLanguage> actual2 = languageRepository.findAllForLocale(expected2.getHl());
+        assertEquals(1, actual2.size());
+        assertEquals(expected2, actual2.get(0));
+    }
+
+    @Test
+    public void testStreamAll() {
+        languageRepository.bulkInsert(List.of(expected1, expected2));
+
+        try (Stream<I18nLanguage> stream = languageRepository.streamAll()) {
+            assertEquals(2L, stream.count());
+        }
+    }
+
+    @Test
+    public void testForEachForLocale() {
+        languageRepository.bulkInsert(List.of(expected1, expected2));
+
+        final List<I18nLanguage> actual = new ArrayList<>();
+        languageRepository.forEachForLocale(expected1.getHl(), actual::add);
+        assertEquals(1, actual.size());
+        assertEquals(expected1, actual.get(0));
+    }
+
+    @Test
+    public void testFindAllForLocalePaged() {
+        expected2.setHl(expected1.getHl());
+        languageRepository.bulkInsert(List.of(expected1, expected2));
+
+        final Page<I18nLanguage> first = languageRepository.findAllForLocale(expected1.getHl(), null, 1);
+        assertEquals(1, first.items().size());
+        assertTrue(first.hasNext());
+
+        final Page<I18nLanguage> second = languageRepository.findAllForLocale(expected1.getHl(), first.nextKey(), 1);
+        assertEquals(1, second.items().size());
+        assertFalse(second.hasNext());
+
+        assertEquals(List.of(expected1, expected2), List.of(first.items().get(0), second.items().get(0)));
+    }
+
+    @Test
+    public void testUpsert() {
+        languageRepository.bulkInsert(List.of(expected1));
+
+        expected1.setName(expected1.getName() + " (updated)");
+        languageRepository.upsert(List.of(expected1, expected2));
+
+        assertEquals(2, languageRepository.findAll().size());
+        assertEquals(expected1.getName(),
+                languageRepository.findByCodeAndLocale(expected1.getCode(), expected1.getHl()).getName());
+        assertEquals(expected2.getName(),
+                languageRepository.findByCodeAndLocale(expected2.getCode(), expected2.getHl()).getName());
+    }
+
+    @Test
+    public void testUpsertWithDuplicateKeys() {
+        languageRepository.bulkInsert(List.of(expected1));
+
+        // same (code, hl) twice in one statement, for an existing and a new row - the last value wins
+        final I18nLanguage duplicate = new I18nLanguage();
+        duplicate.setCode(expected1.getCode());
+        duplicate.setHl(expected1.getHl());
+        duplicate.setName(expected1.getName() + " (updated)");
+        languageRepository.upsert(List.of(expected1, expected2, duplicate, expected2));
+
+        assertEquals(2, languageRepository.findAll().size());
+        assertEquals(duplicate.getName(),
+                languageRepository.findByCodeAndLocale(expected1.getCode(), expected1.getHl()).getName());
+        assertEquals(expected2.getName(),
+                languageRepository.findByCodeAndLocale(expected2.getCode(), expected2.getHl()).getName());
+    }
+
+    @Test
+    public void testFindByCodesAndLocales() {
+        languageRepository.bulkInsert(List.of(expected1, expected2));
+
+        final CodeAndLocale key1 = new CodeAndLocale(expected1.getCode(), expected1.getHl());
+        final CodeAndLocale key2 = new CodeAndLocale(expected2.getCode(), expected2.getHl());
+        final CodeAndLocale missing = new CodeAndLocale("XX", expected1.getHl());
+
+        final Map<CodeAndLocale, I18nLanguage> actual =
+                languageRepository.findByCodesAndLocales(List.of(key1, key2, key1, missing));
+        assertEquals(Map.of(key1, expected1, key2, expected2), actual);
+    }
+
+    @Test
+    public void testTruncate() {
+        languageRepository.bulkInsert(List.of(expected1, expected2));
+        languageRepository.truncate();
+
+        assertTrue(languageRepository.findAll().isEmpty());
+
+        // the table is still usable
+        languageRepository.bulkInsert(List.of(expected1));
+        assertEquals(1, languageRepository.findAll().size());
+    }
 }
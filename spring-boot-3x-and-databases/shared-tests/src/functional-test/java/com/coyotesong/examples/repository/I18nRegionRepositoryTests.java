@@ -24,10 +24,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.test.context.NestedTestConfiguration;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * I18nRegionRepository tests
@@ -57,7 +62,7 @@ public abstract class I18nRegionRepositoryTests {
 
     @BeforeEach
     public void setup() {
-        this.regionRepository.delete();
+        this.regionRepository.truncate();
         this.expected1.setKey(null);
         this.expected2.setKey(null);
     }
@@ -101,4 +106,125 @@ public abstract class I18nRegionRepositoryTests {
         assertEquals(expected1, actual1);
         assertEquals(expected2, actual2);
     }
+
+    @Test
+    public void testBulkInsert() {
+        regionRepository.bulkInsert(List.of(expected1, expected2));
+
+        final I18nRegion actual1 = regionRepository.findByCodeAndLocale(expected1.getCode(), expected1.getHl());
+        final I18nRegion actual2 = regionRepository.findByCodeAndLocale(expected2.getCode(), expected2.getHl());
+
+        assertEquals(expected1, actual1);
+        assertEquals(expected2, actual2);
+        assertEquals(2, regionRepository.findAll().size());
+    }
+
+    @Test
+    public void testLoad() {
+        assertEquals(2L, regionRepository.load(List.of(expected1, expected2)));
+
+        final List<I18nRegion> actual1 = regionRepository.findAllForLocale(expected1.getHl());
+        assertEquals(1, actual1.size());
+        assertEquals(expected1, actual1.get(0));
+
+        final List<I18nRegion> actual2 = regionRepository.findAllForLocale(expected2.getHl());
+        assertEquals(1, actual2.size());
+        assertEquals(expected2, actual2.get(0));
+    }
+
+    @Test
+    public void testStreamAll() {
+        regionRepository.bulkInsert(List.of(expected1, expected2));
+
+        try (Stream<I18nRegion> stream = regionRepository.streamAll()) {
+            assertEquals(2L, stream.count());
+        }
+    }
+
+    @Test
+    public void testForEachForLocale() {
+        regionRepository.bulkInsert(List.of(expected1, expected2));
+
+        final List<I18nRegion> actual = new ArrayList<>();
+        regionRepository.forEachForLocale(expected1.getHl(), actual::add);
+        assertEquals(1, actual.size());
+        assertEquals(expected1, actual.get(0));
+    }
+
+    @Test
+    public void testFindAllForLocalePaged() {
+        // (code, hl) is unique
+        expected2.setCode("MX");
+        expected2.setGl("MX");
+        expected2.setHl(expected1.getHl());
+        regionRepository.bulkInsert(List.of(expected1, expected2));
+
+        final Page<I18nRegion> first = regionRepository.findAllForLocale(expected1.getHl(), null, 1);
+        assertEquals(1, first.items().size());
+        assertTrue(first.hasNext());
+
+        final Page<I18nRegion> second = regionRepository.findAllForLocale(expected1.getHl(), first.nextKey(), 1);
+        assertEquals(1, second.items().size());
+        assertFalse(second.hasNext());
+
+        assertEquals(List.of(expected1, expected2), List.of(first.items().get(0), second.items().get(0)));
+    }
+
+    @Test
+    public void testUpsert() {
+        regionRepository.bulkInsert(List.of(expected1));
+
+        expected1.setName(expected1.getName() + " (updated)");
+        regionRepository.upsert(List.of(expected1, expected2));
+
+        assertEquals(2, regionRepository.findAll().size());
+        assertEquals(expected1.getName(),
+                regionRepository.findByCodeAndLocale(expected1.getCode(), expected1.getHl()).getName());
+        assertEquals(expected2.getName(),
+                regionRepository.findByCodeAndLocale(expected2.getCode(), expected2.getHl()).getName());
+    }
+
+    @Test
+    public void testUpsertWithDuplicateKeys() {
+        regionRepository.bulkInsert(List.of(expected1));
+
+        // same (code, hl) twice in one statement, for an existing and a new row - the last value wins
+        final I18nRegion duplicate = new I18nRegion();
+        duplicate.setCode(expected1.getCode());
+        duplicate.setHl(expected1.getHl());
+        duplicate.setGl(expected1.getGl());
+        duplicate.setName(expected1.getName() + " (updated)");
+        regionRepository.upsert(List.of(expected1, expected2, duplicate, expected2));
+
+        assertEquals(2, regionRepository.findAll().size());
+        assertEquals(duplicate.getName(),
+                regionRepository.findByCodeAndLocale(expected1.getCode(), expected1.getHl()).getName());
+        assertEquals(expected2.getName(),
+                regionRepository.findByCodeAndLocale(expected2.getCode(), expected2.getHl()).getName());
+    }
+
+    @Test
+    public void testFindByCodesAndLocales() {
+        regionRepository.bulkInsert(List.of(expected1, expected2));
+
+        final CodeAndLocale key1 = new CodeAndLocale(expected1.getCode(), expected1.getHl());
+        final CodeAndLocale key2 = new CodeAndLocale(expected2.getCode(), expected2.getHl());
+        final CodeAndLocale missing = new CodeAndLocale("XX", expected1.getHl());
+
+        final Map<CodeAndLocale, I18nRegion> actual =
+                regionRepository.findByCodesAndLocales(List.of(key1, key2, key1, missing));
+        assertEquals(Map.of(key1, expected1, key2, expected2), actual);
+    }
+
+    @Test
+    public void testTruncate() {
+        regionRepository.bulkInsert(List.of(expected1, expected2));
+        regionRepository.truncate();
+
+        assertTrue(regionRepository.findAll().isEmpty());
+
+        // the table is still usable
+        regionRepository.bulkInsert(List.of(expected1));
+        assertEquals(1, regionRepository.findAll().size());
+    }
 }
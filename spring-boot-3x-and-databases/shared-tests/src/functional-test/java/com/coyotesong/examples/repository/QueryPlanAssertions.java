@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Assertions on textual query plans
+ *
+ * A plan fails if it reads one of the tables with a full scan or sorts its rows instead
+ * of reading them from an index in the required order. Sorts of other relations, e.g.,
+ * a small `unnest()` of lookup keys, are allowed.
+ *
+ * The plans must contain enough data for the planner to prefer an index - on a nearly
+ * empty table a sequential scan is the correct choice.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public final class QueryPlanAssertions {
+    // PostgreSQL: "Seq Scan on i18n_language", "Parallel Seq Scan on i18n_language"
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+
+    // PostgreSQL: "Sort Key: key" or "Sort Key: i18n_language.code, k.hl"
+    private static final Pattern SORT_KEY = Pattern.compile("Sort Key: (.*)$", Pattern.MULTILINE);
+
+    // MySQL
+    private static final Pattern FILESORT = Pattern.compile("Using filesort");
+
+    private QueryPlanAssertions() {
+    }
+
+    /**
+     * Assert that the plan does not scan or sort any of the tables
+     *
+     * @param description description of the query, used in the failure message
+     * @param plan        query plan (text format)
+     * @param tables      tables that must be read via an index
+     */
+    public static void assertIndexed(String description, String plan, String... tables) {
+        final Set<String> names = Arrays.stream(tables)
+                .map(table -> table.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+
+        final Matcher scan = SEQ_SCAN.matcher(plan);
+        while (scan.find()) {
+            if (names.contains(scan.group(1).toLowerCase(Locale.ROOT))) {
+                fail(description + ": sequential scan on " + scan.group(1) + "\n" + plan);
+            }
+        }
+
+        final Matcher sort = SORT_KEY.matcher(plan);
+        while (sort.find()) {
+            for (String key : sort.group(1).split(",")) {
+                // unqualified keys are only printed when the query reads a single table
+                final int dot = key.indexOf('.');
+                if ((dot < 0) || names.contains(key.substring(0, dot).trim().toLowerCase(Locale.ROOT))) {
+                    fail(description + ": sort on " + key.trim() + "\n" + plan);
+                }
+            }
+        }
+
+        if (FILESORT.matcher(plan).find()) {
+            fail(description + ": filesort\n" + plan);
+        }
+    }
+}
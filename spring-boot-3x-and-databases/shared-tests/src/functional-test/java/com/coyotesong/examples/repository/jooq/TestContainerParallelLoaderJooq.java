@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.jooq;
+
+import com.coyotesong.examples.containers.EnhancedPostgreSQLContainer;
+import com.coyotesong.examples.containers.actions.FlywayMigrationAction;
+import com.coyotesong.examples.containers.enhancements.GuestOSDetailsHelper;
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.persistence.config.PersistenceTestConfiguration;
+import com.coyotesong.examples.persistence.jooq.I18nRegionRepositoryJooq;
+import com.coyotesong.examples.persistence.jooq.copy.ParallelLoader;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DefaultConfiguration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Parallel, partitioned bulk loads
+ */
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SuppressWarnings("JavadocBlankLines")
+public class TestContainerParallelLoaderJooq {
+    private static final int LOCALES = 40;
+    private static final int CODES_PER_LOCALE = 500;
+
+    @Container
+    static EnhancedPostgreSQLContainer<?> postgres = new EnhancedPostgreSQLContainer<>(
+            PersistenceTestConfiguration.postgresqlDockerImageName);
+
+    static {
+        postgres.addPostConstructAction(new FlywayMigrationAction());
+    }
+
+    private GuestOSDetailsHelper<?> guestOSDetails;
+    private int parallelism;
+    private HikariDataSource pool;
+    private I18nRegionRepositoryJooq repository;
+
+    @BeforeAll
+    public void start() {
+        guestOSDetails = new GuestOSDetailsHelper<>(postgres);
+        parallelism = ParallelLoader.defaultParallelism(guestOSDetails);
+
+        final HikariConfig config = new HikariConfig();
+        config.setPoolName("parallel-loader");
+        config.setJdbcUrl(postgres.getJdbcUrl());
+        config.setUsername(postgres.getUsername());
+        config.setPassword(postgres.getPassword());
+        config.setMaximumPoolSize(parallelism);
+        pool = new HikariDataSource(config);
+
+        repository = new I18nRegionRepositoryJooq(new DefaultConfiguration().set(SQLDialect.POSTGRES).set(pool));
+    }
+
+    @AfterAll
+    public void stop() {
+        pool.close();
+    }
+
+    @BeforeEach
+    public void setup() {
+        repository.truncate();
+    }
+
+    private static List<I18nRegion> regions() {
+        final List<I18nRegion> regions = new ArrayList<>(LOCALES * CODES_PER_LOCALE);
+        for (int i = 0; i < LOCALES; i++) {
+            for (int j = 0; j < CODES_PER_LOCALE; j++) {
+                final I18nRegion region = new I18nRegion();
+                region.setHl("l" + i);
+                region.setCode("c" + j);
+                region.setGl("c" + j);
+                region.setName("Region " + j + " (" + i + ")");
+                regions.add(region);
+            }
+        }
+        return regions;
+    }
+
+    @Test
+    public void testParallelLoad() {
+        final ParallelLoader.Report report = repository.loadInParallel(regions(), guestOSDetails);
+
+        assertEquals(parallelism, report.workers().size());
+        assertEquals(LOCALES * CODES_PER_LOCALE, report.rows());
+        for (int i = 0; i < parallelism; i++) {
+            final ParallelLoader.WorkerReport worker = report.workers().get(i);
+            assertEquals(i, worker.partition());
+            assertNull(worker.failure());
+        }
+
+        assertEquals(LOCALES * CODES_PER_LOCALE, repository.findAll().size());
+        assertEquals(CODES_PER_LOCALE, repository.findAllForLocale("l7").size());
+    }
+
+    @Test
+    public void testFailureIsReportedForItsPartition() {
+        final List<I18nRegion> regions = regions();
+        // violates the unique (code, hl) constraint
+        final I18nRegion duplicate = new I18nRegion();
+        duplicate.setHl("l3");
+        duplicate.setCode("c3");
+        duplicate.setName("duplicate");
+        regions.add(duplicate);
+
+        final int expected = ParallelLoader.Partitioner.<I18nRegion>byKey(I18nRegion::getHl)
+                .partition(duplicate, parallelism);
+
+        final ParallelLoader.ParallelLoadException e = assertThrows(ParallelLoader.ParallelLoadException.class,
+                () -> repository.loadInParallel(regions, parallelism));
+        assertNotNull(e.getCause());
+        assertEquals(0, e.getSuppressed().length);
+        assertNotNull(e.getReport().workers().get(expected).failure());
+
+        // the failed partition was rolled back
+        assertTrue(repository.findAllForLocale("l3").isEmpty());
+    }
+}
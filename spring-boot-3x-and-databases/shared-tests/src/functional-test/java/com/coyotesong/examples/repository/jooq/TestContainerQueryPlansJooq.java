@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.jooq;
+
+import com.coyotesong.examples.containers.EnhancedPostgreSQLContainer;
+import com.coyotesong.examples.containers.actions.FlywayMigrationAction;
+import com.coyotesong.examples.model.I18nLanguage;
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.persistence.config.PersistenceTestConfiguration;
+import com.coyotesong.examples.persistence.config.TestJooqProperties;
+import com.coyotesong.examples.persistence.jooq.I18nLanguageRepositoryJooq;
+import com.coyotesong.examples.persistence.jooq.I18nRegionRepositoryJooq;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import com.coyotesong.examples.repository.QueryPlanAssertions;
+import org.jooq.Configuration;
+import org.jooq.DSLContext;
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+import org.jooq.Query;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.coyotesong.examples.persistence.jooq.generated.tables.I18nLanguage.I18N_LANGUAGE;
+import static com.coyotesong.examples.persistence.jooq.generated.tables.I18nRegion.I18N_REGION;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Verify that the keyed repository queries use indexes
+ *
+ * The tables are loaded with a realistic amount of synthetic data, then each repository
+ * query is captured as it's executed and replayed with `EXPLAIN`. Full-table reads
+ * (`findAll()`, `streamAll()`) are not checked since a sequential scan is correct there.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        classes = {
+                PersistenceTestConfiguration.class,
+                TestJooqProperties.class
+        })
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ActiveProfiles({"jooq"})
+@SuppressWarnings("JavadocBlankLines")
+public class TestContainerQueryPlansJooq {
+    private static final int LOCALES = 80;
+    private static final int CODES_PER_LOCALE = 500;
+
+    @Container
+    @ServiceConnection
+    static EnhancedPostgreSQLContainer<?> postgres = new EnhancedPostgreSQLContainer<>(
+            PersistenceTestConfiguration.postgresqlDockerImageName);
+
+    static {
+        postgres.addPostConstructAction(new FlywayMigrationAction());
+    }
+
+    /**
+     * Records each query as it is executed
+     */
+    static class CapturingListener implements ExecuteListener {
+        private final List<Query> queries;
+
+        CapturingListener(List<Query> queries) {
+            this.queries = queries;
+        }
+
+        @Override
+        public void executeStart(ExecuteContext ctx) {
+            if (ctx.query() != null) {
+                queries.add(ctx.query());
+            }
+        }
+    }
+
+    private final DSLContext ctx;
+    private final List<Query> queries = new ArrayList<>();
+    private final I18nLanguageRepositoryJooq languageRepository;
+    private final I18nRegionRepositoryJooq regionRepository;
+
+    /**
+     * Constructor
+     *
+     * @param configuration jOOQ configuration
+     */
+    @Autowired
+    public TestContainerQueryPlansJooq(Configuration configuration) {
+        this.ctx = DSL.using(configuration);
+
+        final Configuration capturing = configuration.deriveAppending(new CapturingListener(queries));
+        this.languageRepository = new I18nLanguageRepositoryJooq(capturing);
+        this.regionRepository = new I18nRegionRepositoryJooq(capturing);
+    }
+
+    @BeforeAll
+    public void load() {
+        languageRepository.delete();
+        regionRepository.delete();
+
+        final List<I18nLanguage> languages = new ArrayList<>();
+        final List<I18nRegion> regions = new ArrayList<>();
+        for (int i = 0; i < LOCALES; i++) {
+            for (int j = 0; j < CODES_PER_LOCALE; j++) {
+                final I18nLanguage language = new I18nLanguage();
+                language.setHl(locale(i));
+                language.setCode(code(j));
+                language.setName("Language " + j);
+                languages.add(language);
+
+                final I18nRegion region = new I18nRegion();
+                region.setHl(locale(i));
+                region.setCode(code(j));
+                region.setName("Region " + j);
+                region.setGl(code(j));
+                regions.add(region);
+            }
+        }
+
+        languageRepository.load(languages);
+        regionRepository.load(regions);
+        ctx.execute("analyze " + I18N_LANGUAGE.getName());
+        ctx.execute("analyze " + I18N_REGION.getName());
+    }
+
+    @BeforeEach
+    public void setup() {
+        queries.clear();
+    }
+
+    private static String locale(int idx) {
+        return String.format("h%02d", idx);
+    }
+
+    private static String code(int idx) {
+        return String.format("c%03d", idx);
+    }
+
+    /**
+     * Explain every captured query and check its plan
+     *
+     * @param description description of the repository call
+     */
+    private void assertIndexed(String description) {
+        assertFalse(queries.isEmpty(), description + ": no queries were captured");
+        for (Query query : queries) {
+            QueryPlanAssertions.assertIndexed(description, ctx.explain(query).plan(),
+                    I18N_LANGUAGE.getName(), I18N_REGION.getName());
+        }
+        queries.clear();
+    }
+
+    @Test
+    public void testFindByCodeAndLocale() {
+        languageRepository.findByCodeAndLocale(code(7), locale(3));
+        assertIndexed("language findByCodeAndLocale");
+
+        regionRepository.findByCodeAndLocale(code(7), locale(3));
+        assertIndexed("region findByCodeAndLocale");
+    }
+
+    @Test
+    public void testFindByCodesAndLocales() {
+        final List<CodeAndLocale> keys = List.of(
+                new CodeAndLocale(code(7), locale(3)),
+                new CodeAndLocale(code(11), locale(5)));
+
+        languageRepository.findByCodesAndLocales(keys);
+        assertIndexed("language findByCodesAndLocales");
+
+        regionRepository.findByCodesAndLocales(keys);
+        assertIndexed("region findByCodesAndLocales");
+    }
+
+    @Test
+    public void testFindAllForLocale() {
+        languageRepository.findAllForLocale(locale(3));
+        assertIndexed("language findAllForLocale");
+
+        regionRepository.findAllForLocale(locale(3));
+        assertIndexed("region findAllForLocale");
+    }
+
+    @Test
+    public void testFindAllForLocalePaged() {
+        final Integer languageKey = languageRepository.findAllForLocale(locale(3), null, 20).nextKey();
+        languageRepository.findAllForLocale(locale(3), languageKey, 20);
+        assertIndexed("language findAllForLocale (paged)");
+
+        final Integer regionKey = regionRepository.findAllForLocale(locale(3), null, 20).nextKey();
+        regionRepository.findAllForLocale(locale(3), regionKey, 20);
+        assertIndexed("region findAllForLocale (paged)");
+    }
+
+    @Test
+    public void testStreamAllForLocale() {
+        try (Stream<I18nLanguage> stream = languageRepository.streamAllForLocale(locale(3))) {
+            stream.forEach(language -> { });
+        }
+        assertIndexed("language streamAllForLocale");
+
+        try (Stream<I18nRegion> stream = regionRepository.streamAllForLocale(locale(3))) {
+            stream.forEach(region -> { });
+        }
+        assertIndexed("region streamAllForLocale");
+    }
+}
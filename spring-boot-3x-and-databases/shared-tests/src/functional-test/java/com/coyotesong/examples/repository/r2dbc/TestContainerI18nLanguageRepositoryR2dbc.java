@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.r2dbc;
+
+import com.coyotesong.examples.containers.EnhancedPostgreSQLContainer;
+import com.coyotesong.examples.containers.actions.FlywayMigrationAction;
+import com.coyotesong.examples.persistence.config.PersistenceTestConfiguration;
+import com.coyotesong.examples.persistence.config.TestR2dbcProperties;
+import com.coyotesong.examples.persistence.jooq.r2dbc.I18nLanguageRepositoryR2dbc;
+import com.coyotesong.examples.repository.I18nLanguageRepository;
+import com.coyotesong.examples.repository.I18nLanguageRepositoryTests;
+import com.coyotesong.examples.repository.TestObjectFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.NestedTestConfiguration;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * I18nLanguageRepository tests with PostgreSQL + jOOQ + R2DBC
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        classes = {
+                PersistenceTestConfiguration.class,
+                I18nLanguageRepositoryR2dbc.class,
+                TestR2dbcProperties.class
+        })
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.INHERIT)
+@ActiveProfiles({"jooq-r2dbc"})
+public class TestContainerI18nLanguageRepositoryR2dbc extends I18nLanguageRepositoryTests {
+
+    @Container
+    @ServiceConnection
+    static EnhancedPostgreSQLContainer<?> postgres = new EnhancedPostgreSQLContainer<>(
+            PersistenceTestConfiguration.postgresqlDockerImageName);
+
+    static {
+        postgres.addPostConstructAction(new FlywayMigrationAction());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param testObjectFactory  test object factory
+     * @param languageRepository repository implementation to be tested
+     */
+    @Autowired
+    public TestContainerI18nLanguageRepositoryR2dbc(TestObjectFactory testObjectFactory, I18nLanguageRepository languageRepository) {
+        super(testObjectFactory, languageRepository);
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2024 Bear Giles <bgiles@coyotesong.com>.
+ * All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coyotesong.examples.repository.shard;
+
+import com.coyotesong.examples.containers.EnhancedPostgreSQLContainer;
+import com.coyotesong.examples.containers.actions.FlywayMigrationAction;
+import com.coyotesong.examples.containers.enhancements.HikariConnectionPoolHelper;
+import com.coyotesong.examples.model.I18nRegion;
+import com.coyotesong.examples.persistence.config.PersistenceTestConfiguration;
+import com.coyotesong.examples.persistence.jooq.I18nRegionRepositoryJooq;
+import com.coyotesong.examples.repository.CodeAndLocale;
+import com.coyotesong.examples.repository.I18nRegionRepository;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultConfiguration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.coyotesong.examples.persistence.jooq.generated.tables.I18nRegion.I18N_REGION;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ShardedI18nRegionRepository tests with three PostgreSQL databases
+ *
+ * The containers are started by hand since the container enhancements are thread-local
+ * and must be reset before each container is started.
+ */
+@SuppressWarnings("JavadocBlankLines")
+public class TestContainerShardedRegionRepository {
+    private static final int SHARDS = 3;
+    private static final int LOCALES = 30;
+
+    private static final List<EnhancedPostgreSQLContainer<?>> containers = new ArrayList<>();
+    private static final Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+    private static final Map<String, I18nRegionRepository> shards = new LinkedHashMap<>();
+
+    private static ShardedI18nRegionRepository repository;
+
+    @BeforeAll
+    public static void start() {
+        for (int i = 0; i < SHARDS; i++) {
+            containers.add(new EnhancedPostgreSQLContainer<>(PersistenceTestConfiguration.postgresqlDockerImageName));
+        }
+
+        for (int i = 0; i < SHARDS; i++) {
+            final EnhancedPostgreSQLContainer<?> container = containers.get(i);
+            container.resetEnhancements(PersistenceTestConfiguration.postgresqlDockerImageName);
+            container.addPostConstructAction(new FlywayMigrationAction());
+            container.start();
+
+            final HikariConfig config = new HikariConfig();
+            config.setPoolName("shard-" + i);
+            // no driver class, like ShardJooqProperties without spring.datasource.driver-class-name
+            // the migration's pool has the same URL and has been closed
+            config.setJdbcUrl(container.getJdbcUrl() + "&ApplicationName=shard-" + i);
+            config.setUsername(container.getUsername());
+            config.setPassword(container.getPassword());
+
+            final HikariDataSource pool = HikariConnectionPoolHelper.INSTANCE.getDataSource(config);
+            pools.put(config.getPoolName(), pool);
+            shards.put(config.getPoolName(),
+                    new I18nRegionRepositoryJooq(new DefaultConfiguration().set(SQLDialect.POSTGRES).set(pool)));
+        }
+
+        repository = new ShardedI18nRegionRepository(shards);
+    }
+
+    @AfterAll
+    public static void stop() {
+        repository.close();
+        pools.values().forEach(HikariDataSource::close);
+        containers.forEach(EnhancedPostgreSQLContainer::stop);
+    }
+
+    @BeforeEach
+    public void setup() {
+        repository.truncate();
+    }
+
+    private static List<I18nRegion> regions() {
+        final List<I18nRegion> regions = new ArrayList<>();
+        for (int i = 0; i < LOCALES; i++) {
+            for (String code : List.of("US", "FR", "JP")) {
+                final I18nRegion region = new I18nRegion();
+                region.setHl("l" + i);
+                region.setCode(code);
+                region.setGl(code);
+                region.setName("Region " + code + " (" + i + ")");
+                regions.add(region);
+            }
+        }
+        return regions;
+    }
+
+    /**
+     * Count the regions stored on a shard
+     *
+     * @param name shard name
+     * @return number of regions
+     */
+    private static int count(String name) {
+        return DSL.using(pools.get(name), SQLDialect.POSTGRES).fetchCount(I18N_REGION);
+    }
+
+    @Test
+    public void testInsertIsRoutedByLocale() {
+        final List<I18nRegion> regions = regions();
+        repository.insert(regions);
+
+        int total = 0;
+        for (Map.Entry<String, I18nRegionRepository> shard : shards.entrySet()) {
+            final long expected = regions.stream()
+                    .filter(region -> repository.shardFor(region.getHl()) == shard.getValue())
+                    .count();
+            final int actual = count(shard.getKey());
+            assertEquals(expected, actual);
+            // 30 locales should not all land on one shard
+            assertTrue(actual > 0, shard.getKey() + " is empty");
+            total += actual;
+        }
+        assertEquals(regions.size(), total);
+    }
+
+    @Test
+    public void testFindAllMergesShards() {
+        repository.bulkInsert(regions());
+        assertEquals(regions().size(), repository.findAll().size());
+
+        try (var stream = repository.streamAll()) {
+            assertEquals(regions().size(), stream.count());
+        }
+    }
+
+    @Test
+    public void testLocaleLookups() {
+        repository.bulkInsert(regions());
+
+        for (int i = 0; i < LOCALES; i++) {
+            final String locale = "l" + i;
+            assertEquals(3, repository.findAllForLocale(locale).size());
+            assertEquals(3, repository.findAllForLocale(locale, null, 10).items().size());
+
+            final I18nRegion region = repository.findByCodeAndLocale("FR", locale);
+            assertNotNull(region);
+            assertEquals(locale, region.getHl());
+        }
+    }
+
+    @Test
+    public void testFindByCodesAndLocales() {
+        repository.bulkInsert(regions());
+
+        final List<CodeAndLocale> keys = new ArrayList<>();
+        for (int i = 0; i < LOCALES; i++) {
+            keys.add(new CodeAndLocale("JP", "l" + i));
+        }
+        keys.add(new CodeAndLocale("XX", "l0"));
+
+        final Map<CodeAndLocale, I18nRegion> actual = repository.findByCodesAndLocales(keys);
+        assertEquals(LOCALES, actual.size());
+    }
+
+    @Test
+    public void testLoadAndUpsert() {
+        repository.setLoadChunkSize(7);
+        assertEquals(regions().size(), repository.load(regions()));
+        assertEquals(regions().size(), repository.findAll().size());
+
+        final I18nRegion updated = regions().get(0);
+        updated.setName("updated");
+        repository.upsert(List.of(updated));
+        assertEquals("updated", repository.findByCodeAndLocale(updated.getCode(), updated.getHl()).getName());
+        assertEquals(regions().size(), repository.findAll().size());
+    }
+
+    @Test
+    public void testDeleteClearsAllShards() {
+        repository.insert(regions());
+        repository.delete();
+
+        for (String name : shards.keySet()) {
+            assertEquals(0, count(name));
+        }
+    }
+}